@@ -14,7 +14,12 @@ CREATE TABLE `advertisements` (
   `title` varchar(255) DEFAULT NULL,
   `description` text,
   `media_type` enum('PDF', 'MPG', 'JPEG', 'BMP') DEFAULT NULL,
-  `media_path` varchar(255) DEFAULT NULL
+  `media_path` varchar(255) DEFAULT NULL,
+  -- Screens poll for rows changed since the newest updated_at they have seen.
+  `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  -- Set instead of deleting the row, so screens see the removal on their next poll.
+  `deleted` BOOLEAN NOT NULL DEFAULT FALSE,
+  INDEX `idx_advertisements_updated_at` (`updated_at`)
 );
 
 --
@@ -0,0 +1,359 @@
+package ca.ucalgary.edu.ensf380;
+
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementDisplay;
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementCatalog;
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.news.ArticleDisplay;
+import ca.ucalgary.edu.ensf380.news.NewsFeed;
+import ca.ucalgary.edu.ensf380.train.NetworkSnapshotPublisher;
+import ca.ucalgary.edu.ensf380.train.SimulatorProcess;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+import ca.ucalgary.edu.ensf380.train.TrainAnimator;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+import ca.ucalgary.edu.ensf380.weather.WeatherDisplay;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The FleetMain class runs many subway screens in one process.
+ * <p>
+ * The simulator is started once and its feed, the station registry, the advertisements, the news
+ * articles and the weather report are shared by every screen. The map is rendered once without a
+ * highlight, and each screen draws its own train on top when it paints, so a screen only adds its
+ * Swing components to the memory used by the fleet. Screen {@code i} follows train {@code i % 12}.
+ * <p>
+ * By default the screens are headless: they are painted one at a time on the event dispatch thread
+ * into one of two reusable images, which is then encoded and saved to {@code out/screens/screen_<n>.png}
+ * in the background while the next screen is painted into the other, so every screen is refreshed once
+ * per export interval. With {@code --windows} each screen gets its own window instead.
+ * <p>
+ * Usage: {@code FleetMain [screenCount] [cityName] [newsQuery] [--windows]}
+ */
+public class FleetMain {
+    /**
+     * Logger instance for logging messages.
+     */
+    private final Logger logger = Logger.getLogger(FleetMain.class.getName());
+
+    /**
+     * Number of trains run by the simulator.
+     */
+    private static final int TRAIN_COUNT = 12;
+
+    /**
+     * Time in milliseconds in which every headless screen is exported once.
+     */
+    private static final int EXPORT_INTERVAL_MILLIS = 15000;
+
+    /**
+     * Time in milliseconds between weather report refreshes.
+     */
+    private static final int WEATHER_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Number of screens to run.
+     */
+    private int screenCount = TRAIN_COUNT;
+
+    /**
+     * Whether every screen gets its own window instead of being exported.
+     */
+    private boolean windowed = false;
+
+    /**
+     * Name of the city for the weather report.
+     */
+    private String cityName = "Calgary";
+
+    /**
+     * Query for the news articles.
+     */
+    private String newsQuery = "Calgary";
+
+    /**
+     * Directory the headless screens are exported to.
+     */
+    private final Path exportDirectory = Paths.get("out", "screens");
+
+    /**
+     * Catalog of advertisements shared by every screen, kept in step with the database.
+     */
+    private AdvertisementCatalog advertisementCatalog;
+
+    /**
+     * News feed shared by every screen, refreshed in the background.
+     */
+    private NewsFeed newsFeed;
+
+    /**
+     * The screens of the fleet.
+     */
+    private final List<StationScreen> screens = new ArrayList<>();
+
+    /**
+     * Shared registry of stations.
+     */
+    private StationRegistry stationRegistry;
+
+    /**
+     * Runs the Subway Simulator and feeds its output to every screen.
+     */
+    private SimulatorProcess simulatorProcess;
+
+    /**
+     * TrainMapVisualizer rendering the map shared by every screen.
+     */
+    private final TrainMapVisualizer trainMapVisualizer = new TrainMapVisualizer();
+
+    /**
+     * TrainAnimator for moving the train markers smoothly between simulator updates.
+     */
+    private TrainAnimator trainAnimator;
+
+    /**
+     * Publishes every simulator tick as a numbered snapshot and delivers the newest one to every screen.
+     */
+    private final NetworkSnapshotPublisher snapshotPublisher = new NetworkSnapshotPublisher();
+
+    /**
+     * Runs all background work of the fleet and stops it when the process exits.
+     */
+    private final BackgroundRuntime backgroundRuntime = BackgroundRuntime.getInstance();
+
+    /**
+     * Images the headless screens are painted into before they are saved, used in turn.
+     */
+    private final BufferedImage[] exportImages = new BufferedImage[2];
+
+    /**
+     * Pending saves of the export images, or null for an image that was never saved.
+     */
+    private final Future<?>[] exportWrites = new Future<?>[exportImages.length];
+
+    /**
+     * Index of the export image the next screen is painted into.
+     */
+    private int nextExportImage = 0;
+
+    /**
+     * Index of the next screen to export.
+     */
+    private int nextExportScreen = 0;
+
+    /**
+     * The main method is the entry point of the fleet.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new FleetMain().startFleet(args));
+    }
+
+    /**
+     * Starts the fleet by handling command line arguments and loading the shared content.
+     *
+     * @param args Command line arguments.
+     */
+    private void startFleet(String[] args) {
+        handleCommandLineArgs(args);
+
+        stationRegistry = StationRegistry.getInstance();
+        simulatorProcess = new SimulatorProcess(stationRegistry);
+
+        advertisementCatalog = new AdvertisementCatalog("advertisements");
+        advertisementCatalog.start(backgroundRuntime, AdvertisementCatalog.DEFAULT_POLL_MILLIS);
+
+        newsFeed = new NewsFeed(newsQuery);
+        newsFeed.start(backgroundRuntime, NewsFeed.DEFAULT_REFRESH_MILLIS);
+
+        startScreens();
+    }
+
+    /**
+     * Handles command line arguments to set the number of screens, the city, the news query
+     * and whether the screens are shown in windows.
+     *
+     * @param args Command line arguments.
+     */
+    private void handleCommandLineArgs(String[] args) {
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--windows")) {
+                windowed = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (positional.size() >= 1) {
+            try {
+                int count = Integer.parseInt(positional.get(0));
+                if (count >= 1) {
+                    screenCount = count;
+                } else {
+                    System.err.println("Invalid screen count provided. Using default value.");
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid screen count format. Using default value.");
+            }
+        }
+
+        if (positional.size() >= 2) {
+            cityName = positional.get(1);
+        }
+
+        if (positional.size() >= 3) {
+            newsQuery = positional.get(2);
+        }
+
+        System.out.println("Screens: " + screenCount + (windowed ? " (windows)" : " (headless)"));
+        System.out.println("City name: " + cityName);
+        System.out.println("News query: " + newsQuery);
+    }
+
+    /**
+     * Creates the screens, starts the shared animation, weather refresh and simulator,
+     * and starts exporting the screens when running headless.
+     */
+    private void startScreens() {
+        AdvertisementDisplay rotation = null;
+        for (int i = 0; i < screenCount; i++) {
+            int focusedTrain = i % TRAIN_COUNT;
+            AdvertisementDisplay advertisementDisplay = rotation == null
+                    ? new AdvertisementDisplay(advertisementCatalog, trainMapVisualizer, focusedTrain)
+                    : new AdvertisementDisplay(rotation, focusedTrain);
+            rotation = advertisementDisplay;
+
+            WeatherDisplay weatherDisplay = new WeatherDisplay(new ArticleDisplay(newsFeed), cityName, false);
+            StationScreen screen = new StationScreen(focusedTrain, advertisementDisplay, weatherDisplay);
+            screens.add(screen);
+
+            if (windowed) {
+                showInWindow(screen, i);
+            }
+        }
+
+        // Every screen highlights its own train over the shared map.
+        trainAnimator = new TrainAnimator(stationRegistry, trainMapVisualizer, -1);
+        trainAnimator.start();
+        snapshotPublisher.addCallback(this::showNetworkSnapshot);
+
+        backgroundRuntime.scheduleAtFixedRate(this::refreshWeather, 0, WEATHER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        if (!windowed) {
+            for (int i = 0; i < exportImages.length; i++) {
+                exportImages[i] = new BufferedImage(StationScreen.SCREEN_WIDTH, StationScreen.SCREEN_HEIGHT,
+                        BufferedImage.TYPE_INT_RGB);
+            }
+            new Timer(Math.max(1, EXPORT_INTERVAL_MILLIS / screenCount), e -> exportNextScreen()).start();
+        }
+
+        backgroundRuntime.addShutdownHook(simulatorProcess::stop);
+        try {
+            simulatorProcess.start(this::updateTrainInformation);
+        } catch (IOException e) {
+            logger.severe("Error starting process: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows a screen in its own window.
+     *
+     * @param screen The screen to show.
+     * @param index  The index of the screen in the fleet.
+     */
+    private void showInWindow(StationScreen screen, int index) {
+        JFrame frame = new JFrame("Subway Screen " + (index + 1) + " - Train " + (screen.getFocusedTrain() + 1));
+        frame.setSize(StationScreen.SCREEN_WIDTH, StationScreen.SCREEN_HEIGHT);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setResizable(false);
+        frame.add(screen);
+        frame.setLocationByPlatform(true);
+        frame.setVisible(true);
+    }
+
+    /**
+     * Fetches the weather report once on a background thread and shows it on every screen.
+     */
+    private void refreshWeather() {
+        List<String> weatherReport = WeatherDisplay.getWeatherReport(cityName);
+        SwingUtilities.invokeLater(() -> {
+            for (StationScreen screen : screens) {
+                screen.getWeatherDisplay().showWeatherReport(weatherReport);
+            }
+        });
+    }
+
+    /**
+     * Publishes the latest train positions read from the simulator.
+     *
+     * @param snapshot The latest train positions read from the simulator.
+     */
+    private void updateTrainInformation(TrainStatus[] snapshot) {
+        if (snapshot.length == 0) {
+            logger.warning("Received an empty train snapshot.");
+            return;
+        }
+        snapshotPublisher.publish(snapshot);
+    }
+
+    /**
+     * Updates the map and every screen from one snapshot. Runs on the event dispatch thread.
+     *
+     * @param snapshot The newest snapshot of the network.
+     */
+    private void showNetworkSnapshot(NetworkSnapshot snapshot) {
+        trainAnimator.onNetworkSnapshot(snapshot);
+        for (StationScreen screen : screens) {
+            screen.showTrain(snapshot);
+        }
+    }
+
+    /**
+     * Paints the next headless screen into a free export image and saves it in the background. If the
+     * image is still being saved from its last turn, the screen waits for the next tick.
+     */
+    private void exportNextScreen() {
+        BufferedImage exportImage = exportImages[nextExportImage];
+        Future<?> previousWrite = exportWrites[nextExportImage];
+        if (previousWrite != null && !previousWrite.isDone()) {
+            return;
+        }
+
+        StationScreen screen = screens.get(nextExportScreen);
+        Path file = exportDirectory.resolve("screen_" + (nextExportScreen + 1) + ".png");
+        nextExportScreen = (nextExportScreen + 1) % screens.size();
+
+        screen.paintOffscreen(exportImage);
+        exportWrites[nextExportImage] = backgroundRuntime.submit(() -> writeScreen(exportImage, file));
+        nextExportImage = (nextExportImage + 1) % exportImages.length;
+    }
+
+    /**
+     * Encodes a painted screen as PNG and saves it.
+     *
+     * @param image The painted screen.
+     * @param file  The file to save it to.
+     */
+    private void writeScreen(BufferedImage image, Path file) {
+        try {
+            Files.createDirectories(exportDirectory);
+            ImageIO.write(image, "png", file.toFile());
+        } catch (IOException e) {
+            logger.warning("Error exporting screen: " + e.getMessage());
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package ca.ucalgary.edu.ensf380;
 
 import ca.ucalgary.edu.ensf380.advertisement.AdvertisementDisplay;
-import ca.ucalgary.edu.ensf380.advertisement.AdvertisementFetcher;
-import ca.ucalgary.edu.ensf380.models.Advertisement;
-import ca.ucalgary.edu.ensf380.models.Article;
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementCatalog;
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
 import ca.ucalgary.edu.ensf380.models.TrainStatus;
 import ca.ucalgary.edu.ensf380.news.ArticleDisplay;
-import ca.ucalgary.edu.ensf380.news.ArticleRequester;
-import ca.ucalgary.edu.ensf380.train.TrainDataCollector;
+import ca.ucalgary.edu.ensf380.news.NewsFeed;
+import ca.ucalgary.edu.ensf380.train.NetworkSnapshotPublisher;
+import ca.ucalgary.edu.ensf380.train.SimulatorProcess;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+import ca.ucalgary.edu.ensf380.train.TrainAnimator;
 import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
 import ca.ucalgary.edu.ensf380.tts.StationAnnouncer;
 import ca.ucalgary.edu.ensf380.weather.WeatherDisplay;
@@ -16,13 +19,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 /**
@@ -36,14 +34,14 @@ public class Main extends JFrame {
     private final Logger logger = Logger.getLogger(Main.class.getName());
 
     /**
-     * List of advertisements to be displayed.
+     * Catalog of advertisements to be displayed, kept in step with the database.
      */
-    private List<Advertisement> advertisements;
+    private AdvertisementCatalog advertisementCatalog;
 
     /**
-     * List of news articles to be displayed.
+     * News feed the screen rotates through, refreshed in the background.
      */
-    private List<Article> articles;
+    private NewsFeed newsFeed;
 
     /**
      * Index of the currently selected train.
@@ -60,59 +58,34 @@ public class Main extends JFrame {
     private String newsQuery = "Calgary";
 
     /**
-     * Process instance for managing external processes.
+     * Runs the Subway Simulator and feeds its output to this screen.
      */
-    private Process process;
+    private SimulatorProcess simulatorProcess;
 
     /**
-     * Executor service for handling asynchronous tasks.
+     * Runs all background work of the screen and stops it when the application exits.
      */
-    private final ExecutorService trainExecutor = Executors.newSingleThreadExecutor();
+    private final BackgroundRuntime backgroundRuntime = BackgroundRuntime.getInstance();
 
     /**
-     * Executor service for handling text-to-speech tasks.
+     * Executor service speaking one text-to-speech announcement at a time.
      */
-    private final ExecutorService voiceExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService voiceExecutor = backgroundRuntime.newSerialScheduler("announcer");
 
     /**
-     * Array of Train objects representing the trains' information.
+     * Shared registry of stations, loaded once and reused on every train update.
      */
-    private TrainStatus[] trains;
+    private StationRegistry stationRegistry;
 
     /**
-     * Component for displaying advertisements.
+     * Publishes every simulator tick as a numbered snapshot and delivers the newest one to the screen.
      */
-    private AdvertisementDisplay advertisementDisplay;
+    private final NetworkSnapshotPublisher snapshotPublisher = new NetworkSnapshotPublisher();
 
     /**
-     * Component for displaying news articles.
+     * The screen showing advertisements, weather, news and station information.
      */
-    private ArticleDisplay articleDisplay;
-
-    /**
-     * Component for displaying weather information.
-     */
-    private WeatherDisplay weatherReportDisplay;
-
-    /**
-     * Panel for displaying station information.
-     */
-    private JPanel stationPanel;
-
-    /**
-     * Label displaying the previous station's name.
-     */
-    private JLabel prevStationLabel;
-
-    /**
-     * Label displaying the current station's name.
-     */
-    private JLabel currentStationLabel;
-
-    /**
-     * Array of labels displaying the names of the next three stations.
-     */
-    private JLabel[] nextStationLabels;
+    private StationScreen stationScreen;
 
     /**
      * Station Announcer for handling text-to-speech announcements of stations.
@@ -124,6 +97,11 @@ public class Main extends JFrame {
      */
     private final TrainMapVisualizer trainMapCreator = new TrainMapVisualizer();
 
+    /**
+     * TrainAnimator for moving the train markers smoothly between simulator updates.
+     */
+    private TrainAnimator trainAnimator;
+
     /**
      * Constructs a Main object.
      */
@@ -148,15 +126,17 @@ public class Main extends JFrame {
     private void startApplication(String[] args) {
         handleCommandLineArgs(args);
 
-        AdvertisementFetcher advertisementFetcher = new AdvertisementFetcher();
-        advertisementFetcher.loadAdvertisements("advertisements");
-        advertisements = advertisementFetcher.getAdvertisements();
+        stationRegistry = StationRegistry.getInstance();
+        simulatorProcess = new SimulatorProcess(stationRegistry);
+        backgroundRuntime.addShutdownHook(simulatorProcess::stop);
 
-        ArticleRequester articleRequester = new ArticleRequester();
-        articleRequester.fetchNewsAsync(newsQuery, "relevancy", 100, fetchedArticles -> {
-            articles = fetchedArticles;
-            SwingUtilities.invokeLater(this::showInitialWindow);
-        });
+        advertisementCatalog = new AdvertisementCatalog("advertisements");
+        advertisementCatalog.start(backgroundRuntime, AdvertisementCatalog.DEFAULT_POLL_MILLIS);
+
+        newsFeed = new NewsFeed(newsQuery);
+        newsFeed.start(backgroundRuntime, NewsFeed.DEFAULT_REFRESH_MILLIS);
+
+        showInitialWindow();
     }
 
     /**
@@ -208,7 +188,8 @@ public class Main extends JFrame {
         addWindowListener(new WindowAdapter() {
             public void windowClosing(WindowEvent e) {
                 dispose();
-                stopProcess();
+                trainAnimator.stop();
+                simulatorProcess.stop();
                 // print exit msg
                 System.out.println("Exiting Subway Screen");
             }
@@ -217,6 +198,10 @@ public class Main extends JFrame {
         initializeDisplays();
         addComponentsToFrame();
 
+        trainAnimator = new TrainAnimator(stationRegistry, trainMapCreator, currentTrain);
+        trainAnimator.start();
+        snapshotPublisher.addCallback(this::showNetworkSnapshot);
+
         setLocationRelativeTo(null);
         setVisible(true);
 
@@ -227,69 +212,17 @@ public class Main extends JFrame {
      * Initializes the various displays used in the application.
      */
     private void initializeDisplays() {
-        advertisementDisplay = new AdvertisementDisplay(advertisements);
-        articleDisplay = new ArticleDisplay(articles);
-        weatherReportDisplay = new WeatherDisplay(articleDisplay, cityName);
-        stationPanel = createStationPanel();
+        AdvertisementDisplay advertisementDisplay = new AdvertisementDisplay(advertisementCatalog, trainMapCreator, -1);
+        ArticleDisplay articleDisplay = new ArticleDisplay(newsFeed);
+        WeatherDisplay weatherReportDisplay = new WeatherDisplay(articleDisplay, cityName);
+        stationScreen = new StationScreen(currentTrain, advertisementDisplay, weatherReportDisplay);
     }
 
     /**
      * Adds the components to the main application frame.
      */
     private void addComponentsToFrame() {
-        add(advertisementDisplay, BorderLayout.WEST);
-        add(weatherReportDisplay, BorderLayout.CENTER);
-        add(stationPanel, BorderLayout.SOUTH);
-    }
-
-    /**
-     * Creates the station panel to display station information.
-     *
-     * @return The station panel.
-     */
-    private JPanel createStationPanel() {
-        stationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        stationPanel.setPreferredSize(new Dimension(900, 50));
-
-        prevStationLabel = new JLabel("---");
-        currentStationLabel = new JLabel("---");
-        nextStationLabels = new JLabel[3];
-        for (int i = 0; i < 3; i++) {
-            nextStationLabels[i] = new JLabel("---");
-        }
-
-        Font stationFont = new Font("Arial", Font.BOLD, 12);
-
-        prevStationLabel.setForeground(Color.RED);
-        prevStationLabel.setFont(stationFont);
-        currentStationLabel.setForeground(Color.WHITE);
-        currentStationLabel.setFont(stationFont);
-
-        for (JLabel label : nextStationLabels) {
-            label.setForeground(Color.GREEN);
-            label.setFont(stationFont);
-        }
-
-        stationPanel.add(prevStationLabel);
-        // Create a list of arrow labels to separate the station names
-        List<JLabel> arrowLabels = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            JLabel arrowLabel = new JLabel(" → ");
-            arrowLabel.setForeground(Color.WHITE);
-            arrowLabels.add(arrowLabel);
-        }
-
-        int i = 0;
-        stationPanel.add(arrowLabels.get(i++));
-        stationPanel.add(currentStationLabel);
-
-        for (JLabel label : nextStationLabels) {
-            stationPanel.add(arrowLabels.get(i++));
-            stationPanel.add(label);
-        }
-
-        stationPanel.setBackground(Color.DARK_GRAY);
-        return stationPanel;
+        add(stationScreen, BorderLayout.CENTER);
     }
 
     /**
@@ -327,98 +260,43 @@ public class Main extends JFrame {
      * Starts the process to run the Subway Simulator and handles its output.
      */
     private void startProcess() {
-        if (process == null) {
-            try {
-                ProcessBuilder builder = new ProcessBuilder("java", "-jar", "./exe/SubwaySimulator.jar", "--in",
-                        "./data/subway.csv", "--out", "./out");
-                builder.redirectErrorStream(true);
-                process = builder.start();
-
-                trainExecutor.execute(() -> {
-                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                        int i = 0;
-
-                        // Read the output of the process and update train information every 4 lines
-                        while (reader.readLine() != null) {
-                            i++;
-                            if (4 == i) {
-                                updateTrainInformation();
-                                i = 0;
-                            }
-                        }
-                    } catch (IOException e) {
-                        logger.severe("Error reading process output: " + e.getMessage());
-                    } catch (TrainDataCollector.TrainDataException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-            } catch (IOException e) {
-                logger.severe("Error starting process: " + e.getMessage());
-            }
+        try {
+            // Parse the simulator output directly and update train information on every snapshot
+            simulatorProcess.start(this::updateTrainInformation);
+        } catch (IOException e) {
+            logger.severe("Error starting process: " + e.getMessage());
         }
     }
 
     /**
-     * Updates train information and refreshes the map and station display.
+     * Publishes the latest train positions read from the simulator.
+     *
+     * @param snapshot The latest train positions read from the simulator.
      */
-    private void updateTrainInformation() throws TrainDataCollector.TrainDataException, IOException {
-        TrainDataCollector trainDataCollector = new TrainDataCollector();
-        final int maxRetries = 5;
-        int attempts = 0;
-
-        while (attempts < maxRetries) {
-            trains = trainDataCollector.collectTrainData();
-            if (trains.length > 0) {
-                break;
-            } else {
-                attempts++;
-                try {
-                    Thread.sleep(1000); // Delay before retrying
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        }
-
-        if (trains.length == 0) {
-            logger.severe("Failed to read train data after multiple attempts.");
+    private void updateTrainInformation(TrainStatus[] snapshot) {
+        if (snapshot.length == 0) {
+            logger.warning("Received an empty train snapshot.");
             return;
         }
-
-        ArrayList<Integer> xCoordinates = new ArrayList<>();
-        ArrayList<Integer> yCoordinates = new ArrayList<>();
-
-        for (TrainStatus train : trains) {
-            xCoordinates.add(train.getCurrentStationX());
-            yCoordinates.add(train.getCurrentStationY());
-        }
-        trainMapCreator.renderTrainMap(xCoordinates, yCoordinates, currentTrain);
-
-        if (currentTrain >= 0 && currentTrain <= 11 && trains.length > 0) {
-            SwingUtilities.invokeLater(() -> {
-                System.out.println("Updating train information for train " + (currentTrain + 1));
-                System.out.println("Total trains: " + trains.length);
-                TrainStatus currentTrainInfo = trains[currentTrain];
-                prevStationLabel.setText(currentTrainInfo.getPreviousStationName());
-                currentStationLabel.setText(currentTrainInfo.getCurrentStationName());
-                for (int j = 0; j < 3; j++) {
-                    nextStationLabels[j].setText(currentTrainInfo.getNextStationName(j));
-                }
-                stationPanel.revalidate();
-                stationPanel.repaint();
-
-                voiceExecutor.execute(() -> stationAnnouncer.announceNextStation("Next Stop" + currentTrainInfo.getNextStationName(0)));
-            });
-        }
+        snapshotPublisher.publish(snapshot);
     }
 
     /**
-     * Stops the running process and releases resources.
+     * Refreshes the map, the station display and the announcement from one snapshot.
+     * Runs on the event dispatch thread.
+     *
+     * @param snapshot The newest snapshot of the network.
      */
-    private void stopProcess() {
-        if (process != null) {
-            process.destroy();
-            process = null;
+    private void showNetworkSnapshot(NetworkSnapshot snapshot) {
+        trainAnimator.onNetworkSnapshot(snapshot);
+
+        System.out.println("Updating train information for train " + (currentTrain + 1));
+        System.out.println("Total trains: " + snapshot.getTrainCount());
+        TrainStatus currentTrainInfo = stationScreen.showTrain(snapshot);
+        if (currentTrainInfo == null) {
+            return;
         }
+
+        voiceExecutor.execute(() -> stationAnnouncer.announceNextStation("Next Stop" + currentTrainInfo.getNextStationName(0)));
     }
 }
@@ -0,0 +1,235 @@
+package ca.ucalgary.edu.ensf380;
+
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementDisplay;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.weather.WeatherDisplay;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StationScreen class holds the contents of one subway screen: advertisements and the subway map,
+ * the time, weather and news, and the stations around the train the screen follows.
+ * The screen can be shown in a window or painted into an offscreen image.
+ */
+public class StationScreen extends JPanel {
+
+    /**
+     * Width of a screen in pixels.
+     */
+    public static final int SCREEN_WIDTH = 900;
+
+    /**
+     * Height of a screen in pixels.
+     */
+    public static final int SCREEN_HEIGHT = 570;
+
+    /**
+     * Index of the train whose stations are shown.
+     */
+    private final int focusedTrain;
+
+    /**
+     * Component for displaying advertisements.
+     */
+    private final AdvertisementDisplay advertisementDisplay;
+
+    /**
+     * Component for displaying weather information and news articles.
+     */
+    private final WeatherDisplay weatherDisplay;
+
+    /**
+     * Panel for displaying station information.
+     */
+    private JPanel stationPanel;
+
+    /**
+     * Label displaying the previous station's name.
+     */
+    private JLabel prevStationLabel;
+
+    /**
+     * Label displaying the current station's name.
+     */
+    private JLabel currentStationLabel;
+
+    /**
+     * Array of labels displaying the names of the next three stations.
+     */
+    private JLabel[] nextStationLabels;
+
+    /**
+     * The snapshot the station labels were last updated from.
+     */
+    private NetworkSnapshot shownSnapshot = NetworkSnapshot.EMPTY;
+
+    /**
+     * Constructs a StationScreen from its displays.
+     *
+     * @param focusedTrain         Index of the train whose stations are shown.
+     * @param advertisementDisplay Component for displaying advertisements.
+     * @param weatherDisplay       Component for displaying weather information and news articles.
+     */
+    public StationScreen(int focusedTrain, AdvertisementDisplay advertisementDisplay, WeatherDisplay weatherDisplay) {
+        super(new BorderLayout());
+        this.focusedTrain = focusedTrain;
+        this.advertisementDisplay = advertisementDisplay;
+        this.weatherDisplay = weatherDisplay;
+
+        add(advertisementDisplay, BorderLayout.WEST);
+        add(weatherDisplay, BorderLayout.CENTER);
+        add(createStationPanel(), BorderLayout.SOUTH);
+    }
+
+    /**
+     * Gets the index of the train whose stations are shown.
+     *
+     * @return The index of the focused train.
+     */
+    public int getFocusedTrain() {
+        return focusedTrain;
+    }
+
+    /**
+     * Gets the component displaying advertisements.
+     *
+     * @return The advertisement display.
+     */
+    public AdvertisementDisplay getAdvertisementDisplay() {
+        return advertisementDisplay;
+    }
+
+    /**
+     * Gets the component displaying weather information and news articles.
+     *
+     * @return The weather display.
+     */
+    public WeatherDisplay getWeatherDisplay() {
+        return weatherDisplay;
+    }
+
+    /**
+     * Gets the epoch of the snapshot the station labels were last updated from.
+     *
+     * @return The epoch, or 0 if no snapshot has been shown.
+     */
+    public long getShownEpoch() {
+        return shownSnapshot.getEpoch();
+    }
+
+    /**
+     * Shows the stations around the focused train. A snapshot that is not newer than the one
+     * already shown is ignored. Must be called on the event dispatch thread.
+     *
+     * @param snapshot The latest snapshot of the network.
+     * @return The focused train, or null if the snapshot is stale or does not contain it.
+     */
+    public TrainStatus showTrain(NetworkSnapshot snapshot) {
+        if (!snapshot.isNewerThan(shownSnapshot)) {
+            return null;
+        }
+        TrainStatus currentTrainInfo = snapshot.getTrain(focusedTrain);
+        if (currentTrainInfo == null) {
+            return null;
+        }
+        shownSnapshot = snapshot;
+        prevStationLabel.setText(currentTrainInfo.getPreviousStationName());
+        currentStationLabel.setText(currentTrainInfo.getCurrentStationName());
+        for (int j = 0; j < nextStationLabels.length; j++) {
+            nextStationLabels[j].setText(currentTrainInfo.getNextStationName(j));
+        }
+        stationPanel.revalidate();
+        stationPanel.repaint();
+        return currentTrainInfo;
+    }
+
+    /**
+     * Paints the whole screen into an image, laying it out at the image's size first.
+     * The screen does not need to be in a window. Must be called on the event dispatch thread.
+     *
+     * @param image The image to paint into.
+     */
+    public void paintOffscreen(BufferedImage image) {
+        if (getWidth() != image.getWidth() || getHeight() != image.getHeight()) {
+            setSize(image.getWidth(), image.getHeight());
+        }
+        // validate() does nothing without a window, so lay the components out directly.
+        layoutTree(this);
+
+        Graphics2D g2d = image.createGraphics();
+        try {
+            printAll(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Lays out a container and everything inside it.
+     *
+     * @param container The container to lay out.
+     */
+    private static void layoutTree(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container childContainer) {
+                layoutTree(childContainer);
+            }
+        }
+    }
+
+    /**
+     * Creates the station panel to display station information.
+     *
+     * @return The station panel.
+     */
+    private JPanel createStationPanel() {
+        stationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        stationPanel.setPreferredSize(new Dimension(SCREEN_WIDTH, 50));
+
+        prevStationLabel = new JLabel("---");
+        currentStationLabel = new JLabel("---");
+        nextStationLabels = new JLabel[3];
+        for (int i = 0; i < 3; i++) {
+            nextStationLabels[i] = new JLabel("---");
+        }
+
+        Font stationFont = new Font("Arial", Font.BOLD, 12);
+
+        prevStationLabel.setForeground(Color.RED);
+        prevStationLabel.setFont(stationFont);
+        currentStationLabel.setForeground(Color.WHITE);
+        currentStationLabel.setFont(stationFont);
+
+        for (JLabel label : nextStationLabels) {
+            label.setForeground(Color.GREEN);
+            label.setFont(stationFont);
+        }
+
+        stationPanel.add(prevStationLabel);
+        // Create a list of arrow labels to separate the station names
+        List<JLabel> arrowLabels = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            JLabel arrowLabel = new JLabel(" → ");
+            arrowLabel.setForeground(Color.WHITE);
+            arrowLabels.add(arrowLabel);
+        }
+
+        int i = 0;
+        stationPanel.add(arrowLabels.get(i++));
+        stationPanel.add(currentStationLabel);
+
+        for (JLabel label : nextStationLabels) {
+            stationPanel.add(arrowLabels.get(i++));
+            stationPanel.add(label);
+        }
+
+        stationPanel.setBackground(Color.DARK_GRAY);
+        return stationPanel;
+    }
+}
@@ -0,0 +1,185 @@
+package ca.ucalgary.edu.ensf380.advertisement;
+
+import ca.ucalgary.edu.ensf380.database.AdvertisementRepository;
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementChange;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * The AdvertisementCatalog class keeps the advertisements of a screen in step with the database.
+ * <p>
+ * Instead of reading the whole table again, every sync asks only for the rows changed since the newest change
+ * it has seen, its high-water mark, and applies them: new and edited rows replace their entry, and removed
+ * rows drop it. The mark is moved back by a short overlap before each query, so a change committed with a
+ * slightly older time is not missed; applying a row twice changes nothing. A row deleted outright instead of
+ * being flagged leaves no trace to read, so each sync also counts the advertisements in the table, and a
+ * count that differs from the catalog's triggers a full reload.
+ * <p>
+ * Readers get the advertisements as an immutable list in the order they were added, which is swapped as a
+ * whole when a sync changes something, so a rotation never sees a half-applied sync. Syncs take turns on a
+ * lock rather than the monitor, so a virtual thread waiting on the database does not pin its carrier.
+ */
+public class AdvertisementCatalog {
+
+    /**
+     * Default time in milliseconds between two syncs.
+     */
+    public static final long DEFAULT_POLL_MILLIS = 5000;
+
+    /**
+     * Time in milliseconds the high-water mark is moved back before each query.
+     */
+    private static final long OVERLAP_MILLIS = 2000;
+
+    private static final Logger LOGGER = Logger.getLogger(AdvertisementCatalog.class.getName());
+
+    /**
+     * The AdvertisementCatalog.Source interface defines where the catalog reads its changes from.
+     */
+    public interface Source {
+        /**
+         * Reads the rows changed at or after a given time, removed ones included.
+         *
+         * @param since The earliest change time to read, or null to read every row.
+         * @return The changed rows.
+         * @throws SQLException If the changes cannot be read.
+         */
+        List<AdvertisementChange> findChangedSince(Timestamp since) throws SQLException;
+
+        /**
+         * Counts the advertisements that have not been removed.
+         *
+         * @return The number of advertisements.
+         * @throws SQLException If the advertisements cannot be counted.
+         */
+        int countActive() throws SQLException;
+    }
+
+    private final Source source;
+    private final Map<Long, Advertisement> rows = new TreeMap<>();
+    private volatile List<Advertisement> advertisements = List.of();
+    private Timestamp highWaterMark;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    /**
+     * Constructs an empty AdvertisementCatalog.
+     *
+     * @param source Where the changes are read from.
+     */
+    public AdvertisementCatalog(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Constructs an empty AdvertisementCatalog of a table in the shared {@link AdvertisementRepository}.
+     *
+     * @param tableName The name of the table holding the advertisements.
+     */
+    public AdvertisementCatalog(String tableName) {
+        this(fromTable(AdvertisementRepository.getInstance(), tableName));
+    }
+
+    /**
+     * Creates a source that reads a table of a repository.
+     *
+     * @param repository The repository.
+     * @param tableName  The name of the table holding the advertisements.
+     * @return The source.
+     */
+    public static Source fromTable(AdvertisementRepository repository, String tableName) {
+        return new Source() {
+            @Override
+            public List<AdvertisementChange> findChangedSince(Timestamp since) throws SQLException {
+                return repository.findChangedSince(tableName, since);
+            }
+
+            @Override
+            public int countActive() throws SQLException {
+                return repository.countActive(tableName);
+            }
+        };
+    }
+
+    /**
+     * Gets the current advertisements.
+     *
+     * @return An immutable list of the advertisements, in the order they were added.
+     */
+    public List<Advertisement> getAdvertisements() {
+        return advertisements;
+    }
+
+    /**
+     * Starts syncing the catalog periodically on the {@link BackgroundRuntime}, beginning right away.
+     *
+     * @param backgroundRuntime The runtime to sync on.
+     * @param pollMillis        The time in milliseconds between two syncs.
+     * @return A future that stops the syncs.
+     */
+    public ScheduledFuture<?> start(BackgroundRuntime backgroundRuntime, long pollMillis) {
+        return backgroundRuntime.scheduleAtFixedRate(this::sync, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the changes since the high-water mark and applies them to the catalog.
+     *
+     * @return true if the database could be read.
+     */
+    public boolean sync() {
+        syncLock.lock();
+        try {
+            Timestamp since = highWaterMark == null ? null
+                    : new Timestamp(highWaterMark.getTime() - OVERLAP_MILLIS);
+            boolean changed = apply(source.findChangedSince(since));
+
+            if (source.countActive() != rows.size()) {
+                LOGGER.info("Advertisement count changed outside the change log, reloading the catalog");
+                rows.clear();
+                highWaterMark = null;
+                apply(source.findChangedSince(null));
+                changed = true;
+            }
+
+            if (changed) {
+                advertisements = List.copyOf(rows.values());
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.warning("Failed to sync advertisements, keeping " + rows.size() + ": " + e.getMessage());
+            return false;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Applies changed rows to the catalog and moves the high-water mark to the newest change.
+     *
+     * @param changes The changed rows.
+     * @return true if an advertisement was added, edited or removed.
+     */
+    private boolean apply(List<AdvertisementChange> changes) {
+        boolean changed = false;
+        for (AdvertisementChange change : changes) {
+            if (change.deleted()) {
+                changed |= rows.remove(change.id()) != null;
+            } else {
+                changed |= !change.advertisement().equals(rows.put(change.id(), change.advertisement()));
+            }
+            if (highWaterMark == null || change.updatedAt().after(highWaterMark)) {
+                highWaterMark = change.updatedAt();
+            }
+        }
+        return changed;
+    }
+}
@@ -1,33 +1,112 @@
 package ca.ucalgary.edu.ensf380.advertisement;
 
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
 import ca.ucalgary.edu.ensf380.helper.ImageLoader;
 import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementSlotCallback;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * The AdvertisementDisplay class is responsible for displaying a series of advertisements and a subway map on a JPanel.
+ * Several displays can share one advertisement rotation, so the advertisements are decoded and scheduled once
+ * no matter how many screens show them.
  */
 public class AdvertisementDisplay extends JPanel {
 
+    private final TrainMapVisualizer trainMapVisualizer;
+    private final DisplayManager displayManager;
+
+    /**
+     * Constructs an AdvertisementDisplay with a list of advertisements and the visualizer
+     * that renders the subway map.
+     *
+     * @param adList             the list of advertisements to display
+     * @param trainMapVisualizer the visualizer whose frames are shown between advertisements
+     */
+    public AdvertisementDisplay(List<Advertisement> adList, TrainMapVisualizer trainMapVisualizer) {
+        this(adList, trainMapVisualizer, -1);
+    }
+
+    /**
+     * Constructs an AdvertisementDisplay that highlights one train over the subway map.
+     * The highlight is drawn on top of the shared frame, so the visualizer should render without one.
+     *
+     * @param adList             the list of advertisements to display
+     * @param trainMapVisualizer the visualizer whose frames are shown between advertisements
+     * @param focusedTrain       the index of the train to highlight, or -1 to show the map as rendered
+     */
+    public AdvertisementDisplay(List<Advertisement> adList, TrainMapVisualizer trainMapVisualizer, int focusedTrain) {
+        this(() -> adList, trainMapVisualizer, focusedTrain);
+    }
+
+    /**
+     * Constructs an AdvertisementDisplay that rotates through the advertisements of a catalog, so advertisements
+     * added, edited or removed in the database show up without a restart.
+     *
+     * @param catalog            the catalog of advertisements to display
+     * @param trainMapVisualizer the visualizer whose frames are shown between advertisements
+     * @param focusedTrain       the index of the train to highlight, or -1 to show the map as rendered
+     */
+    public AdvertisementDisplay(AdvertisementCatalog catalog, TrainMapVisualizer trainMapVisualizer, int focusedTrain) {
+        this(catalog::getAdvertisements, trainMapVisualizer, focusedTrain);
+    }
+
+    /**
+     * Constructs an AdvertisementDisplay with a changing list of advertisements.
+     *
+     * @param adList             supplies the current list of advertisements to display
+     * @param trainMapVisualizer the visualizer whose frames are shown between advertisements
+     * @param focusedTrain       the index of the train to highlight, or -1 to show the map as rendered
+     */
+    private AdvertisementDisplay(Supplier<List<Advertisement>> adList, TrainMapVisualizer trainMapVisualizer,
+                                 int focusedTrain) {
+        this.trainMapVisualizer = trainMapVisualizer;
+        this.displayManager = new DisplayManager(adList);
+        createContent(focusedTrain);
+        displayManager.startRotation();
+    }
+
+    /**
+     * Constructs an AdvertisementDisplay that shows the same advertisement rotation and subway map
+     * as another display, highlighting its own train.
+     *
+     * @param rotation     the display whose rotation to join
+     * @param focusedTrain the index of the train to highlight, or -1 to show the map as rendered
+     */
+    public AdvertisementDisplay(AdvertisementDisplay rotation, int focusedTrain) {
+        this.trainMapVisualizer = rotation.trainMapVisualizer;
+        this.displayManager = rotation.displayManager;
+        createContent(focusedTrain);
+    }
+
     /**
-     * Constructs an AdvertisementDisplay with a list of advertisements.
+     * Creates the content panel and subway map of this display and adds them to the rotation.
      *
-     * @param adList the list of advertisements to display
+     * @param focusedTrain the index of the train to highlight, or -1 to show the map as rendered
      */
-    public AdvertisementDisplay(List<Advertisement> adList) {
+    private void createContent(int focusedTrain) {
         setLayout(new BorderLayout());
 
         ContentPanel contentPanel = new ContentPanel();
         add(contentPanel, BorderLayout.CENTER);
 
-        DisplayManager displayManager = new DisplayManager(adList, contentPanel);
-        displayManager.startRotation();
+        TrainMapIcon trainMapIcon = new TrainMapIcon(600, 440, trainMapVisualizer, focusedTrain);
+        trainMapIcon.setFrame(trainMapVisualizer.getLatestFrame());
+        trainMapVisualizer.addTrainMapCallback((frame, damage) -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                trainMapIcon.updateFrame(frame, damage);
+            } else {
+                SwingUtilities.invokeLater(() -> trainMapIcon.updateFrame(frame, damage));
+            }
+        });
+
+        displayManager.addScreen(contentPanel, trainMapIcon);
     }
 }
 
@@ -62,7 +141,7 @@ class ContentPanel extends JPanel {
      * @param description the description of the advertisement
      * @param image       the image associated with the advertisement
      */
-    public void updateContent(String title, String description, ImageIcon image) {
+    public void updateContent(String title, String description, Icon image) {
         titleLabel.setText(title);
         descriptionLabel.setText(description);
         imageLabel.setIcon(image);
@@ -72,55 +151,76 @@ class ContentPanel extends JPanel {
 }
 
 /**
- * The DisplayManager class manages the rotation of advertisements and the display of the subway map.
+ * The DisplayManager class shows the rotation of advertisements and the subway map on every screen that
+ * joined it. The slots are timed and the images decoded ahead by an {@link AdvertisementPlayer}; the manager
+ * only hands each slot to the event dispatch thread, so every advertisement is decoded once for all screens.
  */
-class DisplayManager {
-    private final List<Advertisement> adList;
-    private final ContentPanel contentPanel;
-    private int currentAdIndex = 0;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private final ImageLoader imageLoader = new ImageLoader();
+class DisplayManager implements AdvertisementSlotCallback {
+    private final List<Screen> screens = new CopyOnWriteArrayList<>();
+    private final AdvertisementPlayer player;
+
+    /**
+     * Constructs a DisplayManager with a changing list of advertisements.
+     *
+     * @param adList supplies the current list of advertisements to display
+     */
+    public DisplayManager(Supplier<List<Advertisement>> adList) {
+        this.player = new AdvertisementPlayer(adList, new ImageLoader(), 600, 440, this,
+                BackgroundRuntime.getInstance());
+    }
 
     /**
-     * Constructs a DisplayManager with a list of advertisements and a content panel.
+     * Adds a screen to the rotation.
      *
-     * @param adList       the list of advertisements to display
      * @param contentPanel the panel to display the advertisement content
+     * @param trainMapIcon the icon painting the latest subway map for that panel
      */
-    public DisplayManager(List<Advertisement> adList, ContentPanel contentPanel) {
-        this.adList = adList;
-        this.contentPanel = contentPanel;
+    public void addScreen(ContentPanel contentPanel, TrainMapIcon trainMapIcon) {
+        screens.add(new Screen(contentPanel, trainMapIcon));
     }
 
     /**
      * Starts the rotation of advertisements and the display of the subway map.
      */
     public void startRotation() {
-        scheduler.schedule(this::showNextAd, 0, TimeUnit.SECONDS);
+        player.start(AdvertisementPlayer.DEFAULT_SLOT_MILLIS);
     }
 
     /**
-     * Displays the next advertisement in the list.
+     * Displays an advertisement on every screen.
+     *
+     * @param ad      the advertisement
+     * @param adImage the decoded image of the advertisement
      */
-    private void showNextAd() {
-        if (!adList.isEmpty()) {
-            Advertisement ad = adList.get(currentAdIndex);
-            ImageIcon adImage = imageLoader.loadImage(ad.mediaPath(), 600, 440);
-            contentPanel.updateContent("Title: " + ad.title(),"Description: " + ad.description(), adImage);
-
-            currentAdIndex = (currentAdIndex + 1) % adList.size();
-
-            scheduler.schedule(this::showMap, 5, TimeUnit.SECONDS);
-        }
+    @Override
+    public void onAdvertisementSlot(Advertisement ad, Icon adImage) {
+        SwingUtilities.invokeLater(() -> {
+            for (Screen screen : screens) {
+                screen.contentPanel().updateContent("Title: " + ad.title(), "Description: " + ad.description(), adImage);
+            }
+        });
     }
 
     /**
-     * Displays the subway map.
+     * Displays the subway map on every screen.
      */
-    private void showMap() {
-        ImageIcon mapImage = imageLoader.loadImage("./data/trainmap.png", 600, 440);
-        contentPanel.updateContent("Subway Map", "The city has three subway lines (Red, Green, and Blue) with approximately 120 stations.", mapImage);
+    @Override
+    public void onMapSlot() {
+        SwingUtilities.invokeLater(() -> {
+            for (Screen screen : screens) {
+                screen.contentPanel().updateContent("Subway Map",
+                        "The city has three subway lines (Red, Green, and Blue) with approximately 120 stations.",
+                        screen.trainMapIcon());
+            }
+        });
+    }
 
-        scheduler.schedule(this::showNextAd, 5, TimeUnit.SECONDS);
+    /**
+     * A screen that shows the rotation.
+     *
+     * @param contentPanel the panel displaying the advertisement content
+     * @param trainMapIcon the icon painting the subway map for that panel
+     */
+    private record Screen(ContentPanel contentPanel, TrainMapIcon trainMapIcon) {
     }
 }
@@ -1,41 +1,63 @@
 package ca.ucalgary.edu.ensf380.advertisement;
 
-import ca.ucalgary.edu.ensf380.database.SimpleAdvertisementDatabase;
+import ca.ucalgary.edu.ensf380.database.AdvertisementRepository;
 import ca.ucalgary.edu.ensf380.models.Advertisement;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Logger;
 
 /**
  * The AdvertisementFetcher class is responsible for fetching advertisements
  * from a database and storing them in a list.
  */
 public class AdvertisementFetcher {
+    /**
+     * Logger instance for logging messages.
+     */
+    private static final Logger logger = Logger.getLogger(AdvertisementFetcher.class.getName());
+
     /**
      * List of advertisements to be displayed.
      */
     private List<Advertisement> advertisementsMedia;
 
     /**
-     * Instance of SimpleAdvertisementDatabase for database operations.
+     * Repository the advertisements are read from.
      */
-    private final SimpleAdvertisementDatabase database;
+    private final AdvertisementRepository repository;
 
     /**
-     * Constructs an AdvertisementFetcher object.
+     * Constructs an AdvertisementFetcher object that reads from the shared repository.
      */
     public AdvertisementFetcher() {
+        this(AdvertisementRepository.getInstance());
+    }
+
+    /**
+     * Constructs an AdvertisementFetcher object that reads from a given repository.
+     *
+     * @param repository The repository to read the advertisements from.
+     */
+    public AdvertisementFetcher(AdvertisementRepository repository) {
         advertisementsMedia = new ArrayList<>();
-        database = new SimpleAdvertisementDatabase();
+        this.repository = repository;
     }
 
     /**
-     * Loads advertisements from the specified table in the database.
+     * Loads advertisements from the specified table in the database. If the database
+     * cannot be read, the list of advertisements is left empty.
      *
      * @param tableName The name of the table from which to load advertisements.
      */
     public void loadAdvertisements(String tableName) {
-        advertisementsMedia = database.fetchAdvertisements(tableName);
+        try {
+            advertisementsMedia = repository.findAll(tableName);
+        } catch (SQLException e) {
+            logger.severe("Failed to fetch advertisements: " + e.getMessage());
+            advertisementsMedia = new ArrayList<>();
+        }
     }
 
     /**
@@ -0,0 +1,253 @@
+package ca.ucalgary.edu.ensf380.advertisement;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.helper.ImageLoader;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementSlotCallback;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * The AdvertisementPlayer class plays a rotation of advertisements, with the subway map shown between them.
+ * The rotation opens with an advertisement: its image is prepared when the rotation starts, and the first slot
+ * waits for it, for at most one slot.
+ * <p>
+ * After that, slots are timed at a fixed rate from the start of the rotation, and a slot only hands over what is already
+ * prepared, so a slow image never pushes the following slots back. As soon as an advertisement is shown, the
+ * image of the next one is decoded and scaled in the background, which leaves it the advertisement slot and the
+ * map slot after it to get ready. If it is still not ready when its slot begins, the map stays up for that slot
+ * and the advertisement is shown at the next one.
+ * <p>
+ * The list of advertisements is read again at every slot, so a swapped list takes effect right away; an
+ * advertisement prepared ahead that is no longer in the list is dropped.
+ */
+public class AdvertisementPlayer {
+
+    /**
+     * Default length in milliseconds of a slot.
+     */
+    public static final long DEFAULT_SLOT_MILLIS = 5000;
+
+    private static final Logger LOGGER = Logger.getLogger(AdvertisementPlayer.class.getName());
+
+    private final Supplier<List<Advertisement>> adList;
+    private final ImageLoader imageLoader;
+    private final int width;
+    private final int height;
+    private final AdvertisementSlotCallback callback;
+    private final BackgroundRuntime backgroundRuntime;
+    private int nextIndex;
+    private Prepared next;
+    private boolean advertisementSlot = true;
+    private long lateAdvertisements;
+    private Future<?> starting;
+    private ScheduledFuture<?> slots;
+
+    /**
+     * Constructs an AdvertisementPlayer. The rotation begins with an advertisement slot.
+     *
+     * @param adList            supplies the current list of advertisements to play
+     * @param imageLoader       loads and scales the images of the advertisements
+     * @param width             the width the images are scaled to
+     * @param height            the height the images are scaled to
+     * @param callback          shows the slots
+     * @param backgroundRuntime the runtime the slots are timed and the images are decoded on
+     */
+    public AdvertisementPlayer(Supplier<List<Advertisement>> adList, ImageLoader imageLoader, int width, int height,
+                               AdvertisementSlotCallback callback, BackgroundRuntime backgroundRuntime) {
+        this.adList = adList;
+        this.imageLoader = imageLoader;
+        this.width = width;
+        this.height = height;
+        this.callback = callback;
+        this.backgroundRuntime = backgroundRuntime;
+    }
+
+    /**
+     * Starts playing the rotation. The first advertisement is prepared right away, and the rotation begins as
+     * soon as its image is ready, or after one slot if it is not.
+     *
+     * @param slotMillis the length in milliseconds of a slot
+     */
+    public synchronized void start(long slotMillis) {
+        if (starting != null || slots != null) {
+            return;
+        }
+        prepareNext();
+        Future<ImageIcon> firstImage = next == null ? null : next.image();
+        starting = backgroundRuntime.submit(() -> {
+            await(firstImage, slotMillis);
+            synchronized (this) {
+                if (starting != null) {
+                    starting = null;
+                    slots = backgroundRuntime.scheduleAtFixedRate(this::nextSlot, 0, slotMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops playing the rotation and cancels the image being prepared.
+     */
+    public synchronized void stop() {
+        if (starting != null) {
+            starting.cancel(true);
+            starting = null;
+        }
+        if (slots != null) {
+            slots.cancel(false);
+            slots = null;
+        }
+        discardNext();
+    }
+
+    /**
+     * Begins the next slot, alternating between the map and the advertisements.
+     */
+    public synchronized void nextSlot() {
+        List<Advertisement> ads = adList.get();
+        boolean showAdvertisement = advertisementSlot;
+        advertisementSlot = !advertisementSlot;
+        if (ads == null || ads.isEmpty()) {
+            discardNext();
+            callback.onMapSlot();
+            return;
+        }
+
+        if (next != null && !ads.contains(next.advertisement())) {
+            discardNext();
+        }
+        if (next == null) {
+            prepare(ads);
+        }
+
+        if (!showAdvertisement) {
+            callback.onMapSlot();
+        } else if (!next.image().isDone()) {
+            lateAdvertisements++;
+            LOGGER.fine("Image of " + next.advertisement().title() + " not ready, keeping the map up");
+            callback.onMapSlot();
+        } else {
+            callback.onAdvertisementSlot(next.advertisement(), imageOf(next));
+            next = null;
+            nextIndex = (nextIndex + 1) % ads.size();
+            if (nextIndex == 0) {
+                logStats();
+            }
+            prepare(ads);
+        }
+    }
+
+    /**
+     * Starts preparing the advertisement of the next advertisement slot, unless it is already being prepared
+     * or there are no advertisements.
+     */
+    public synchronized void prepareNext() {
+        List<Advertisement> ads = adList.get();
+        if (next == null && ads != null && !ads.isEmpty()) {
+            prepare(ads);
+        }
+    }
+
+    /**
+     * Checks whether the advertisement of the next advertisement slot is ready to show.
+     *
+     * @return true if its image has been decoded and scaled
+     */
+    public synchronized boolean isNextReady() {
+        return next != null && next.image().isDone();
+    }
+
+    /**
+     * Gets the number of advertisement slots that kept the map up because an image was not ready.
+     *
+     * @return the number of late advertisements
+     */
+    public synchronized long getLateAdvertisements() {
+        return lateAdvertisements;
+    }
+
+    /**
+     * Starts decoding and scaling the image of the next advertisement in the background.
+     *
+     * @param ads the current list of advertisements
+     */
+    private void prepare(List<Advertisement> ads) {
+        nextIndex %= ads.size();
+        Advertisement ad = ads.get(nextIndex);
+        next = new Prepared(ad, backgroundRuntime.submit(() -> imageLoader.loadImage(ad.mediaPath(), width, height)));
+    }
+
+    /**
+     * Waits for an image to be ready. An image that fails or is late is reported by the slot that shows it.
+     *
+     * @param image      the image being decoded and scaled, or null for none
+     * @param slotMillis the longest time in milliseconds to wait
+     */
+    private static void await(Future<ImageIcon> image, long slotMillis) {
+        if (image == null) {
+            return;
+        }
+        try {
+            image.get(slotMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            // The first slot keeps the map up or shows an empty image.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cancels the advertisement prepared ahead, if any.
+     */
+    private void discardNext() {
+        if (next != null) {
+            next.image().cancel(true);
+            next = null;
+        }
+    }
+
+    /**
+     * Gets the image of a prepared advertisement that is done.
+     *
+     * @param prepared the prepared advertisement
+     * @return the image, or an empty icon if it could not be loaded
+     */
+    private static Icon imageOf(Prepared prepared) {
+        try {
+            return prepared.image().get();
+        } catch (ExecutionException e) {
+            LOGGER.warning("Failed to load image of " + prepared.advertisement().title() + ": " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ImageIcon();
+    }
+
+    /**
+     * Logs the statistics of the image cache and the late advertisements, once per rotation.
+     */
+    private void logStats() {
+        ImageLoader.CacheStats stats = imageLoader.getStats();
+        LOGGER.fine(String.format("Advertisement images: %.0f%% cache hits, %d evictions, %d bytes cached, %d late",
+                stats.hitRate() * 100, stats.evictions(), stats.cachedBytes(), lateAdvertisements));
+    }
+
+    /**
+     * An advertisement whose image is being prepared.
+     *
+     * @param advertisement the advertisement
+     * @param image         the image being decoded and scaled
+     */
+    private record Prepared(Advertisement advertisement, Future<ImageIcon> image) {
+    }
+}
@@ -0,0 +1,109 @@
+package ca.ucalgary.edu.ensf380.advertisement;
+
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * The TrainMapIcon class paints the latest train map frame directly, scaled to a fixed size,
+ * without copying or re-encoding it. When a new frame arrives only the changed region of the
+ * component showing the icon is repainted. An icon can highlight its own train over the frame,
+ * so icons of different screens can share one frame.
+ */
+public class TrainMapIcon implements Icon {
+    private final int width;
+    private final int height;
+    private final TrainMapVisualizer trainMapVisualizer;
+    private final int focusedTrain;
+    private BufferedImage frame;
+    private Component paintedOn;
+    private int paintedX;
+    private int paintedY;
+
+    /**
+     * Constructs a TrainMapIcon of the given size.
+     *
+     * @param width              the width the map is painted at
+     * @param height             the height the map is painted at
+     * @param trainMapVisualizer the visualizer that renders the frames
+     * @param focusedTrain       the index of the train to highlight, or -1 to paint the frame as rendered
+     */
+    public TrainMapIcon(int width, int height, TrainMapVisualizer trainMapVisualizer, int focusedTrain) {
+        this.width = width;
+        this.height = height;
+        this.trainMapVisualizer = trainMapVisualizer;
+        this.focusedTrain = focusedTrain;
+    }
+
+    /**
+     * Sets the frame to paint. Must be called on the event dispatch thread.
+     *
+     * @param frame the latest train map, or null if none is available yet
+     */
+    public void setFrame(BufferedImage frame) {
+        this.frame = frame;
+    }
+
+    /**
+     * Sets a new frame and repaints the part of the icon that changed, if the icon is on screen.
+     * Must be called on the event dispatch thread.
+     *
+     * @param newFrame the latest train map
+     * @param damage   the region of the frame, in map pixels, that changed since the previous frame
+     */
+    public void updateFrame(BufferedImage newFrame, Rectangle damage) {
+        BufferedImage previous = frame;
+        frame = newFrame;
+        if (paintedOn == null || !paintedOn.isShowing()
+                || (paintedOn instanceof JLabel label && label.getIcon() != this)) {
+            return;
+        }
+        if (previous == null || previous.getWidth() != newFrame.getWidth()
+                || previous.getHeight() != newFrame.getHeight()) {
+            paintedOn.repaint(paintedX, paintedY, width, height);
+        } else if (!damage.isEmpty()) {
+            double scaleX = (double) width / newFrame.getWidth();
+            double scaleY = (double) height / newFrame.getHeight();
+            // Widen by a pixel on each side to cover bilinear filtering at the edges.
+            int x = (int) Math.floor(damage.x * scaleX) - 1;
+            int y = (int) Math.floor(damage.y * scaleY) - 1;
+            int right = (int) Math.ceil((damage.x + damage.width) * scaleX) + 1;
+            int bottom = (int) Math.ceil((damage.y + damage.height) * scaleY) + 1;
+            paintedOn.repaint(paintedX + x, paintedY + y, right - x, bottom - y);
+        }
+    }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        paintedOn = c;
+        paintedX = x;
+        paintedY = y;
+        if (frame == null) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(frame, x, y, width, height, null);
+            if (focusedTrain >= 0) {
+                g2d.translate(x, y);
+                g2d.scale((double) width / frame.getWidth(), (double) height / frame.getHeight());
+                trainMapVisualizer.drawFocusedTrain(g2d, focusedTrain);
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    @Override
+    public int getIconWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIconHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,126 @@
+package ca.ucalgary.edu.ensf380.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * The BenchmarkRunner class times an operation and counts the memory it allocates.
+ * <p>
+ * An operation is run for a number of warmup iterations, so the JIT compiler has settled, and then
+ * for a number of measured iterations. Each measured iteration is timed on its own, which gives the
+ * latency percentiles, and the bytes allocated by the benchmark thread over all measured iterations
+ * give the allocation per operation. Results are consumed so the work cannot be optimized away.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * An operation to benchmark.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         *
+         * @return A result of the operation, which is consumed by the runner.
+         * @throws Exception If the operation fails.
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * The measurements of one benchmark.
+     *
+     * @param name              The name of the benchmark.
+     * @param iterations        The number of measured iterations.
+     * @param meanMicros        The mean latency in microseconds.
+     * @param p50Micros         The median latency in microseconds.
+     * @param p99Micros         The 99th percentile latency in microseconds.
+     * @param bytesPerOperation The bytes allocated per operation, or -1 if the JVM cannot count them.
+     */
+    public record Result(String name, int iterations, double meanMicros, double p50Micros, double p99Micros,
+                         long bytesPerOperation) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %8d %12.1f %12.1f %12.1f %14s", name, iterations, meanMicros, p50Micros,
+                    p99Micros, bytesPerOperation < 0 ? "n/a" : Long.toString(bytesPerOperation));
+        }
+    }
+
+    private static volatile Object sink;
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Gets the header matching {@link Result#toString()}.
+     *
+     * @return The column names.
+     */
+    public static String header() {
+        return String.format("%-28s %8s %12s %12s %12s %14s", "Benchmark", "Ops", "Mean (us)", "p50 (us)",
+                "p99 (us)", "Alloc (B/op)");
+    }
+
+    /**
+     * Benchmarks an operation.
+     *
+     * @param name                  The name of the benchmark.
+     * @param warmupIterations      The number of iterations run before measuring.
+     * @param measurementIterations The number of measured iterations.
+     * @param operation             The operation to run.
+     * @return The measurements.
+     * @throws Exception If the operation fails.
+     */
+    public static Result measure(String name, int warmupIterations, int measurementIterations,
+                                 Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink = operation.run();
+        }
+
+        long[] latencies = new long[measurementIterations];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            sink = operation.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocatedAfter = allocatedBytes();
+
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        long bytesPerOperation = allocatedBefore < 0
+                ? -1
+                : (allocatedAfter - allocatedBefore) / measurementIterations;
+        return new Result(name, measurementIterations, total / 1000.0 / measurementIterations,
+                percentile(latencies, 0.50) / 1000.0, percentile(latencies, 0.99) / 1000.0, bytesPerOperation);
+    }
+
+    /**
+     * Gets a percentile of sorted values.
+     *
+     * @param sorted   The values in ascending order.
+     * @param fraction The percentile as a fraction between 0 and 1.
+     * @return The value at the percentile.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by the current thread.
+     *
+     * @return The allocated bytes, or -1 if the JVM does not count them.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
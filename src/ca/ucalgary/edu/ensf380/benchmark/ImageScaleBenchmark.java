@@ -0,0 +1,140 @@
+package ca.ucalgary.edu.ensf380.benchmark;
+
+import ca.ucalgary.edu.ensf380.helper.ImageScaler;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ImageScaleBenchmark class compares the {@link ImageScaler} with the {@code Image.getScaledInstance}
+ * path it replaced, on images like the ones the screen scales.
+ * <p>
+ * For each case it benchmarks:
+ * <ul>
+ *     <li>{@code smooth}: {@code getScaledInstance(..., Image.SCALE_SMOOTH)} drawn into a new image, as
+ *     {@code ImageLoader} and {@code TrainMapVisualizer} used to do</li>
+ *     <li>{@code scaler}: {@link ImageScaler#scale(BufferedImage, int, int)} into a new image</li>
+ *     <li>{@code scaler-into}: {@link ImageScaler#scale(BufferedImage, BufferedImage)} into one reused
+ *     destination</li>
+ * </ul>
+ * The cases are a decoded camera photo and a full HD advertisement scaled to the 600 by 440 advertisement
+ * area, and a translucent train marker scaled to its 24 pixel size. Run it with:
+ * <pre>
+ * java -Djava.awt.headless=true ca.ucalgary.edu.ensf380.benchmark.ImageScaleBenchmark [iterations]
+ * </pre>
+ * Without arguments each benchmark runs 30 measured iterations.
+ */
+public final class ImageScaleBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 30;
+    private static final long SEED = 380L;
+
+    private ImageScaleBenchmark() {
+    }
+
+    /**
+     * A source image and the size it is scaled to.
+     *
+     * @param name   The name of the case.
+     * @param source The image to scale.
+     * @param width  The width to scale to.
+     * @param height The height to scale to.
+     */
+    record Case(String name, BufferedImage source, int width, int height) {
+    }
+
+    /**
+     * Runs the benchmarks and prints one table per case.
+     *
+     * @param args The number of measured iterations of each benchmark.
+     * @throws Exception If a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        Random random = new Random(SEED);
+        List<Case> cases = List.of(
+                new Case("4000x3000 photo", photo(4000, 3000, random), 600, 440),
+                new Case("1920x1080 advertisement", photo(1920, 1080, random), 600, 440),
+                new Case("512x512 marker", marker(512), 24, 24));
+
+        for (Case scaleCase : cases) {
+            System.out.println();
+            System.out.println(scaleCase.name() + " to " + scaleCase.width() + "x" + scaleCase.height());
+            System.out.println(BenchmarkRunner.header());
+            for (BenchmarkRunner.Result result : run(scaleCase, iterations)) {
+                System.out.println(result);
+            }
+        }
+    }
+
+    /**
+     * Runs every benchmark on one case.
+     *
+     * @param scaleCase  The case to benchmark.
+     * @param iterations The number of measured iterations.
+     * @return The results, in the order the benchmarks ran.
+     * @throws Exception If a benchmark fails.
+     */
+    static List<BenchmarkRunner.Result> run(Case scaleCase, int iterations) throws Exception {
+        BufferedImage source = scaleCase.source();
+        int width = scaleCase.width();
+        int height = scaleCase.height();
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int warmup = Math.max(5, iterations / 3);
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+
+        results.add(BenchmarkRunner.measure("smooth", warmup, iterations, () -> {
+            BufferedImage scaled = new BufferedImage(width, height, type);
+            Graphics2D g2d = scaled.createGraphics();
+            g2d.drawImage(source.getScaledInstance(width, height, Image.SCALE_SMOOTH), 0, 0, null);
+            g2d.dispose();
+            return scaled;
+        }));
+        results.add(BenchmarkRunner.measure("scaler", warmup, iterations,
+                () -> ImageScaler.scale(source, width, height)));
+        BufferedImage destination = new BufferedImage(width, height, type);
+        results.add(BenchmarkRunner.measure("scaler-into", warmup, iterations,
+                () -> ImageScaler.scale(source, destination)));
+        return results;
+    }
+
+    /**
+     * Creates an opaque image with smooth gradients and fine noise, laid out as ImageIO decodes a JPEG.
+     *
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     * @param random The source of the noise.
+     * @return The image.
+     */
+    private static BufferedImage photo(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int red = x * 255 / width;
+                int green = y * 255 / height;
+                int blue = 128 + random.nextInt(64) - 32;
+                image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Creates a translucent image of a filled circle, like a train marker.
+     *
+     * @param size The width and height of the image.
+     * @return The image.
+     */
+    private static BufferedImage marker(int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(new Color(200, 30, 30));
+        g2d.fillOval(size / 8, size / 8, size * 3 / 4, size * 3 / 4);
+        g2d.dispose();
+        return image;
+    }
+}
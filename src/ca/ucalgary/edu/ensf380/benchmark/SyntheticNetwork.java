@@ -0,0 +1,165 @@
+package ca.ucalgary.edu.ensf380.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The SyntheticNetwork class writes a subway network of any size in the formats read by the application:
+ * a station file laid out like {@code data/subway.csv} and a train file laid out like the
+ * {@code Trains_<epoch>.csv} snapshots written by the SubwaySimulator.
+ * <p>
+ * Lines have {@link #STATIONS_PER_LINE} stations that wander across the same area as the real map.
+ * Every tenth station lists the matching station of the next line as a quoted common station, so the
+ * quoted column is exercised. There is one train for every ten stations, as in the real network.
+ */
+public final class SyntheticNetwork {
+
+    /**
+     * Number of stations on each line.
+     */
+    public static final int STATIONS_PER_LINE = 40;
+
+    private static final double MAP_WIDTH = 1160;
+    private static final double MAP_HEIGHT = 670;
+    private static final double STEP = 28;
+
+    private final int stationCount;
+    private final int trainCount;
+    private final Path stationFile;
+    private final Path trainDirectory;
+
+    /**
+     * Constructs a SyntheticNetwork from files that were already written.
+     *
+     * @param stationCount   The number of stations.
+     * @param trainCount     The number of trains.
+     * @param stationFile    The station file.
+     * @param trainDirectory The directory holding the train file.
+     */
+    private SyntheticNetwork(int stationCount, int trainCount, Path stationFile, Path trainDirectory) {
+        this.stationCount = stationCount;
+        this.trainCount = trainCount;
+        this.stationFile = stationFile;
+        this.trainDirectory = trainDirectory;
+    }
+
+    /**
+     * Writes a network with the given number of stations into a directory.
+     *
+     * @param stationCount The number of stations, at least {@link #STATIONS_PER_LINE}.
+     * @param directory    The directory to write the files to.
+     * @param seed         The seed for station positions and train placement.
+     * @return The written network.
+     * @throws IOException If there is an error writing the files.
+     */
+    public static SyntheticNetwork create(int stationCount, Path directory, long seed) throws IOException {
+        if (stationCount < STATIONS_PER_LINE) {
+            throw new IllegalArgumentException("A network needs at least " + STATIONS_PER_LINE + " stations: "
+                    + stationCount);
+        }
+        int lineCount = stationCount / STATIONS_PER_LINE;
+        int trainCount = Math.max(1, stationCount / 10);
+        Random random = new Random(seed);
+
+        Path stationFile = directory.resolve("subway.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(stationFile, StandardCharsets.UTF_8)) {
+            writer.write("Row,Line,StationNumber,StationCode,StationName,X,Y,Common Stations\n");
+            int row = 1;
+            for (int line = 0; line < lineCount; line++) {
+                double x = random.nextDouble() * MAP_WIDTH;
+                double y = random.nextDouble() * MAP_HEIGHT;
+                double heading = random.nextDouble() * 2 * Math.PI;
+                for (int number = 1; number <= STATIONS_PER_LINE; number++) {
+                    String common = "";
+                    if (number % 10 == 0 && lineCount > 1) {
+                        common = "\"" + stationCode((line + 1) % lineCount, number) + "\"";
+                    }
+                    writer.write(row++ + "," + lineCode(line) + "," + String.format("%02d", number) + ","
+                            + stationCode(line, number) + ", Station " + line + "-" + number + ","
+                            + x + "," + y + "," + common + "\n");
+
+                    heading += (random.nextDouble() - 0.5) * 0.6;
+                    x = Math.max(0, Math.min(MAP_WIDTH, x + Math.cos(heading) * STEP));
+                    y = Math.max(0, Math.min(MAP_HEIGHT, y + Math.sin(heading) * STEP));
+                }
+            }
+        }
+
+        Path trainDirectory = Files.createDirectories(directory.resolve("out"));
+        Path trainFile = trainDirectory.resolve("Trains_" + System.currentTimeMillis() + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(trainFile, StandardCharsets.UTF_8)) {
+            writer.write("LineName,TrainNumber,StationCode,Direction,Destination\n");
+            for (int train = 0; train < trainCount; train++) {
+                int line = train % lineCount;
+                boolean forward = random.nextBoolean();
+                int number = 1 + random.nextInt(STATIONS_PER_LINE);
+                writer.write(lineCode(line) + "," + (train + 1) + "," + stationCode(line, number) + ","
+                        + (forward ? "forward" : "backward") + ","
+                        + stationCode(line, forward ? STATIONS_PER_LINE : 1) + "\n");
+            }
+        }
+
+        return new SyntheticNetwork(lineCount * STATIONS_PER_LINE, trainCount, stationFile, trainDirectory);
+    }
+
+    /**
+     * Gets the number of stations in the network.
+     *
+     * @return The number of stations.
+     */
+    public int getStationCount() {
+        return stationCount;
+    }
+
+    /**
+     * Gets the number of trains in the train file.
+     *
+     * @return The number of trains.
+     */
+    public int getTrainCount() {
+        return trainCount;
+    }
+
+    /**
+     * Gets the station file.
+     *
+     * @return The path of the station file.
+     */
+    public Path getStationFile() {
+        return stationFile;
+    }
+
+    /**
+     * Gets the directory holding the train file, in the place of the simulator output directory.
+     *
+     * @return The path of the directory.
+     */
+    public Path getTrainDirectory() {
+        return trainDirectory;
+    }
+
+    /**
+     * Gets the code of a line.
+     *
+     * @param line The index of the line.
+     * @return The line code.
+     */
+    private static String lineCode(int line) {
+        return "L" + line;
+    }
+
+    /**
+     * Gets the code of a station.
+     *
+     * @param line   The index of the line.
+     * @param number The number of the station on its line, starting at 1.
+     * @return The station code.
+     */
+    private static String stationCode(int line, int number) {
+        return "L" + line + "S" + String.format("%02d", number);
+    }
+}
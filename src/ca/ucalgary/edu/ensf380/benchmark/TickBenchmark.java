@@ -0,0 +1,216 @@
+package ca.ucalgary.edu.ensf380.benchmark;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.LineTopology;
+import ca.ucalgary.edu.ensf380.train.SnapshotRingReader;
+import ca.ucalgary.edu.ensf380.train.SnapshotRingWriter;
+import ca.ucalgary.edu.ensf380.train.StationDataImporter;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+import ca.ucalgary.edu.ensf380.train.TrainDataCollector;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The TickBenchmark class measures the latency and allocation of the work done on every train tick,
+ * on synthetic networks of increasing size.
+ * <p>
+ * For each network size it benchmarks:
+ * <ul>
+ *     <li>{@code import}: {@link StationDataImporter#importStationData()} of the station file</li>
+ *     <li>{@code collect}: {@link TrainDataCollector#collectTrainData()} of one train file</li>
+ *     <li>{@code ring}: {@link SnapshotRingReader#readLatest()} of the same tick from a snapshot ring</li>
+ *     <li>{@code status}: constructing a {@link TrainStatus} for every train and asking each for its
+ *     next three stations</li>
+ *     <li>{@code render}: {@link TrainMapVisualizer#renderTrainMap(int[], int[], int, int)} with every
+ *     train moving one station</li>
+ * </ul>
+ * Latencies are per operation, so {@code collect}, {@code status} and {@code render} are per tick.
+ * Run it from the project directory, since the visualizer reads its images from {@code data/}:
+ * <pre>
+ * java -Djava.awt.headless=true ca.ucalgary.edu.ensf380.benchmark.TickBenchmark [stationCount...]
+ * </pre>
+ * Without arguments the networks have 120, 10,000 and 100,000 stations.
+ */
+public final class TickBenchmark {
+
+    private static final int[] DEFAULT_STATION_COUNTS = { 120, 10_000, 100_000 };
+    private static final long SEED = 380L;
+
+    private TickBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks and prints one table per network size.
+     *
+     * @param args The station counts of the networks to benchmark.
+     * @throws Exception If a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int[] stationCounts = DEFAULT_STATION_COUNTS;
+        if (args.length > 0) {
+            stationCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                stationCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int stationCount : stationCounts) {
+            Path directory = Files.createTempDirectory("subway-benchmark");
+            try {
+                SyntheticNetwork network = SyntheticNetwork.create(stationCount, directory, SEED);
+                System.out.println();
+                System.out.println(network.getStationCount() + " stations, " + network.getTrainCount() + " trains");
+                System.out.println(BenchmarkRunner.header());
+                for (BenchmarkRunner.Result result : run(network)) {
+                    System.out.println(result);
+                }
+            } finally {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    /**
+     * Runs every benchmark on one network.
+     *
+     * @param network The network to benchmark.
+     * @return The results, in the order the benchmarks ran.
+     * @throws Exception If a benchmark fails.
+     */
+    static List<BenchmarkRunner.Result> run(SyntheticNetwork network) throws Exception {
+        // Fewer iterations on larger networks keep each benchmark to a few seconds.
+        int iterations = Math.max(20, 200_000 / network.getStationCount());
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+
+        String stationFile = network.getStationFile().toString();
+        results.add(BenchmarkRunner.measure("import", iterations / 2, iterations, () -> {
+            StationDataImporter importer = new StationDataImporter();
+            importer.setDataSource(stationFile);
+            return importer.importStationData();
+        }));
+
+        StationDataImporter importer = new StationDataImporter();
+        importer.setDataSource(stationFile);
+        StationRegistry registry = StationRegistry.load(importer);
+
+        TrainDataCollector collector = new TrainDataCollector(registry, network.getTrainDirectory());
+        results.add(BenchmarkRunner.measure("collect", iterations / 2, iterations, collector::collectTrainData));
+
+        TrainStatus[] trains = collector.collectTrainData();
+        Path ringFile = network.getStationFile().resolveSibling(SnapshotRingWriter.DEFAULT_FILE_NAME);
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, SnapshotRingWriter.DEFAULT_SLOT_COUNT,
+                trains.length, registry);
+             SnapshotRingReader reader = new SnapshotRingReader(ringFile, registry)) {
+            writer.write(trains);
+            results.add(BenchmarkRunner.measure("ring", iterations / 2, iterations, reader::readLatest));
+        }
+
+        results.add(statusBenchmark(registry, trains, iterations));
+        results.add(renderBenchmark(registry, trains, iterations));
+        return results;
+    }
+
+    /**
+     * Benchmarks constructing the status of every train and looking up its next three stations.
+     *
+     * @param registry   The registry of the network.
+     * @param trains     The trains of one tick.
+     * @param iterations The number of measured iterations.
+     * @return The measurements.
+     * @throws Exception If the benchmark fails.
+     */
+    private static BenchmarkRunner.Result statusBenchmark(StationRegistry registry, TrainStatus[] trains,
+                                                          int iterations) throws Exception {
+        LineTopology topology = registry.getTopology();
+        String[] nextStations = new String[trains.length];
+        String[] previousStations = new String[trains.length];
+        for (int i = 0; i < trains.length; i++) {
+            int ordinal = registry.getOrdinal(trains[i].getCurrentStationId());
+            boolean forward = LineTopology.isForward(trains[i].getMovementDirection());
+            nextStations[i] = stationCode(registry, topology.next(ordinal, forward));
+            previousStations[i] = stationCode(registry, topology.previous(ordinal, forward));
+        }
+
+        return BenchmarkRunner.measure("status", iterations / 2, iterations, () -> {
+            int length = 0;
+            for (int i = 0; i < trains.length; i++) {
+                TrainStatus train = trains[i];
+                TrainStatus status = new TrainStatus(registry, train.getRouteName(), train.getTrainId(),
+                        train.getCurrentStationId(), train.getMovementDirection(), train.getEndStation(),
+                        nextStations[i], previousStations[i]);
+                for (int offset = 0; offset < 3; offset++) {
+                    length += status.getNextStationName(offset).length();
+                }
+            }
+            return length;
+        });
+    }
+
+    /**
+     * Benchmarks rendering the map, alternating between the trains at their stations and the trains
+     * one station further on, so every marker moves on every render.
+     *
+     * @param registry   The registry of the network.
+     * @param trains     The trains of one tick.
+     * @param iterations The number of measured iterations.
+     * @return The measurements.
+     * @throws Exception If the benchmark fails.
+     */
+    private static BenchmarkRunner.Result renderBenchmark(StationRegistry registry, TrainStatus[] trains,
+                                                          int iterations) throws Exception {
+        LineTopology topology = registry.getTopology();
+        int[][] xs = new int[2][trains.length];
+        int[][] ys = new int[2][trains.length];
+        for (int i = 0; i < trains.length; i++) {
+            int ordinal = registry.getOrdinal(trains[i].getCurrentStationId());
+            int next = topology.next(ordinal, LineTopology.isForward(trains[i].getMovementDirection()));
+            StationInfo here = registry.getStation(ordinal);
+            StationInfo there = registry.getStation(next == LineTopology.NO_STATION ? ordinal : next);
+            xs[0][i] = (int) here.getLocation().getLatitude();
+            ys[0][i] = (int) here.getLocation().getLongitude();
+            xs[1][i] = (int) there.getLocation().getLatitude();
+            ys[1][i] = (int) there.getLocation().getLongitude();
+        }
+
+        TrainMapVisualizer visualizer = new TrainMapVisualizer();
+        int[] tick = new int[1];
+        return BenchmarkRunner.measure("render", iterations / 2, iterations, () -> {
+            int layout = tick[0]++ & 1;
+            visualizer.renderTrainMap(xs[layout], ys[layout], trains.length, 0);
+            return visualizer.getLatestFrame();
+        });
+    }
+
+    /**
+     * Gets the code of a station by ordinal.
+     *
+     * @param registry The registry of the network.
+     * @param ordinal  The ordinal of the station, or {@link LineTopology#NO_STATION}.
+     * @return The station code, or null if there is no station.
+     */
+    private static String stationCode(StationRegistry registry, int ordinal) {
+        return ordinal == LineTopology.NO_STATION ? null : registry.getStation(ordinal).getStationIdentifier();
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param directory The directory to delete.
+     * @throws IOException If there is an error deleting a file.
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
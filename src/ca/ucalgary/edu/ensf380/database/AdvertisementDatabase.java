@@ -8,8 +8,12 @@ import java.util.logging.Logger;
 
 /**
  * The AdvertisementDatabase class provides an abstract base class for database
- * operations related to advertisements.
+ * operations related to advertisements. The connection settings come from
+ * {@link DatabaseConfig#load()}.
+ *
+ * @deprecated Use {@link AdvertisementRepository}, which shares pooled connections.
  */
+@Deprecated
 public abstract class AdvertisementDatabase {
     /**
      * Private Constructor of the AdvertisementDatabase.
@@ -43,11 +47,8 @@ public abstract class AdvertisementDatabase {
                 return;
             }
 
-            String url = "jdbc:mysql://localhost:3306/SubwayScreen";
-            String username = "root";
-            String password = "Monty@9904";
-
-            connection = DriverManager.getConnection(url, username, password);
+            DatabaseConfig config = DatabaseConfig.load();
+            connection = DriverManager.getConnection(config.url(), config.username(), config.password());
         } catch (Exception e) {
             logger.severe("Failed to connect to the database: " + e.getMessage());
         }
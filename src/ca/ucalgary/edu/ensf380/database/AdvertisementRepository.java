@@ -0,0 +1,157 @@
+package ca.ucalgary.edu.ensf380.database;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementChange;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The AdvertisementRepository class reads the advertisements from the database.
+ * <p>
+ * It borrows its connections from a {@link ConnectionPool}, so every screen of a process shares a few
+ * connections instead of opening one per load. The query is a prepared statement that selects only the
+ * columns an advertisement needs, in a stable order, and reads the rows in batches of the configured fetch
+ * size. The table name cannot be a statement parameter, so it is checked to be a plain identifier instead.
+ * <p>
+ * Removed advertisements stay in the table with their {@code deleted} flag set, and every change moves the
+ * row's {@code updated_at} forward, so a screen can ask for just the rows changed since it last looked.
+ */
+public class AdvertisementRepository implements AutoCloseable {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private static AdvertisementRepository instance;
+
+    private final ConnectionPool connectionPool;
+    private final int fetchSize;
+
+    /**
+     * Constructs an AdvertisementRepository.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     * @param fetchSize      The number of rows fetched from the database at a time.
+     */
+    public AdvertisementRepository(ConnectionPool connectionPool, int fetchSize) {
+        this.connectionPool = connectionPool;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Gets the repository shared by the whole application, created from {@link DatabaseConfig#load()}.
+     * Its connections are closed with the {@link BackgroundRuntime}.
+     *
+     * @return The shared repository.
+     */
+    public static synchronized AdvertisementRepository getInstance() {
+        if (instance == null) {
+            DatabaseConfig config = DatabaseConfig.load();
+            AdvertisementRepository repository = new AdvertisementRepository(ConnectionPool.create(config),
+                    config.fetchSize());
+            BackgroundRuntime.getInstance().addShutdownHook(repository::close);
+            instance = repository;
+        }
+        return instance;
+    }
+
+    /**
+     * Reads all advertisements of a table that have not been removed, in the order they were added.
+     *
+     * @param tableName The name of the table from which to read advertisements.
+     * @return The advertisements.
+     * @throws SQLException If the table name is not a plain identifier or the database cannot be read.
+     */
+    public List<Advertisement> findAll(String tableName) throws SQLException {
+        String sql = "SELECT title, description, media_path FROM " + checkTableName(tableName)
+                + " WHERE deleted = FALSE ORDER BY id";
+        return connectionPool.withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<Advertisement> advertisements = new ArrayList<>();
+                    while (resultSet.next()) {
+                        advertisements.add(new Advertisement(resultSet.getString(1), resultSet.getString(2),
+                                resultSet.getString(3)));
+                    }
+                    return advertisements;
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the rows of a table changed at or after a given time, removed ones included, oldest change first.
+     *
+     * @param tableName The name of the table from which to read advertisements.
+     * @param since     The earliest change time to read, or null to read every row.
+     * @return The changed rows.
+     * @throws SQLException If the table name is not a plain identifier or the database cannot be read.
+     */
+    public List<AdvertisementChange> findChangedSince(String tableName, Timestamp since) throws SQLException {
+        String sql = "SELECT id, title, description, media_path, deleted, updated_at FROM "
+                + checkTableName(tableName) + " WHERE updated_at >= ? ORDER BY updated_at, id";
+        return connectionPool.withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, since == null ? new Timestamp(0) : since);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<AdvertisementChange> changes = new ArrayList<>();
+                    while (resultSet.next()) {
+                        Advertisement advertisement = new Advertisement(resultSet.getString(2),
+                                resultSet.getString(3), resultSet.getString(4));
+                        changes.add(new AdvertisementChange(resultSet.getLong(1), advertisement,
+                                resultSet.getBoolean(5), resultSet.getTimestamp(6)));
+                    }
+                    return changes;
+                }
+            }
+        });
+    }
+
+    /**
+     * Counts the advertisements of a table that have not been removed.
+     *
+     * @param tableName The name of the table.
+     * @return The number of advertisements.
+     * @throws SQLException If the table name is not a plain identifier or the database cannot be read.
+     */
+    public int countActive(String tableName) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + checkTableName(tableName) + " WHERE deleted = FALSE";
+        return connectionPool.withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        });
+    }
+
+    /**
+     * Checks that a table name is a plain identifier, so it can be put into a query safely.
+     *
+     * @param tableName The table name.
+     * @return The table name.
+     * @throws SQLException If the table name is not a plain identifier.
+     */
+    private static String checkTableName(String tableName) throws SQLException {
+        if (tableName == null || !TABLE_NAME.matcher(tableName).matches()) {
+            throw new SQLException("Invalid table name: " + tableName);
+        }
+        return tableName;
+    }
+
+    /**
+     * Closes the idle connections of the pool.
+     */
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+}
@@ -0,0 +1,238 @@
+package ca.ucalgary.edu.ensf380.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The ConnectionPool class keeps a few database connections open and lends them out one task at a time.
+ * <p>
+ * At most a fixed number of connections are in use at once; a task that needs one while all are busy waits
+ * for one to be returned. Connections are opened on first use and kept open afterwards, so loading the
+ * advertisements again does not connect and log in again. A connection that has been idle for a while is
+ * checked before it is lent out, and one that fails a task or the check is closed and replaced.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Default time in milliseconds a task waits for a free connection.
+     */
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 10000;
+
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * The ConnectionPool.ConnectionFactory interface defines how a new connection is opened.
+     */
+    public interface ConnectionFactory {
+        /**
+         * Opens a new connection.
+         *
+         * @return The connection.
+         * @throws SQLException If the connection cannot be opened.
+         */
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * The ConnectionPool.Task interface defines work done with a borrowed connection.
+     *
+     * @param <T> The type of the task's result.
+     */
+    public interface Task<T> {
+        /**
+         * Runs the task. The connection must not be closed or kept after the task returns.
+         *
+         * @param connection The borrowed connection.
+         * @return The result.
+         * @throws SQLException If the task fails.
+         */
+        T run(Connection connection) throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final long borrowTimeoutMillis;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private int opened;
+    private boolean closed;
+
+    /**
+     * Constructs a ConnectionPool.
+     *
+     * @param factory             Opens new connections.
+     * @param maxSize             The most connections in use at once.
+     * @param borrowTimeoutMillis The time in milliseconds a task waits for a free connection.
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis) {
+        this.factory = factory;
+        this.permits = new Semaphore(maxSize, true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * Creates a pool of connections to the configured database.
+     *
+     * @param config The database settings.
+     * @return The pool.
+     */
+    public static ConnectionPool create(DatabaseConfig config) {
+        return new ConnectionPool(() -> DriverManager.getConnection(config.url(), config.username(), config.password()),
+                config.poolSize(), DEFAULT_BORROW_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Runs a task with a borrowed connection and returns the connection to the pool afterwards.
+     *
+     * @param task The task to run.
+     * @param <T>  The type of the task's result.
+     * @return The task's result.
+     * @throws SQLException If no connection is free in time, a connection cannot be opened or the task fails.
+     */
+    public <T> T withConnection(Task<T> task) throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("No database connection free within " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        Connection connection = null;
+        boolean failed = false;
+        try {
+            connection = borrow();
+            return task.run(connection);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            if (connection != null) {
+                giveBack(connection, failed);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Takes an idle connection that is still usable, or opens a new one.
+     *
+     * @return The connection.
+     * @throws SQLException If a new connection cannot be opened.
+     */
+    private Connection borrow() throws SQLException {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (this) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                Connection connection = factory.open();
+                synchronized (this) {
+                    opened++;
+                }
+                return connection;
+            }
+            if (System.currentTimeMillis() - candidate.idleSince() < VALIDATE_AFTER_IDLE_MILLIS
+                    || isValid(candidate.connection())) {
+                return candidate.connection();
+            }
+            discard(candidate.connection());
+        }
+    }
+
+    /**
+     * Returns a connection to the pool, or closes it if it may be broken or the pool is closed.
+     *
+     * @param connection The connection.
+     * @param failed     true if the task using the connection failed.
+     */
+    private void giveBack(Connection connection, boolean failed) {
+        if (failed && !isValid(connection)) {
+            discard(connection);
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                idle.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+                return;
+            }
+        }
+        discard(connection);
+    }
+
+    /**
+     * Checks whether a connection still works.
+     *
+     * @param connection The connection.
+     * @return true if the connection works.
+     */
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes a connection that leaves the pool.
+     *
+     * @param connection The connection.
+     */
+    private void discard(Connection connection) {
+        synchronized (this) {
+            opened--;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warning("Failed to close a database connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of connections currently open, idle or in use.
+     *
+     * @return The number of open connections.
+     */
+    public synchronized int getOpenCount() {
+        return opened;
+    }
+
+    /**
+     * Closes the idle connections. Connections in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        Deque<IdleConnection> closing;
+        synchronized (this) {
+            closed = true;
+            closing = new ArrayDeque<>(idle);
+            idle.clear();
+        }
+        for (IdleConnection connection : closing) {
+            discard(connection.connection());
+        }
+    }
+
+    /**
+     * A connection waiting in the pool.
+     *
+     * @param connection The connection.
+     * @param idleSince  The time in milliseconds the connection was returned.
+     */
+    private record IdleConnection(Connection connection, long idleSince) {
+    }
+}
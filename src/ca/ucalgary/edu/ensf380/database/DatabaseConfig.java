@@ -0,0 +1,127 @@
+package ca.ucalgary.edu.ensf380.database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * The DatabaseConfig class holds the settings of the advertisement database, which are kept outside the code.
+ * <p>
+ * The settings are read from a properties file, {@code database.properties} in the working directory unless
+ * the system property {@code subway.db.config} names another one, with the keys {@code url},
+ * {@code username}, {@code password}, {@code poolSize} and {@code fetchSize}. Each key can be overridden by a
+ * system property of the same name prefixed with {@code subway.db.}, for example
+ * {@code -Dsubway.db.password=secret}. Missing keys fall back to the local MySQL database of the project.
+ *
+ * @param url       The JDBC URL of the database.
+ * @param username  The user to connect as.
+ * @param password  The password of the user.
+ * @param poolSize  The most connections open at once.
+ * @param fetchSize The number of rows fetched from the database at a time.
+ */
+public record DatabaseConfig(String url, String username, String password, int poolSize, int fetchSize) {
+
+    /**
+     * JDBC URL of the local MySQL database. Cursor fetching lets the driver honour the fetch size instead of
+     * reading the whole result at once, and prepared statements are cached per connection.
+     */
+    public static final String DEFAULT_URL =
+            "jdbc:mysql://localhost:3306/SubwayScreen?useCursorFetch=true&cachePrepStmts=true";
+
+    /**
+     * Default most connections open at once.
+     */
+    public static final int DEFAULT_POOL_SIZE = 2;
+
+    /**
+     * Default number of rows fetched at a time.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
+    private static final String PROPERTY_PREFIX = "subway.db.";
+    private static final Logger LOGGER = Logger.getLogger(DatabaseConfig.class.getName());
+
+    /**
+     * Loads the settings from the configured properties file and the system properties.
+     *
+     * @return The settings.
+     */
+    public static DatabaseConfig load() {
+        return load(Paths.get(System.getProperty(PROPERTY_PREFIX + "config", "database.properties")));
+    }
+
+    /**
+     * Loads the settings from a properties file and the system properties.
+     *
+     * @param file The properties file. A missing file leaves every setting at its default.
+     * @return The settings.
+     */
+    public static DatabaseConfig load(Path file) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                LOGGER.warning("Error reading database settings " + file + ": " + e.getMessage());
+            }
+        }
+        for (String key : new String[] {"url", "username", "password", "poolSize", "fetchSize"}) {
+            String value = System.getProperty(PROPERTY_PREFIX + key);
+            if (value != null) {
+                properties.setProperty(key, value);
+            }
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Creates the settings from a set of properties.
+     *
+     * @param properties The properties, with the keys of the properties file.
+     * @return The settings.
+     */
+    public static DatabaseConfig fromProperties(Properties properties) {
+        return new DatabaseConfig(
+                properties.getProperty("url", DEFAULT_URL),
+                properties.getProperty("username", "root"),
+                properties.getProperty("password", ""),
+                parsePositive(properties.getProperty("poolSize"), DEFAULT_POOL_SIZE),
+                parsePositive(properties.getProperty("fetchSize"), DEFAULT_FETCH_SIZE));
+    }
+
+    /**
+     * Parses a positive number.
+     *
+     * @param value        The text to parse, or null.
+     * @param defaultValue The number to use if the text is missing or not a positive number.
+     * @return The number.
+     */
+    private static int parsePositive(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid database setting " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Describes the settings without the password.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return "DatabaseConfig[url=" + url + ", username=" + username + ", poolSize=" + poolSize
+                + ", fetchSize=" + fetchSize + "]";
+    }
+}
@@ -2,16 +2,17 @@ package ca.ucalgary.edu.ensf380.database;
 
 import ca.ucalgary.edu.ensf380.models.Advertisement;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * The SimpleAdvertisementDatabase class provides a simple implementation for
- * fetching advertisements from a database.
+ * fetching advertisements from a database, through the shared {@link AdvertisementRepository}.
+ *
+ * @deprecated Use {@link AdvertisementRepository} directly.
  */
+@Deprecated
 public class SimpleAdvertisementDatabase extends AdvertisementDatabase {
 
     /**
@@ -29,26 +30,11 @@ public class SimpleAdvertisementDatabase extends AdvertisementDatabase {
      */
     @Override
     public List<Advertisement> fetchAdvertisements(String tableName) {
-        List<Advertisement> advertisements = new ArrayList<>();
-        openDatabaseConnection();
-
         try {
-            String query = "SELECT * FROM " + tableName;
-            try (Statement statement = connection.createStatement();
-                 ResultSet resultSet = statement.executeQuery(query)) {
-                while (resultSet.next()) {
-                    String title = resultSet.getString("title");
-                    String text = resultSet.getString("description");
-                    String mediaPath = resultSet.getString("media_path");
-                    advertisements.add(new Advertisement(title, text, mediaPath));
-                }
-            }
+            return AdvertisementRepository.getInstance().findAll(tableName);
         } catch (SQLException e) {
             logger.severe("Failed to fetch advertisements: " + e.getMessage());
-        } finally {
-            closeDatabaseConnection();
+            return new ArrayList<>();
         }
-
-        return advertisements;
     }
 }
@@ -0,0 +1,207 @@
+package ca.ucalgary.edu.ensf380.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * The BackgroundRuntime class runs all background work of the application on virtual threads.
+ * <p>
+ * Every task gets its own virtual thread, so fetching the weather, the news and the advertisements,
+ * speaking announcements and reading the simulator can block on I/O or on a child process without
+ * holding a platform thread. Delayed and periodic tasks are timed by one scheduler and then handed to
+ * a virtual thread, so a slow task never delays the others. Work that must run one task at a time gets
+ * a serial scheduler of its own, which is also backed by a single virtual thread.
+ * <p>
+ * Everything started through the runtime belongs to it: {@link #close()} runs the registered shutdown
+ * hooks, cancels every timed task and interrupts every running one. The shared instance is closed by a
+ * JVM shutdown hook, so a screen or a whole fleet stops its background work in one place.
+ */
+public class BackgroundRuntime implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(BackgroundRuntime.class.getName());
+    private static final long TERMINATION_TIMEOUT_MILLIS = 2000;
+
+    private static BackgroundRuntime instance;
+
+    private final ExecutorService tasks = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("background-", 0).factory());
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("background-timer").factory());
+    private final List<ExecutorService> serialSchedulers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> shutdownHooks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Constructs a BackgroundRuntime. Most code uses the shared instance from {@link #getInstance()}.
+     */
+    public BackgroundRuntime() {
+    }
+
+    /**
+     * Gets the runtime shared by the whole application, creating it on first use.
+     *
+     * @return The shared runtime.
+     */
+    public static synchronized BackgroundRuntime getInstance() {
+        if (instance == null) {
+            BackgroundRuntime runtime = new BackgroundRuntime();
+            Runtime.getRuntime().addShutdownHook(new Thread(runtime::close, "background-shutdown"));
+            instance = runtime;
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a task on a new virtual thread.
+     *
+     * @param task The task to run.
+     * @return A future that cancels the task, interrupting it if it is running.
+     */
+    public Future<?> submit(Runnable task) {
+        return tasks.submit(task);
+    }
+
+    /**
+     * Runs a task on a new virtual thread.
+     *
+     * @param task The task to run.
+     * @param <T>  The type of the task's result.
+     * @return A future holding the task's result.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return tasks.submit(task);
+    }
+
+    /**
+     * Runs a task on a new virtual thread after a delay.
+     *
+     * @param task  The task to run.
+     * @param delay The delay before the task runs.
+     * @param unit  The unit of the delay.
+     * @return A future that cancels the task if it has not started yet.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(() -> dispatch(task), delay, unit);
+    }
+
+    /**
+     * Runs a task on a new virtual thread periodically. A run that is due while the previous run is
+     * still going is skipped, so a slow task does not pile up.
+     *
+     * @param task         The task to run.
+     * @param initialDelay The delay before the first run.
+     * @param period       The time between the starts of two runs.
+     * @param unit         The unit of the delays.
+     * @return A future that cancels the runs that have not started yet.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        AtomicBoolean running = new AtomicBoolean();
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } finally {
+                running.set(false);
+            }
+        };
+        return timer.scheduleAtFixedRate(() -> {
+            if (running.compareAndSet(false, true) && !dispatch(guarded)) {
+                running.set(false);
+            }
+        }, initialDelay, period, unit);
+    }
+
+    /**
+     * Creates a scheduler that runs its tasks one at a time, in order, on a single virtual thread.
+     * The scheduler is shut down with the runtime.
+     *
+     * @param name The name of the scheduler's thread.
+     * @return The scheduler.
+     */
+    public ScheduledExecutorService newSerialScheduler(String name) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name(name).factory());
+        serialSchedulers.add(scheduler);
+        if (closed.get()) {
+            scheduler.shutdownNow();
+        }
+        return scheduler;
+    }
+
+    /**
+     * Registers a task to run when the runtime is closed, before the background tasks are stopped.
+     * Hooks run in the reverse order of registration.
+     *
+     * @param hook The task to run.
+     */
+    public void addShutdownHook(Runnable hook) {
+        shutdownHooks.add(hook);
+    }
+
+    /**
+     * Checks whether the runtime has been closed.
+     *
+     * @return true if the runtime no longer runs tasks.
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Runs the shutdown hooks, cancels every timed task and interrupts every running task.
+     * Closing the runtime again has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<Runnable> hooks = new ArrayList<>(shutdownHooks);
+        for (int i = hooks.size() - 1; i >= 0; i--) {
+            try {
+                hooks.get(i).run();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Error running shutdown hook: " + e.getMessage());
+            }
+        }
+
+        timer.shutdownNow();
+        for (ExecutorService scheduler : serialSchedulers) {
+            scheduler.shutdownNow();
+        }
+        tasks.shutdownNow();
+        try {
+            if (!tasks.awaitTermination(TERMINATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("Background tasks did not stop within " + TERMINATION_TIMEOUT_MILLIS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands a task from the timer to a new virtual thread.
+     *
+     * @param task The task to run.
+     * @return true if the task was started, false if the runtime has been closed.
+     */
+    private boolean dispatch(Runnable task) {
+        try {
+            tasks.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+}
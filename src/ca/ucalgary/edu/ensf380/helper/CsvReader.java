@@ -0,0 +1,382 @@
+package ca.ucalgary.edu.ensf380.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The CsvReader class reads comma separated records one at a time without allocating per record.
+ * <p>
+ * Characters are read in blocks into a reused buffer, and the fields of the current record are copied
+ * into a second reused buffer that only grows when a record is longer than any before it. A field is
+ * only turned into a String when {@link #getString(int)} is called; numbers are parsed directly from
+ * the buffer. Fields may be enclosed in double quotes, in which case they can hold commas, line breaks
+ * and doubled quotes. Unquoted fields are trimmed of surrounding spaces and tabs.
+ * <p>
+ * Records end at {@code \n}, {@code \r\n} or {@code \r}. A comma at the end of a line starts an empty
+ * last field.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int NO_CHAR = -2;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private int pendingChar = NO_CHAR;
+
+    private char[] chars = new char[256];
+    private int length = 0;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount = 0;
+
+    /**
+     * Constructs a CsvReader over a character stream.
+     *
+     * @param reader the stream to read records from
+     */
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a CsvReader over a character stream with a read buffer of the given size.
+     *
+     * @param reader     the stream to read records from
+     * @param bufferSize the number of characters read from the stream at a time
+     */
+    public CsvReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Opens a CsvReader over a UTF-8 file.
+     *
+     * @param path the file to read
+     * @return a reader positioned before the first record
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvReader open(Path path) throws IOException {
+        return new CsvReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next record, replacing the fields of the current one.
+     *
+     * @return true if a record was read, false at the end of the stream
+     * @throws IOException if there is an error reading the stream
+     */
+    public boolean nextRecord() throws IOException {
+        length = 0;
+        fieldCount = 0;
+
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+
+        while (true) {
+            while (c == ' ' || c == '\t') {
+                c = read();
+            }
+
+            int start = length;
+            int end;
+            if (c == '"') {
+                c = read();
+                while (c != -1) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break; // Closing quote; a doubled quote is a literal one
+                        }
+                    }
+                    append((char) c);
+                    c = read();
+                }
+                end = length;
+                // Anything between the closing quote and the next separator is ignored.
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    c = read();
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append((char) c);
+                    c = read();
+                }
+                end = length;
+                while (end > start && (chars[end - 1] == ' ' || chars[end - 1] == '\t')) {
+                    end--;
+                }
+            }
+            addField(start, end);
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pendingChar = next;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of fields in the current record.
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Checks whether a field of the current record is empty.
+     *
+     * @param field the index of the field
+     * @return true if the field has no characters
+     */
+    public boolean isEmpty(int field) {
+        checkField(field);
+        return fieldStarts[field] == fieldEnds[field];
+    }
+
+    /**
+     * Gets a field of the current record as a String.
+     *
+     * @param field the index of the field
+     * @return the text of the field, without enclosing quotes
+     */
+    public String getString(int field) {
+        checkField(field);
+        return new String(chars, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    /**
+     * Checks whether a field of the current record holds exactly the given text, without creating a String.
+     *
+     * @param field the index of the field
+     * @param text  the text to compare with
+     * @return true if the field equals the text
+     */
+    public boolean fieldEquals(int field, CharSequence text) {
+        checkField(field);
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a field of the current record as a decimal integer.
+     *
+     * @param field the index of the field
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not an integer in the range of an int
+     */
+    public int getInt(int field) {
+        checkField(field);
+        int index = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = false;
+        if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+            negative = chars[index] == '-';
+            index++;
+        }
+        if (index == end) {
+            throw invalidNumber(field);
+        }
+
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = chars[index] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber(field);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalidNumber(field);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw invalidNumber(field);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a field of the current record as a decimal floating point number.
+     * Numbers with up to 15 significant digits and a small exponent, which covers plain coordinates,
+     * are converted exactly without creating a String; anything else is handed to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param field the index of the field
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double getDouble(int field) {
+        checkField(field);
+        int index = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = false;
+        if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+            negative = chars[index] == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; index < end; index++) {
+            char c = chars[index];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    // Leading zeros do not count towards the significant digits.
+                    if (seenPoint) {
+                        scale++;
+                    }
+                    continue;
+                }
+                if (++digits > MAX_EXACT_DIGITS) {
+                    return Double.parseDouble(getString(field));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                // Exponents, special values and malformed input take the slow path.
+                return Double.parseDouble(getString(field));
+            }
+        }
+        if (!seenDigit) {
+            throw invalidNumber(field);
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(getString(field));
+        }
+
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if there is an error closing the stream
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next character, refilling the buffer from the stream when it runs out.
+     *
+     * @return the character, or -1 at the end of the stream
+     * @throws IOException if there is an error reading the stream
+     */
+    private int read() throws IOException {
+        if (pendingChar != NO_CHAR) {
+            int c = pendingChar;
+            pendingChar = NO_CHAR;
+            return c;
+        }
+        if (position == limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            while (read == 0) {
+                read = reader.read(buffer, 0, buffer.length);
+            }
+            if (read < 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Appends a character to the current record, growing the record buffer if needed.
+     *
+     * @param c the character to append
+     */
+    private void append(char c) {
+        if (length == chars.length) {
+            char[] grown = new char[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+        chars[length++] = c;
+    }
+
+    /**
+     * Adds a field to the current record, growing the field arrays if needed.
+     *
+     * @param start the index of the first character of the field
+     * @param end   the index after the last character of the field
+     */
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            int[] grownStarts = new int[fieldStarts.length * 2];
+            int[] grownEnds = new int[fieldEnds.length * 2];
+            System.arraycopy(fieldStarts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, grownEnds, 0, fieldCount);
+            fieldStarts = grownStarts;
+            fieldEnds = grownEnds;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Checks that a field exists in the current record.
+     *
+     * @param field the index of the field
+     */
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " of a record with " + fieldCount + " fields");
+        }
+    }
+
+    /**
+     * Creates the exception for a field that is not a valid number.
+     *
+     * @param field the index of the field
+     * @return the exception to throw
+     */
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("For input string: \"" + getString(field) + "\"");
+    }
+}
@@ -0,0 +1,311 @@
+package ca.ucalgary.edu.ensf380.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The HttpFetcher class is the one HTTP layer the application fetches the weather and the news through.
+ * <p>
+ * All requests share one {@link HttpClient}, so connections are kept alive and reused, and HTTP/2 is used
+ * where the server offers it. Every request has a connect and a request timeout, and asks for a gzip
+ * compressed body. The body is not read here: a response hands it out as a stream, decompressed as it is
+ * read, so the caller can parse it as it arrives and stop early.
+ * <p>
+ * A caller that keeps what it read from a resource can fetch it with {@link #getIfModified(String, String)}.
+ * Only the validators of the last response are kept, never its body, under a key the caller chooses, so a
+ * URL with a changing parameter can still be revalidated. The validators are kept once the caller
+ * {@linkplain Response#confirm() confirms} it read the body, and the next request for the key sends them as
+ * If-None-Match and If-Modified-Since. A body that was cut off or could not be parsed is never confirmed, so
+ * it is fetched in full again. When the server answers 304 Not Modified, the response has no body and the
+ * caller keeps what it has.
+ * <p>
+ * Code that fetches through an HttpFetcher takes it as a constructor or method argument, so tests can point
+ * it at a local stub server instead of the real services.
+ */
+public class HttpFetcher {
+
+    /**
+     * Default time to wait for a connection to be established.
+     */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Default time to wait for a response once the request is sent.
+     */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(20);
+
+    private static final int MAX_CACHED_RESPONSES = 32;
+
+    private static HttpFetcher instance;
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Map<String, Validators> cachedValidators = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Validators> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
+        }
+    };
+
+    /**
+     * Constructs an HttpFetcher with an HTTP/2 client that follows redirects and uses the default timeouts.
+     * Most code uses the shared instance from {@link #getInstance()}.
+     */
+    public HttpFetcher() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+                .build(), DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Constructs an HttpFetcher on a given client.
+     *
+     * @param client         The client to send the requests with.
+     * @param requestTimeout The time to wait for a response once a request is sent.
+     */
+    public HttpFetcher(HttpClient client, Duration requestTimeout) {
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Gets the fetcher shared by the whole application, creating it on first use.
+     *
+     * @return The shared fetcher.
+     */
+    public static synchronized HttpFetcher getInstance() {
+        if (instance == null) {
+            instance = new HttpFetcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Fetches a URL.
+     *
+     * @param url The URL to fetch.
+     * @return The response. The caller must close it.
+     * @throws IOException If the request fails or times out.
+     */
+    public Response get(String url) throws IOException {
+        return send(url, null);
+    }
+
+    /**
+     * Fetches a URL, unless the resource has not changed since the last confirmed response of the same key.
+     * The caller must keep what it read from that response, since a response that was not modified has no body,
+     * and must {@linkplain Response#confirm() confirm} a body it read successfully.
+     *
+     * @param url The URL to fetch.
+     * @param key The key the validators are kept under, usually the URL without the parameters that change
+     *            between requests.
+     * @return The response. The caller must close it.
+     * @throws IOException If the request fails or times out.
+     */
+    public Response getIfModified(String url, String key) throws IOException {
+        return send(url, key);
+    }
+
+    /**
+     * Sends a request for a URL.
+     *
+     * @param url The URL to fetch.
+     * @param key The key of the validators to send and to keep on confirmation, or null for neither.
+     * @return The response.
+     * @throws IOException If the request fails or times out.
+     */
+    private Response send(String url, String key) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        Validators validators = null;
+        if (key != null) {
+            synchronized (cachedValidators) {
+                validators = cachedValidators.get(key);
+            }
+        }
+        if (validators != null) {
+            if (validators.etag() != null) {
+                builder.header("If-None-Match", validators.etag());
+            }
+            if (validators.lastModified() != null) {
+                builder.header("If-Modified-Since", validators.lastModified());
+            }
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        }
+
+        if (response.statusCode() == 304) {
+            response.body().close();
+            return new Response(304, InputStream.nullInputStream(), true, this, null, null);
+        }
+
+        Validators received = null;
+        if (key != null && response.statusCode() == 200) {
+            received = new Validators(response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+        }
+        return new Response(response.statusCode(), decode(response), false, this, key, received);
+    }
+
+    /**
+     * Keeps the validators of a confirmed response, or forgets the key if the response had none.
+     *
+     * @param key        The key to keep them under.
+     * @param validators The validators of the response.
+     */
+    private void keepValidators(String key, Validators validators) {
+        synchronized (cachedValidators) {
+            if (validators.etag() != null || validators.lastModified() != null) {
+                cachedValidators.put(key, validators);
+            } else {
+                cachedValidators.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Wraps the body of a response in a decompressing stream if the server compressed it.
+     *
+     * @param response The response.
+     * @return The stream of the decompressed body.
+     * @throws IOException If the compressed body does not start with a gzip header.
+     */
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (!encoding.equalsIgnoreCase("gzip")) {
+            return response.body();
+        }
+        PushbackInputStream in = new PushbackInputStream(response.body());
+        try {
+            int first = in.read();
+            if (first == -1) {
+                return in;
+            }
+            in.unread(first);
+            return new GZIPInputStream(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The response to a request.
+     */
+    public static final class Response implements Closeable {
+        private final int statusCode;
+        private final InputStream body;
+        private final boolean notModified;
+        private final HttpFetcher httpFetcher;
+        private final String key;
+        private final Validators validators;
+
+        /**
+         * Constructs a Response.
+         *
+         * @param statusCode  The HTTP status code.
+         * @param body        The decompressed body.
+         * @param notModified true if the server answered 304 Not Modified.
+         * @param httpFetcher The fetcher that sent the request.
+         * @param key         The key to keep the validators under on confirmation, or null.
+         * @param validators  The validators to keep on confirmation, or null.
+         */
+        private Response(int statusCode, InputStream body, boolean notModified, HttpFetcher httpFetcher,
+                         String key, Validators validators) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.notModified = notModified;
+            this.httpFetcher = httpFetcher;
+            this.key = key;
+            this.validators = validators;
+        }
+
+        /**
+         * Gets the HTTP status code.
+         *
+         * @return The status code.
+         */
+        public int statusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Gets the decompressed body, read as it arrives. It can be read only once.
+         *
+         * @return The body.
+         */
+        public InputStream body() {
+            return body;
+        }
+
+        /**
+         * Checks whether the server answered 304 Not Modified. The body is then empty.
+         *
+         * @return true if the resource has not changed.
+         */
+        public boolean notModified() {
+            return notModified;
+        }
+
+        /**
+         * Reads the rest of the body as UTF-8 text.
+         *
+         * @return The body.
+         * @throws IOException If the body cannot be read.
+         */
+        public String bodyAsString() throws IOException {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Confirms that the body was read and used, so the next {@link #getIfModified(String, String)} of the
+         * same key sends the validators of this response. Does nothing for a response that was not revalidated.
+         */
+        public void confirm() {
+            if (validators != null) {
+                httpFetcher.keepValidators(key, validators);
+            }
+        }
+
+        /**
+         * Closes the body, giving up what is left of it.
+         *
+         * @throws IOException If the body cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+
+    /**
+     * The validators of the last confirmed response of a key.
+     *
+     * @param etag         The entity tag, or null if the server sent none.
+     * @param lastModified The last modification date, or null if the server sent none.
+     */
+    private record Validators(String etag, String lastModified) {
+    }
+}
@@ -1,17 +1,56 @@
 package ca.ucalgary.edu.ensf380.helper;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
-import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
 
 /**
  * The ImageLoader class is responsible for loading and resizing images.
+ * <p>
+ * Decoding a large image and scaling it smoothly is expensive, and the same advertisements come back every
+ * rotation, so every scaled image is kept in a cache. An image is looked up by its path, its size and the
+ * time its file was last changed, so a replaced file is loaded again. The cache holds at most a fixed number
+ * of bytes of pixels; when it is full, the images used least recently are dropped first.
  */
 public class ImageLoader {
 
     /**
-     * Constructs an ImageLoader.
+     * Default most bytes of pixels the cache holds, about 30 advertisements at 600 by 440.
      */
-    public ImageLoader() {}
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(ImageLoader.class.getName());
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, CachedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an ImageLoader with a cache of the default size.
+     */
+    public ImageLoader() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructs an ImageLoader with a cache of a given size.
+     *
+     * @param maxBytes the most bytes of pixels the cache holds
+     */
+    public ImageLoader(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
 
     /**
      * Loads an image from the specified path and resizes it to the given width and height.
@@ -19,11 +58,135 @@ public class ImageLoader {
      * @param path   the path to the image file
      * @param width  the desired width of the image
      * @param height the desired height of the image
-     * @return a resized ImageIcon
+     * @return a resized ImageIcon, or an empty ImageIcon if the file cannot be read
      */
     public ImageIcon loadImage(String path, int width, int height) {
-        ImageIcon icon = new ImageIcon(path);
-        Image img = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(img);
+        Path file = Paths.get(path);
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            LOGGER.warning("Cannot read image " + path + ": " + e);
+            return new ImageIcon();
+        }
+
+        Key key = new Key(file.toAbsolutePath().normalize().toString(), width, height, modified);
+        synchronized (this) {
+            CachedImage cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.icon();
+            }
+            misses++;
+        }
+
+        BufferedImage scaled = decodeAndScale(file, width, height);
+        if (scaled == null) {
+            return new ImageIcon();
+        }
+        ImageIcon icon = new ImageIcon(scaled);
+        store(key, new CachedImage(icon, (long) scaled.getWidth() * scaled.getHeight() * 4));
+        return icon;
+    }
+
+    /**
+     * Decodes an image file and scales it to the given size with the {@link ImageScaler}.
+     *
+     * @param file   the image file
+     * @param width  the desired width of the image
+     * @param height the desired height of the image
+     * @return the scaled image, or null if the file cannot be decoded
+     */
+    private static BufferedImage decodeAndScale(Path file, int width, int height) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(file.toFile());
+        } catch (IOException e) {
+            LOGGER.warning("Cannot decode image " + file + ": " + e);
+            return null;
+        }
+        if (source == null) {
+            LOGGER.warning("Unsupported image format: " + file);
+            return null;
+        }
+        return ImageScaler.scale(source, width, height);
+    }
+
+    /**
+     * Adds an image to the cache and drops the least recently used images until the cache fits.
+     * An image larger than the whole cache is not kept.
+     *
+     * @param key   the key of the image
+     * @param image the image
+     */
+    private synchronized void store(Key key, CachedImage image) {
+        if (image.bytes() > maxBytes) {
+            return;
+        }
+        CachedImage previous = cache.put(key, image);
+        cachedBytes += image.bytes() - (previous == null ? 0 : previous.bytes());
+
+        Iterator<Map.Entry<Key, CachedImage>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, CachedImage> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            cachedBytes -= entry.getValue().bytes();
+            eldest.remove();
+            evictions++;
+            LOGGER.fine("Evicted image " + entry.getKey().path() + " from the cache");
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache.
+     *
+     * @return a snapshot of the statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, cache.size(), cachedBytes);
+    }
+
+    /**
+     * The statistics of the image cache.
+     *
+     * @param hits        the number of loads served from the cache
+     * @param misses      the number of loads that decoded the file
+     * @param evictions   the number of images dropped to make room
+     * @param entries     the number of images in the cache
+     * @param cachedBytes the bytes of pixels in the cache
+     */
+    public record CacheStats(long hits, long misses, long evictions, int entries, long cachedBytes) {
+
+        /**
+         * Gets the share of loads served from the cache.
+         *
+         * @return the hit rate between 0 and 1, or 0 before the first load
+         */
+        public double hitRate() {
+            long loads = hits + misses;
+            return loads == 0 ? 0 : (double) hits / loads;
+        }
+    }
+
+    /**
+     * The key of a scaled image.
+     *
+     * @param path     the absolute path of the image file
+     * @param width    the width the image is scaled to
+     * @param height   the height the image is scaled to
+     * @param modified the time in milliseconds the file was last changed
+     */
+    private record Key(String path, int width, int height, long modified) {
+    }
+
+    /**
+     * A scaled image in the cache.
+     *
+     * @param icon  the icon holding the image
+     * @param bytes the bytes of pixels of the image
+     */
+    private record CachedImage(ImageIcon icon, long bytes) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,398 @@
+package ca.ucalgary.edu.ensf380.helper;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ImageScaler class scales images with good quality, much faster than {@code Image.getScaledInstance}.
+ * <p>
+ * An image is shrunk in steps: while it is at least twice the target size along an axis, it is halved along
+ * that axis by averaging pairs of pixels, and a final bilinear pass brings it to the exact size. Each step
+ * then reads every source pixel, which keeps the result as smooth as an area average, while the work shrinks
+ * by half or more at every step. Pixels are worked on as premultiplied ARGB in plain {@code int} arrays, so
+ * transparent pixels do not bleed their colour into their neighbours.
+ * <p>
+ * Large images are split into bands of rows that are scaled in parallel on the common fork/join pool.
+ * Small images are scaled on the calling thread.
+ */
+public final class ImageScaler {
+
+    /**
+     * The fewest pixels a band of rows is given, so that small images are not split for nothing.
+     */
+    private static final int MIN_PIXELS_PER_BAND = 32 * 1024;
+
+    private ImageScaler() {
+    }
+
+    /**
+     * Scales an image to a new image of the given size.
+     *
+     * @param source the image to scale
+     * @param width  the width of the scaled image
+     * @param height the height of the scaled image
+     * @return a new image, of type ARGB if the source has transparency and RGB otherwise
+     */
+    public static BufferedImage scale(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return scale(source, new BufferedImage(width, height, type));
+    }
+
+    /**
+     * Scales an image into a destination image, filling the whole destination. A destination without
+     * transparency gets transparent source pixels over black.
+     *
+     * @param source      the image to scale
+     * @param destination the image to write the scaled pixels to
+     * @return the destination
+     */
+    public static BufferedImage scale(BufferedImage source, BufferedImage destination) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int[] pixels = read(source);
+
+        int targetWidth = destination.getWidth();
+        int targetHeight = destination.getHeight();
+        while (width >= 2 * targetWidth || height >= 2 * targetHeight) {
+            boolean halveX = width >= 2 * targetWidth;
+            boolean halveY = height >= 2 * targetHeight;
+            int newWidth = halveX ? width / 2 : width;
+            int newHeight = halveY ? height / 2 : height;
+            pixels = halve(pixels, width, newWidth, newHeight, halveX, halveY);
+            width = newWidth;
+            height = newHeight;
+        }
+        if (width != targetWidth || height != targetHeight) {
+            pixels = bilinear(pixels, width, height, targetWidth, targetHeight);
+        }
+
+        write(pixels, destination);
+        return destination;
+    }
+
+    /**
+     * Reads the pixels of an image as premultiplied ARGB. The pixel layouts that ImageIO decodes to and that
+     * images are usually created with are copied straight from the raster, and others are converted by
+     * {@link BufferedImage#getRGB}.
+     *
+     * @param source the image
+     * @return the pixels, row by row
+     */
+    private static int[] read(BufferedImage source) {
+        int width = source.getWidth();
+        int[] pixels = new int[width * source.getHeight()];
+        WritableRaster raster = source.getRaster();
+        int type = source.getType();
+        forEachBand(source.getHeight(), width, (from, to) -> {
+            int rows = to - from;
+            int offset = from * width;
+            switch (type) {
+                case BufferedImage.TYPE_INT_RGB -> {
+                    int[] band = (int[]) raster.getDataElements(0, from, width, rows, null);
+                    for (int i = 0; i < band.length; i++) {
+                        pixels[offset + i] = band[i] | 0xFF000000;
+                    }
+                }
+                case BufferedImage.TYPE_INT_ARGB -> {
+                    int[] band = (int[]) raster.getDataElements(0, from, width, rows, null);
+                    for (int i = 0; i < band.length; i++) {
+                        pixels[offset + i] = premultiply(band[i]);
+                    }
+                }
+                case BufferedImage.TYPE_INT_ARGB_PRE -> {
+                    int[] band = (int[]) raster.getDataElements(0, from, width, rows, null);
+                    System.arraycopy(band, 0, pixels, offset, band.length);
+                }
+                case BufferedImage.TYPE_3BYTE_BGR -> {
+                    byte[] band = (byte[]) raster.getDataElements(0, from, width, rows, null);
+                    for (int i = 0, j = 0; j < band.length; i++, j += 3) {
+                        pixels[offset + i] = 0xFF000000 | (band[j] & 0xFF) << 16 | (band[j + 1] & 0xFF) << 8
+                                | (band[j + 2] & 0xFF);
+                    }
+                }
+                default -> {
+                    source.getRGB(0, from, width, rows, pixels, offset, width);
+                    if (source.getColorModel().hasAlpha()) {
+                        for (int i = offset; i < offset + rows * width; i++) {
+                            pixels[i] = premultiply(pixels[i]);
+                        }
+                    }
+                }
+            }
+        });
+        return pixels;
+    }
+
+    /**
+     * Writes premultiplied ARGB pixels to an image of the same size. Images with int pixels get them copied
+     * straight into the raster, and others are converted by {@link BufferedImage#setRGB}.
+     *
+     * @param pixels      the pixels, row by row
+     * @param destination the image
+     */
+    private static void write(int[] pixels, BufferedImage destination) {
+        int width = destination.getWidth();
+        WritableRaster raster = destination.getRaster();
+        int type = destination.getType();
+        boolean alpha = destination.getColorModel().hasAlpha();
+        forEachBand(destination.getHeight(), width, (from, to) -> {
+            int rows = to - from;
+            int offset = from * width;
+            int[] band = new int[rows * width];
+            if (type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB) {
+                System.arraycopy(pixels, offset, band, 0, band.length);
+                raster.setDataElements(0, from, width, rows, band);
+                return;
+            }
+            for (int i = 0; i < band.length; i++) {
+                int pixel = pixels[offset + i];
+                band[i] = alpha ? unpremultiply(pixel) : pixel | 0xFF000000;
+            }
+            if (type == BufferedImage.TYPE_INT_ARGB) {
+                raster.setDataElements(0, from, width, rows, band);
+            } else {
+                destination.setRGB(0, from, width, rows, band, 0, width);
+            }
+        });
+    }
+
+    /**
+     * Halves an image along one or both axes by averaging each pair or square of pixels.
+     * An odd last column or row is dropped.
+     *
+     * @param pixels    the pixels of the image, row by row
+     * @param width     the width of the image
+     * @param newWidth  the width of the halved image
+     * @param newHeight the height of the halved image
+     * @param halveX    whether to halve the width
+     * @param halveY    whether to halve the height
+     * @return the pixels of the halved image
+     */
+    private static int[] halve(int[] pixels, int width, int newWidth, int newHeight, boolean halveX,
+                               boolean halveY) {
+        int[] halved = new int[newWidth * newHeight];
+        int step = halveX ? 1 : width;
+        forEachBand(newHeight, newWidth, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int sourceRow = (halveY ? 2 * y : y) * width;
+                int offset = y * newWidth;
+                for (int x = 0; x < newWidth; x++) {
+                    int i = sourceRow + (halveX ? 2 * x : x);
+                    halved[offset + x] = halveX && halveY
+                            ? average(pixels[i], pixels[i + 1], pixels[i + width], pixels[i + width + 1], 2)
+                            : average(pixels[i], pixels[i + step], 0, 0, 1);
+                }
+            }
+        });
+        return halved;
+    }
+
+    /**
+     * Averages up to four premultiplied ARGB pixels channel by channel, with rounding.
+     *
+     * @param a     the first pixel
+     * @param b     the second pixel
+     * @param c     the third pixel, or 0 when averaging two
+     * @param d     the fourth pixel, or 0 when averaging two
+     * @param shift 1 to average two pixels, 2 to average four
+     * @return the average pixel
+     */
+    private static int average(int a, int b, int c, int d, int shift) {
+        int round = 1 << (shift - 1);
+        int result = 0;
+        for (int channel = 0; channel < 32; channel += 8) {
+            int sum = ((a >>> channel) & 0xFF) + ((b >>> channel) & 0xFF) + ((c >>> channel) & 0xFF)
+                    + ((d >>> channel) & 0xFF);
+            result |= ((sum + round) >> shift) << channel;
+        }
+        return result;
+    }
+
+    /**
+     * Resamples an image to a new size by bilinear interpolation between the centres of pixels.
+     *
+     * @param pixels       the pixels of the image, row by row
+     * @param width        the width of the image
+     * @param height       the height of the image
+     * @param targetWidth  the width of the resampled image
+     * @param targetHeight the height of the resampled image
+     * @return the pixels of the resampled image
+     */
+    private static int[] bilinear(int[] pixels, int width, int height, int targetWidth, int targetHeight) {
+        int[] left = new int[targetWidth];
+        int[] right = new int[targetWidth];
+        int[] weightX = new int[targetWidth];
+        samplePositions(width, targetWidth, left, right, weightX);
+        int[] top = new int[targetHeight];
+        int[] bottom = new int[targetHeight];
+        int[] weightY = new int[targetHeight];
+        samplePositions(height, targetHeight, top, bottom, weightY);
+
+        int[] resampled = new int[targetWidth * targetHeight];
+        forEachBand(targetHeight, targetWidth, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int topRow = top[y] * width;
+                int bottomRow = bottom[y] * width;
+                int wy = weightY[y];
+                int offset = y * targetWidth;
+                for (int x = 0; x < targetWidth; x++) {
+                    resampled[offset + x] = interpolate(pixels[topRow + left[x]], pixels[topRow + right[x]],
+                            pixels[bottomRow + left[x]], pixels[bottomRow + right[x]], weightX[x], wy);
+                }
+            }
+        });
+        return resampled;
+    }
+
+    /**
+     * Finds, for every pixel along an axis of the resampled image, the two source pixels around its centre
+     * and the weight of the second one.
+     *
+     * @param size       the size of the source along the axis
+     * @param targetSize the size of the resampled image along the axis
+     * @param first      receives the index of the first source pixel
+     * @param second     receives the index of the second source pixel
+     * @param weight     receives the weight of the second source pixel, from 0 to 256
+     */
+    private static void samplePositions(int size, int targetSize, int[] first, int[] second, int[] weight) {
+        double scale = (double) size / targetSize;
+        for (int i = 0; i < targetSize; i++) {
+            double position = Math.max(0, Math.min(size - 1, (i + 0.5) * scale - 0.5));
+            int index = (int) position;
+            first[i] = index;
+            second[i] = Math.min(index + 1, size - 1);
+            weight[i] = (int) Math.round((position - index) * 256);
+        }
+    }
+
+    /**
+     * Interpolates between four premultiplied ARGB pixels channel by channel.
+     *
+     * @param topLeft     the top left pixel
+     * @param topRight    the top right pixel
+     * @param bottomLeft  the bottom left pixel
+     * @param bottomRight the bottom right pixel
+     * @param weightX     the weight of the right pixels, from 0 to 256
+     * @param weightY     the weight of the bottom pixels, from 0 to 256
+     * @return the interpolated pixel
+     */
+    private static int interpolate(int topLeft, int topRight, int bottomLeft, int bottomRight, int weightX,
+                                   int weightY) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int top = ((topLeft >>> shift) & 0xFF) * (256 - weightX) + ((topRight >>> shift) & 0xFF) * weightX;
+            int bottom = ((bottomLeft >>> shift) & 0xFF) * (256 - weightX)
+                    + ((bottomRight >>> shift) & 0xFF) * weightX;
+            int channel = (top * (256 - weightY) + bottom * weightY + (1 << 15)) >>> 16;
+            result |= channel << shift;
+        }
+        return result;
+    }
+
+    /**
+     * Converts an ARGB pixel to premultiplied ARGB.
+     *
+     * @param pixel the pixel
+     * @return the premultiplied pixel
+     */
+    private static int premultiply(int pixel) {
+        int alpha = pixel >>> 24;
+        if (alpha == 0xFF) {
+            return pixel;
+        }
+        if (alpha == 0) {
+            return 0;
+        }
+        int red = (((pixel >> 16) & 0xFF) * alpha + 127) / 255;
+        int green = (((pixel >> 8) & 0xFF) * alpha + 127) / 255;
+        int blue = ((pixel & 0xFF) * alpha + 127) / 255;
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Converts a premultiplied ARGB pixel to ARGB.
+     *
+     * @param pixel the premultiplied pixel
+     * @return the pixel
+     */
+    private static int unpremultiply(int pixel) {
+        int alpha = pixel >>> 24;
+        if (alpha == 0xFF) {
+            return pixel;
+        }
+        if (alpha == 0) {
+            return 0;
+        }
+        int red = Math.min(255, (((pixel >> 16) & 0xFF) * 255 + alpha / 2) / alpha);
+        int green = Math.min(255, (((pixel >> 8) & 0xFF) * 255 + alpha / 2) / alpha);
+        int blue = Math.min(255, ((pixel & 0xFF) * 255 + alpha / 2) / alpha);
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Runs a task over the rows of an image, in parallel bands if the image is large enough.
+     *
+     * @param height the number of rows
+     * @param width  the number of pixels in a row
+     * @param task   the task to run on each band
+     */
+    private static void forEachBand(int height, int width, BandTask task) {
+        int bandRows = Math.max(1, MIN_PIXELS_PER_BAND / Math.max(1, width));
+        if (height <= bandRows) {
+            task.run(0, height);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Bands(task, 0, height, bandRows));
+        }
+    }
+
+    /**
+     * The ImageScaler.BandTask interface defines the work done on one band of rows.
+     */
+    @FunctionalInterface
+    private interface BandTask {
+        /**
+         * Works on a band of rows.
+         *
+         * @param from the first row of the band
+         * @param to   the row after the last row of the band
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Splits a range of rows in half until each part is at most one band, and runs the task on the parts.
+     */
+    private static final class Bands extends RecursiveAction {
+        private final BandTask task;
+        private final int from;
+        private final int to;
+        private final int bandRows;
+
+        /**
+         * Constructs the work over a range of rows.
+         *
+         * @param task     the task to run on each band
+         * @param from     the first row of the range
+         * @param to       the row after the last row of the range
+         * @param bandRows the most rows in a band
+         */
+        Bands(BandTask task, int from, int to, int bandRows) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= bandRows) {
+                task.run(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Bands(task, from, middle, bandRows), new Bands(task, middle, to, bandRows));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ca.ucalgary.edu.ensf380.helper;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The RetryBackoff class computes how long to wait before retrying a failed task.
+ * <p>
+ * The delay doubles with every consecutive failure up to a maximum. Half of it is fixed and the
+ * other half is random, so tasks that failed at the same time do not all retry at the same time.
+ * The caller schedules the retry itself, so no thread sleeps while it waits.
+ */
+public class RetryBackoff {
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * Constructs a RetryBackoff.
+     *
+     * @param initialDelayMillis The delay after the first failure, in milliseconds.
+     * @param maxDelayMillis     The longest delay, in milliseconds.
+     */
+    public RetryBackoff(long initialDelayMillis, long maxDelayMillis) {
+        if (initialDelayMillis < 1 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid backoff: " + initialDelayMillis + " to " + maxDelayMillis + " ms");
+        }
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Gets the delay before the next attempt.
+     *
+     * @param failures The number of consecutive failures so far, starting at 1.
+     * @return A delay between half of and the full backed off delay, in milliseconds.
+     */
+    public long delayMillis(int failures) {
+        int doublings = Math.min(Math.max(failures, 1) - 1, 62);
+        long delay = initialDelayMillis;
+        for (int i = 0; i < doublings && delay < maxDelayMillis; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxDelayMillis);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+}
@@ -0,0 +1,15 @@
+package ca.ucalgary.edu.ensf380.models;
+
+import java.sql.Timestamp;
+
+/**
+ * The AdvertisementChange class represents the current state of an advertisement row
+ * that changed since a given time.
+ *
+ * @param id The id of the row.
+ * @param advertisement The advertisement as it is now.
+ * @param deleted Whether the advertisement has been removed.
+ * @param updatedAt The time the row was last changed.
+ */
+public record AdvertisementChange(long id, Advertisement advertisement, boolean deleted, Timestamp updatedAt) {
+}
@@ -0,0 +1,23 @@
+package ca.ucalgary.edu.ensf380.models;
+
+import javax.swing.Icon;
+
+/**
+ * The AdvertisementSlotCallback interface defines callback methods for showing
+ * the slots of an advertisement rotation.
+ */
+public interface AdvertisementSlotCallback {
+    /**
+     * Called on a background thread when an advertisement slot begins.
+     *
+     * @param advertisement The advertisement to show.
+     * @param image         The image of the advertisement, already decoded and scaled.
+     */
+    void onAdvertisementSlot(Advertisement advertisement, Icon image);
+
+    /**
+     * Called on a background thread when a map slot begins, or when an advertisement slot
+     * has nothing ready to show.
+     */
+    void onMapSlot();
+}
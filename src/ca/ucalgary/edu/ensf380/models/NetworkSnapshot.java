@@ -0,0 +1,80 @@
+package ca.ucalgary.edu.ensf380.models;
+
+/**
+ * Represents the state of every train in the network at one simulator tick.
+ * <p>
+ * A snapshot is immutable and numbered with an epoch that grows by one with every tick, so consumers
+ * that are handed the same snapshot always show the same tick, and a consumer can tell whether a
+ * snapshot is newer than the one it last showed.
+ */
+public final class NetworkSnapshot {
+
+    /**
+     * The snapshot before the first tick, with epoch 0 and no trains.
+     */
+    public static final NetworkSnapshot EMPTY = new NetworkSnapshot(0, 0, new TrainStatus[0]);
+
+    private final long epoch;
+    private final long timestamp;
+    private final TrainStatus[] trains;
+
+    /**
+     * Constructs a new NetworkSnapshot. The array of trains is copied.
+     *
+     * @param epoch     The number of the tick.
+     * @param timestamp The time the tick was published, in milliseconds since the epoch.
+     * @param trains    The trains in the tick, ordered by train ID.
+     */
+    public NetworkSnapshot(long epoch, long timestamp, TrainStatus[] trains) {
+        this.epoch = epoch;
+        this.timestamp = timestamp;
+        this.trains = trains.clone();
+    }
+
+    /**
+     * Gets the number of the tick.
+     *
+     * @return The epoch of the snapshot.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the time the tick was published.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the number of trains in the tick.
+     *
+     * @return The number of trains.
+     */
+    public int getTrainCount() {
+        return trains.length;
+    }
+
+    /**
+     * Gets a train by its index in the tick.
+     *
+     * @param index The index of the train.
+     * @return The train, or null if the tick has no train at that index.
+     */
+    public TrainStatus getTrain(int index) {
+        return index >= 0 && index < trains.length ? trains[index] : null;
+    }
+
+    /**
+     * Checks whether the snapshot is newer than another.
+     *
+     * @param other The other snapshot.
+     * @return true if this snapshot has a higher epoch.
+     */
+    public boolean isNewerThan(NetworkSnapshot other) {
+        return epoch > other.epoch;
+    }
+}
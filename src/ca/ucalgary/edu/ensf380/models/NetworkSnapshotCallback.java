@@ -0,0 +1,14 @@
+package ca.ucalgary.edu.ensf380.models;
+
+/**
+ * The NetworkSnapshotCallback interface defines a callback method for showing
+ * the newest published {@link NetworkSnapshot}.
+ */
+public interface NetworkSnapshotCallback {
+    /**
+     * Called on the event dispatch thread with the newest snapshot.
+     *
+     * @param snapshot The newest snapshot.
+     */
+    void onNetworkSnapshot(NetworkSnapshot snapshot);
+}
@@ -1,7 +1,8 @@
 package ca.ucalgary.edu.ensf380.models;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.HashSet;
 
 /**
  * Represents information about a train station.
@@ -12,6 +13,7 @@ public class StationInfo {
     private final String stationIdentifier;
     private final String stationLabel;
     private final Coordinates location;
+    private final Set<String> commonStations;
 
     /**
      * Constructs a new StationInfo object.
@@ -24,11 +26,27 @@ public class StationInfo {
      */
     public StationInfo(int stationId, String lineCode, String stationIdentifier,
                        String stationLabel, Coordinates location) {
+        this(stationId, lineCode, stationIdentifier, stationLabel, location, Collections.emptySet());
+    }
+
+    /**
+     * Constructs a new StationInfo object with the codes of the stations it shares a platform with.
+     *
+     * @param stationId         The unique ID of the station.
+     * @param lineCode          The code of the line the station belongs to.
+     * @param stationIdentifier The unique identifier code for the station.
+     * @param stationLabel      The name or label of the station.
+     * @param location          The geographical coordinates of the station.
+     * @param commonStations    The identifier codes of the stations on other lines at the same location.
+     */
+    public StationInfo(int stationId, String lineCode, String stationIdentifier,
+                       String stationLabel, Coordinates location, Set<String> commonStations) {
         this.stationId = stationId;
         this.lineCode = lineCode;
         this.stationIdentifier = stationIdentifier;
         this.stationLabel = stationLabel;
         this.location = location;
+        this.commonStations = Collections.unmodifiableSet(new LinkedHashSet<>(commonStations));
     }
 
     /**
@@ -76,6 +94,15 @@ public class StationInfo {
         return location;
     }
 
+    /**
+     * Gets the identifier codes of the stations on other lines that share this station.
+     *
+     * @return An unmodifiable set of station identifier codes, empty if the station is not an interchange.
+     */
+    public Set<String> getCommonStations() {
+        return commonStations;
+    }
+
     /**
      * Returns a string representation of the station information.
      *
@@ -0,0 +1,14 @@
+package ca.ucalgary.edu.ensf380.models;
+
+/**
+ * The TrainFeedCallback interface defines a callback method for handling
+ * a new snapshot of train positions read from the train feed.
+ */
+public interface TrainFeedCallback {
+    /**
+     * Called when a complete snapshot of train positions has been read.
+     *
+     * @param trains The trains in the snapshot, ordered by train ID.
+     */
+    void onTrainSnapshot(TrainStatus[] trains);
+}
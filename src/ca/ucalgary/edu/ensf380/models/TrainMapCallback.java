@@ -0,0 +1,20 @@
+package ca.ucalgary.edu.ensf380.models;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * The TrainMapCallback interface defines a callback method for handling
+ * a newly rendered train map.
+ */
+public interface TrainMapCallback {
+    /**
+     * Called on the rendering thread when a new train map frame has been published.
+     * The frame must not be modified and is only valid until the frame after next is rendered.
+     *
+     * @param frame  The rendered train map.
+     * @param damage The region, in map pixels, that changed since the previous frame. Empty if nothing moved.
+     *               Like the frame, it must not be modified and is reused for the frame after next.
+     */
+    void onTrainMapRendered(BufferedImage frame, Rectangle damage);
+}
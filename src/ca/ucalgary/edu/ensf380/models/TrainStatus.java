@@ -1,8 +1,8 @@
 package ca.ucalgary.edu.ensf380.models;
 
-import ca.ucalgary.edu.ensf380.train.StationDataImporter;
+import ca.ucalgary.edu.ensf380.train.LineTopology;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
 
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -14,12 +14,16 @@ public class TrainStatus {
     private final String currentStationId;
     private final String movementDirection;
     private final String endStation;
+    private final StationRegistry stationRegistry;
+    private final int currentStationOrdinal;
+    private final int endStationOrdinal;
+    private final boolean forward;
     private final StationInfo currentStationInfo;
     private final Optional<StationInfo> nextStationInfo;
     private final Optional<StationInfo> previousStationInfo;
 
     /**
-     * Constructs a new TrainStatus object by importing station data and initializing the train's status.
+     * Constructs a new TrainStatus object, resolving stations through the shared {@link StationRegistry}.
      *
      * @param routeName         The name of the train route.
      * @param trainId           The unique ID of the train.
@@ -32,18 +36,38 @@ public class TrainStatus {
     public TrainStatus(String routeName, int trainId, String currentStationId,
                        String movementDirection, String endStation,
                        String nextStationId, String previousStationId) {
-        StationDataImporter importer = new StationDataImporter();
-        Map<String, StationInfo> stationData = importer.importStationData();
+        this(StationRegistry.getInstance(), routeName, trainId, currentStationId, movementDirection,
+                endStation, nextStationId, previousStationId);
+    }
 
+    /**
+     * Constructs a new TrainStatus object, resolving stations through the given {@link StationRegistry}.
+     *
+     * @param stationRegistry   The registry used to look up station information.
+     * @param routeName         The name of the train route.
+     * @param trainId           The unique ID of the train.
+     * @param currentStationId  The identifier of the current station.
+     * @param movementDirection The direction of the train's movement ("forward" or "backward").
+     * @param endStation        The identifier of the end station of the route.
+     * @param nextStationId     The identifier of the next station (can be empty if not available).
+     * @param previousStationId The identifier of the previous station (can be empty if not available).
+     */
+    public TrainStatus(StationRegistry stationRegistry, String routeName, int trainId, String currentStationId,
+                       String movementDirection, String endStation,
+                       String nextStationId, String previousStationId) {
+        this.stationRegistry = stationRegistry;
         this.routeName = routeName;
         this.trainId = trainId;
         this.currentStationId = currentStationId;
         this.movementDirection = movementDirection;
         this.endStation = endStation;
+        this.currentStationOrdinal = stationRegistry.getOrdinal(currentStationId);
+        this.endStationOrdinal = stationRegistry.getOrdinal(endStation);
+        this.forward = LineTopology.isForward(movementDirection);
 
-        this.currentStationInfo = stationData.get(currentStationId);
-        this.nextStationInfo = Optional.ofNullable(stationData.get(nextStationId));
-        this.previousStationInfo = Optional.ofNullable(stationData.get(previousStationId));
+        this.currentStationInfo = stationRegistry.getStation(currentStationId);
+        this.nextStationInfo = Optional.ofNullable(stationRegistry.getStation(nextStationId));
+        this.previousStationInfo = Optional.ofNullable(stationRegistry.getStation(previousStationId));
     }
 
     /**
@@ -138,44 +162,8 @@ public class TrainStatus {
             return nextStationInfo.map(StationInfo::getStationLabel).orElse("");
         }
 
-        String tempStationId = this.currentStationId;
-        for (int i = 0; i <= offset; i++) {
-            tempStationId = calculateNextStationId(tempStationId, this.movementDirection, this.endStation);
-        }
-
-        StationDataImporter importer = new StationDataImporter();
-        Map<String, StationInfo> stationData = importer.importStationData();
-
-        return Optional.ofNullable(stationData.get(tempStationId))
-                .map(StationInfo::getStationLabel)
-                .orElse("");
-    }
-
-    /**
-     * Calculates the ID of the next station based on the current station ID, direction, and destination.
-     *
-     * @param currentId    The ID of the current station.
-     * @param direction    The direction of movement ("forward" or "backward").
-     * @param destination  The ID of the destination station.
-     * @return The ID of the next station.
-     */
-    private String calculateNextStationId(String currentId, String direction, String destination) {
-        int currentNumber = Integer.parseInt(currentId.replaceAll("\\D", ""));
-        int destNumber = Integer.parseInt(destination.replaceAll("\\D", ""));
-        int nextNumber;
-
-        if ("forward".equals(direction)) {
-            nextNumber = currentNumber + 1;
-            if (nextNumber > destNumber) {
-                nextNumber = 999;  // Or another value to indicate end of line
-            }
-        } else {  // backward
-            nextNumber = currentNumber - 1;
-            if (nextNumber < destNumber) {
-                nextNumber = 999;  // Or another value to indicate end of line
-            }
-        }
-
-        return currentId.replaceAll("\\d+", String.format("%02d", nextNumber));
+        int ordinal = stationRegistry.getTopology()
+                .advance(currentStationOrdinal, forward, offset + 1, endStationOrdinal);
+        return ordinal == LineTopology.NO_STATION ? "" : stationRegistry.getStation(ordinal).getStationLabel();
     }
 }
@@ -5,11 +5,13 @@ import ca.ucalgary.edu.ensf380.models.Article;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * The ArticleDisplay class is responsible for displaying news articles
  * in a JPanel. It cycles through the articles every 10 seconds, displaying
- * each article's title and description.
+ * each article's title and description. The articles are read again on every
+ * rotation, so a refreshed {@link NewsFeed} shows up without a new display.
  */
 public class ArticleDisplay extends JPanel {
     /**
@@ -23,9 +25,9 @@ public class ArticleDisplay extends JPanel {
     private final JTextArea articleDescriptionArea;
 
     /**
-     * List of Articles fetched from the API.
+     * Supplies the current immutable list of articles.
      */
-    private final List<Article> articles;
+    private final Supplier<List<Article>> articles;
 
     /**
      * The index of currently displayed article.
@@ -33,11 +35,29 @@ public class ArticleDisplay extends JPanel {
     private int currentArticleIndex = 0;
 
     /**
-     * Constructs an ArticleDisplay panel with a list of articles.
+     * Constructs an ArticleDisplay panel with a fixed list of articles.
      *
-     * @param articles The list of articles to display.
+     * @param articles The list of articles to display, or null for none.
      */
     public ArticleDisplay(List<Article> articles) {
+        this(() -> articles);
+    }
+
+    /**
+     * Constructs an ArticleDisplay panel that rotates through the articles of a news feed.
+     *
+     * @param newsFeed The news feed to display.
+     */
+    public ArticleDisplay(NewsFeed newsFeed) {
+        this(newsFeed::getArticles);
+    }
+
+    /**
+     * Constructs an ArticleDisplay panel with a changing list of articles.
+     *
+     * @param articles Supplies the current list of articles to display.
+     */
+    private ArticleDisplay(Supplier<List<Article>> articles) {
         this.articles = articles;
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBackground(new Color(255, 250, 240));
@@ -73,12 +93,14 @@ public class ArticleDisplay extends JPanel {
      * Displays the next article from the list. Cycles through the list of articles.
      */
     private void displayNextArticle() {
-        if (articles.isEmpty()) return;
+        List<Article> current = articles.get();
+        if (current == null || current.isEmpty()) return;
 
-        Article article = articles.get(currentArticleIndex);
+        currentArticleIndex %= current.size();
+        Article article = current.get(currentArticleIndex);
         articleTitleLabel.setText(article.title());
         articleDescriptionArea.setText(article.description());
 
-        currentArticleIndex = (currentArticleIndex + 1) % articles.size();
+        currentArticleIndex = (currentArticleIndex + 1) % current.size();
     }
 }
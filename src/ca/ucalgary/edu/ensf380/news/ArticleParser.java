@@ -0,0 +1,348 @@
+package ca.ucalgary.edu.ensf380.news;
+
+import ca.ucalgary.edu.ensf380.models.Article;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ArticleParser class reads the articles out of a news API response as it streams in.
+ * <p>
+ * It is a pull parser: it walks the JSON text one character at a time, keeps only the title, description
+ * and content of each article, and skips every other value without building it. It stops reading as soon
+ * as it has the requested number of articles, so the memory it needs does not grow with the size of the
+ * response. Articles that lack one of the three fields are left out.
+ */
+public class ArticleParser {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /**
+     * Constructs an ArticleParser on a response.
+     *
+     * @param reader The reader of the response body.
+     */
+    private ArticleParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the articles from a news API response, in the order of the response.
+     *
+     * @param reader The reader of the response body. It is not closed.
+     * @param numberOfArticles The most articles to read.
+     * @return The articles.
+     * @throws IOException If the response cannot be read, is not valid JSON or has no articles array.
+     */
+    public static List<Article> parseArticles(Reader reader, int numberOfArticles) throws IOException {
+        List<Article> articles = new ArrayList<>();
+        if (numberOfArticles <= 0) {
+            return articles;
+        }
+        new ArticleParser(reader).readResponse(articles, numberOfArticles);
+        return articles;
+    }
+
+    /**
+     * Reads the top-level object up to the end of the articles array, or until enough articles are read.
+     *
+     * @param articles The list to add the articles to.
+     * @param numberOfArticles The most articles to read.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private void readResponse(List<Article> articles, int numberOfArticles) throws IOException {
+        expect('{');
+        if (peek() == '}') {
+            throw new IOException("No articles in response");
+        }
+        while (true) {
+            String key = readKey();
+            if (key.equals("articles")) {
+                readArticles(articles, numberOfArticles);
+                return;
+            }
+            skipValue();
+            int c = next();
+            if (c == '}') {
+                throw new IOException("No articles in response");
+            } else if (c != ',') {
+                throw syntaxError("',' or '}'");
+            }
+        }
+    }
+
+    /**
+     * Reads the articles array.
+     *
+     * @param articles The list to add the articles to.
+     * @param numberOfArticles The most articles to read.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private void readArticles(List<Article> articles, int numberOfArticles) throws IOException {
+        expect('[');
+        if (peek() == ']') {
+            return;
+        }
+        while (true) {
+            Article article = readArticle();
+            if (article != null) {
+                articles.add(article);
+                if (articles.size() >= numberOfArticles) {
+                    return;
+                }
+            }
+            int c = next();
+            if (c == ']') {
+                return;
+            } else if (c != ',') {
+                throw syntaxError("',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Reads one article object.
+     *
+     * @return The article, or null if it lacks the title, description or content.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private Article readArticle() throws IOException {
+        if (peek() != '{') {
+            skipValue();
+            return null;
+        }
+        expect('{');
+        String title = null;
+        String description = null;
+        String content = null;
+        if (peek() == '}') {
+            next();
+            return null;
+        }
+        int c;
+        do {
+            String key = readKey();
+            switch (key) {
+                case "title" -> title = readStringOrSkip();
+                case "description" -> description = readStringOrSkip();
+                case "content" -> content = readStringOrSkip();
+                default -> skipValue();
+            }
+        } while ((c = next()) == ',');
+        if (c != '}') {
+            throw syntaxError("',' or '}'");
+        }
+
+        if (title == null || description == null || content == null) {
+            return null;
+        }
+        return new Article(title, description, content);
+    }
+
+    /**
+     * Reads an object key and the colon after it.
+     *
+     * @return The key.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private String readKey() throws IOException {
+        if (peek() != '"') {
+            throw syntaxError("key");
+        }
+        String key = readString();
+        expect(':');
+        return key;
+    }
+
+    /**
+     * Reads a value if it is a string, and skips it otherwise.
+     *
+     * @return The string, or null if the value is not a string.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private String readStringOrSkip() throws IOException {
+        if (peek() == '"') {
+            return readString();
+        }
+        skipValue();
+        return null;
+    }
+
+    /**
+     * Reads a string value, resolving its escapes.
+     *
+     * @return The string.
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append((char) escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw syntaxError("hex digit");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    builder.append((char) code);
+                }
+                default -> throw syntaxError("escape");
+            }
+        }
+    }
+
+    /**
+     * Skips a value of any type without building it.
+     *
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private void skipValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = peekRaw();
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                read();
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            // A number, true, false or null runs up to the next separator.
+            while (true) {
+                c = peekRaw();
+                if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                    return;
+                }
+                read();
+            }
+        }
+    }
+
+    /**
+     * Skips a string value without building it.
+     *
+     * @throws IOException If the response cannot be read or is not valid.
+     */
+    private void skipString() throws IOException {
+        expect('"');
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                read();
+            }
+        }
+    }
+
+    /**
+     * Reads the next non-whitespace character, which must be a given one.
+     *
+     * @param expected The expected character.
+     * @throws IOException If the response cannot be read or has another character.
+     */
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw syntaxError("'" + expected + "'");
+        }
+    }
+
+    /**
+     * Reads the next non-whitespace character.
+     *
+     * @return The character.
+     * @throws IOException If the response cannot be read or ends.
+     */
+    private int next() throws IOException {
+        peek();
+        return read();
+    }
+
+    /**
+     * Skips whitespace and returns the next character without reading it.
+     *
+     * @return The character.
+     * @throws IOException If the response cannot be read or ends.
+     */
+    private int peek() throws IOException {
+        while (Character.isWhitespace(peekRaw())) {
+            position++;
+        }
+        return peekRaw();
+    }
+
+    /**
+     * Returns the next character without reading it.
+     *
+     * @return The character.
+     * @throws IOException If the response cannot be read or ends.
+     */
+    private int peekRaw() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new IOException("Unexpected end of response");
+            }
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @return The character.
+     * @throws IOException If the response cannot be read or ends.
+     */
+    private int read() throws IOException {
+        int c = peekRaw();
+        position++;
+        return c;
+    }
+
+    /**
+     * Creates the exception for an unexpected character.
+     *
+     * @param expected What was expected instead.
+     * @return The exception.
+     */
+    private IOException syntaxError(String expected) {
+        return new IOException("Invalid news response: expected " + expected);
+    }
+}
@@ -1,41 +1,61 @@
 package ca.ucalgary.edu.ensf380.news;
 
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.helper.HttpFetcher;
 import ca.ucalgary.edu.ensf380.models.Article;
 import ca.ucalgary.edu.ensf380.models.FetchNewsCallback;
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 import javax.swing.*;
-import java.io.BufferedReader;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Properties;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * The ArticleRequester class is responsible for fetching news articles from
- * an online API. It uses a background thread to perform the fetch operation
- * and a callback to notify when the fetch is complete.
+ * an online API. It fetches on a virtual thread of the {@link BackgroundRuntime}
+ * through an {@link HttpFetcher} and uses a callback to notify when the fetch is complete.
  */
 public class ArticleRequester {
+    /**
+     * The URL of the news API's search endpoint.
+     */
+    public static final String DEFAULT_BASE_URL = "https://newsapi.org/v2/everything";
+
+    /**
+     * The most articles the news API returns in one page.
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final Logger logger = Logger.getLogger(ArticleRequester.class.getName());
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final BackgroundRuntime backgroundRuntime = BackgroundRuntime.getInstance();
+    private final HttpFetcher httpFetcher;
+    private final String baseUrl;
     private String API_KEY = null; // API key for news API
 
     /**
-     * Private constructor to prevent instantiation of the class.
+     * Constructs an ArticleRequester that fetches from the news API through the shared {@link HttpFetcher}.
      */
-    public ArticleRequester() {}
+    public ArticleRequester() {
+        this(HttpFetcher.getInstance(), DEFAULT_BASE_URL);
+    }
+
+    /**
+     * Constructs an ArticleRequester that fetches from a given endpoint.
+     *
+     * @param httpFetcher The fetcher to send the requests with.
+     * @param baseUrl The URL of the search endpoint.
+     */
+    public ArticleRequester(HttpFetcher httpFetcher, String baseUrl) {
+        this.httpFetcher = httpFetcher;
+        this.baseUrl = baseUrl;
+    }
 
     /**
      * Returns the api key.
@@ -65,7 +85,7 @@ public class ArticleRequester {
      * @param callback The callback to call when the fetch is complete.
      */
     public void fetchNewsAsync(String query, String sortBy, int numberOfArticles, FetchNewsCallback callback) {
-        executorService.submit(() -> {
+        backgroundRuntime.submit(() -> {
             List<Article> articles = fetchNews(query, sortBy, numberOfArticles);
             SwingUtilities.invokeLater(() -> callback.onFetchNewsComplete(articles));
         });
@@ -80,26 +100,43 @@ public class ArticleRequester {
      * @return A list of fetched articles.
      */
     public List<Article> fetchNews(String query, String sortBy, int numberOfArticles) {
+        return fetchNews(query, sortBy, numberOfArticles, null);
+    }
+
+    /**
+     * Fetches news articles published since a given time synchronously. When a time is given, the caller is
+     * taken to keep the articles of its earlier fetches, so the request is revalidated against the last
+     * articles read for the same query, whatever time they were fetched from: if the server answers that
+     * nothing changed, no articles are returned.
+     *
+     * @param query The query string to search for articles.
+     * @param sortBy The sort order for the articles (relevancy, popularity, publishedAt).
+     * @param numberOfArticles The number of articles to fetch.
+     * @param from The oldest publication time to fetch, or null for no limit.
+     * @return A list of fetched articles, empty if nothing changed, or null if the fetch failed.
+     */
+    public List<Article> fetchNews(String query, String sortBy, int numberOfArticles, Instant from) {
         if (API_KEY == null) {
             API_KEY = getApiKey();
         }
 
-        String apiUrl = "https://newsapi.org/v2/everything?q=" + query + "&sortBy=" + sortBy + "&apiKey=" + API_KEY;
-
-        try {
-            URL url = new URI(apiUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            int statusCode = conn.getResponseCode();
-
-            if (statusCode == 200) {
-                return getArticles(conn, numberOfArticles);
+        String queryUrl = baseUrl + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)
+                + "&sortBy=" + sortBy + "&pageSize=" + Math.max(1, Math.min(numberOfArticles, MAX_PAGE_SIZE));
+        String apiUrl = queryUrl + (from == null ? "" : "&from=" + from.truncatedTo(ChronoUnit.SECONDS))
+                + "&apiKey=" + API_KEY;
+
+        try (HttpFetcher.Response response = from == null ? httpFetcher.get(apiUrl)
+                : httpFetcher.getIfModified(apiUrl, queryUrl)) {
+            if (response.notModified()) {
+                return List.of();
+            } else if (response.statusCode() == 200) {
+                List<Article> articles = getArticles(response, numberOfArticles);
+                response.confirm();
+                return articles;
             } else {
-                System.out.println("Request failed with status code: " + statusCode);
+                System.out.println("Request failed with status code: " + response.statusCode());
             }
 
-            conn.disconnect();
-
         } catch (Exception e) {
             logger.log(Level.SEVERE, "An error occurred while loading Articles", e);
         }
@@ -108,65 +145,17 @@ public class ArticleRequester {
     }
 
     /**
-     * Parses the response from the API and extracts a list of articles.
+     * Parses the response from the API as it streams in and extracts the first articles, in the order the API
+     * sorted them. The rest of the response is not read.
      *
-     * @param conn The HttpURLConnection object.
+     * @param response The response.
      * @param numberOfArticles The number of articles to fetch.
      * @return A list of Article objects.
-     * @throws IOException If an I/O error occurs.
+     * @throws IOException If the response is not a valid list of articles.
      */
-    private List<Article> getArticles(HttpURLConnection conn, int numberOfArticles) throws IOException {
-        JSONArray articlesArray = getObjects(conn);
-
-        List<Article> articles = new ArrayList<>();
-        List<Integer> indices = new ArrayList<>();
-
-        for (int i = 0; i < articlesArray.length(); i++) {
-            indices.add(i);
+    private List<Article> getArticles(HttpFetcher.Response response, int numberOfArticles) throws IOException {
+        try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            return ArticleParser.parseArticles(reader, numberOfArticles);
         }
-
-        // Shuffle the indices to randomize the order
-        Collections.shuffle(indices);
-
-        // Ensure we don't try to get more articles than are available
-        if (articlesArray.length() <= numberOfArticles) {
-            numberOfArticles = articlesArray.length();
-        }
-
-        for (int i = 0; i < numberOfArticles; i++) {
-            JSONObject articleJson = articlesArray.getJSONObject(indices.get(i));
-            String title = articleJson.getString("title");
-            String description = articleJson.getString("description");
-            String content = articleJson.getString("content");
-            Article article = new Article(title, description, content);
-            articles.add(article);
-        }
-
-        return articles;
-    }
-
-    /**
-     * Reads the response from the API and returns it as a JSON array.
-     *
-     * @param conn The HttpURLConnection object.
-     * @return A JSON array of articles.
-     * @throws IOException If an I/O error occurs.
-     */
-    private JSONArray getObjects(HttpURLConnection conn) throws IOException {
-        BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-
-        String inputLine;
-        StringBuilder response = new StringBuilder();
-
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-        }
-
-        in.close();
-
-        String responseData = response.toString();
-
-        JSONObject jsonResponse = new JSONObject(responseData);
-        return jsonResponse.getJSONArray("articles");
     }
 }
@@ -0,0 +1,268 @@
+package ca.ucalgary.edu.ensf380.news;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.Article;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * The NewsFeed class keeps the articles a screen rotates through up to date.
+ * <p>
+ * The feed starts from the articles saved by the last run, so the first screen never waits for the network.
+ * It is then refreshed in the background: the first refresh fetches a full page of articles, and every later
+ * one only asks for articles published since the previous refresh. New articles are merged in front of the
+ * known ones, an article whose title is already known is left out, and the oldest articles are dropped once
+ * the feed is full. A failed refresh keeps the current articles.
+ * <p>
+ * Readers get the articles as an immutable list, which is replaced as a whole on every change, so a display
+ * can rotate through it without locking while refreshes run. Refreshes take turns on a lock rather than the
+ * monitor, so a virtual thread waiting on a slow fetch does not pin its carrier.
+ */
+public class NewsFeed {
+
+    /**
+     * Default most articles the feed keeps.
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    /**
+     * Default time in milliseconds between two refreshes.
+     */
+    public static final long DEFAULT_REFRESH_MILLIS = 15 * 60 * 1000;
+
+    /**
+     * Default directory the articles are saved in.
+     */
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "news-cache");
+
+    private static final Logger LOGGER = Logger.getLogger(NewsFeed.class.getName());
+    private static final String SORT_BY = "relevancy";
+
+    private final ArticleRequester articleRequester;
+    private final String query;
+    private final int capacity;
+    private final Path file;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile List<Article> articles = List.of();
+    private Instant lastRefresh;
+
+    /**
+     * Constructs a NewsFeed and loads the articles saved by the last run.
+     *
+     * @param articleRequester Fetches the articles.
+     * @param query            The query string to search for articles.
+     * @param capacity         The most articles the feed keeps.
+     * @param directory        The directory the articles are saved in, or null to keep them in memory only.
+     */
+    public NewsFeed(ArticleRequester articleRequester, String query, int capacity, Path directory) {
+        this.articleRequester = articleRequester;
+        this.query = query;
+        this.capacity = capacity;
+        this.file = directory == null ? null
+                : directory.resolve(query.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_") + ".json");
+        loadSaved();
+    }
+
+    /**
+     * Constructs a NewsFeed with the default capacity and directory.
+     *
+     * @param query The query string to search for articles.
+     */
+    public NewsFeed(String query) {
+        this(new ArticleRequester(), query, DEFAULT_CAPACITY, DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Gets the current articles, newest first.
+     *
+     * @return An immutable list of the articles, empty until the first article is known.
+     */
+    public List<Article> getArticles() {
+        return articles;
+    }
+
+    /**
+     * Starts refreshing the feed periodically on the {@link BackgroundRuntime}, beginning right away.
+     *
+     * @param backgroundRuntime The runtime to refresh on.
+     * @param refreshMillis     The time in milliseconds between two refreshes.
+     * @return A future that stops the refreshes.
+     */
+    public ScheduledFuture<?> start(BackgroundRuntime backgroundRuntime, long refreshMillis) {
+        return backgroundRuntime.scheduleAtFixedRate(this::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches the articles published since the last refresh and merges them into the feed.
+     *
+     * @return true if the fetch succeeded.
+     */
+    public boolean refresh() {
+        refreshLock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            List<Article> fetched = articleRequester.fetchNews(query, SORT_BY, capacity, lastRefresh);
+            if (fetched == null) {
+                LOGGER.warning("Error refreshing news for " + query + ", keeping " + articles.size() + " articles");
+                return false;
+            }
+            lastRefresh = startedAt;
+
+            List<Article> merged = merge(fetched, articles);
+            if (!merged.equals(articles)) {
+                articles = merged;
+                save(merged);
+            } else {
+                touch();
+            }
+            return true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Puts new articles in front of the known ones, leaving out repeated titles and the oldest articles
+     * that do not fit. A known article that is fetched again keeps its place.
+     *
+     * @param fetched The fetched articles.
+     * @param known   The known articles.
+     * @return An immutable list of the merged articles.
+     */
+    private List<Article> merge(List<Article> fetched, List<Article> known) {
+        Map<String, Article> knownByKey = new LinkedHashMap<>();
+        for (Article article : known) {
+            knownByKey.putIfAbsent(key(article), article);
+        }
+        Map<String, Article> merged = new LinkedHashMap<>();
+        for (Article article : fetched) {
+            String key = key(article);
+            if (!knownByKey.containsKey(key)) {
+                merged.putIfAbsent(key, article);
+            }
+        }
+        merged.putAll(knownByKey);
+        List<Article> result = new ArrayList<>(merged.values());
+        return List.copyOf(result.subList(0, Math.min(capacity, result.size())));
+    }
+
+    /**
+     * Gets the key two copies of the same article share.
+     *
+     * @param article The article.
+     * @return The key.
+     */
+    private static String key(Article article) {
+        return article.title().trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Loads the articles saved by the last run, if there are any. They count as fetched when the file was
+     * last written, so the first refresh only asks for newer articles.
+     */
+    private void loadSaved() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            articles = List.copyOf(ArticleParser.parseArticles(reader, capacity));
+            lastRefresh = Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            LOGGER.warning("Error reading saved news " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the articles in the format of a news API response, replacing the previous file atomically.
+     *
+     * @param saved The articles to save.
+     */
+    private void save(List<Article> saved) {
+        if (file == null) {
+            return;
+        }
+        StringBuilder json = new StringBuilder("{\"articles\":[");
+        for (int i = 0; i < saved.size(); i++) {
+            Article article = saved.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("{\"title\":").append(quote(article.title()))
+                    .append(",\"description\":").append(quote(article.description()))
+                    .append(",\"content\":").append(quote(article.content())).append('}');
+        }
+        json.append("\n]}\n");
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), "news", ".tmp");
+            Files.writeString(temporary, json, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(temporary, FileTime.from(lastRefresh));
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Error saving news " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the saved articles as up to date after a refresh that found nothing new.
+     */
+    private void touch() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(lastRefresh));
+        } catch (IOException e) {
+            LOGGER.warning("Error updating saved news " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quotes a string as a JSON string.
+     *
+     * @param text The string.
+     * @return The quoted string.
+     */
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,159 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementCatalog;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementChange;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the AdvertisementCatalog class, run against an in-memory stand-in for the table.
+ */
+public class AdvertisementCatalogTest {
+
+    private FakeTable table;
+    private AdvertisementCatalog catalog;
+
+    /**
+     * An advertisements table kept in memory, which records the times it is asked for changes.
+     */
+    private static class FakeTable implements AdvertisementCatalog.Source {
+        private final Map<Long, AdvertisementChange> rows = new TreeMap<>();
+        private final List<Timestamp> queries = new ArrayList<>();
+        private long clock = 1_000_000;
+        private boolean offline;
+
+        /**
+         * Inserts or updates a row, moving its change time forward.
+         *
+         * @param id    the id of the row
+         * @param title the title of the advertisement
+         */
+        void put(long id, String title) {
+            clock += 10_000;
+            rows.put(id, new AdvertisementChange(id, advertisement(title), false, new Timestamp(clock)));
+        }
+
+        /**
+         * Flags a row as removed, moving its change time forward.
+         *
+         * @param id the id of the row
+         */
+        void flagDeleted(long id) {
+            clock += 10_000;
+            AdvertisementChange row = rows.get(id);
+            rows.put(id, new AdvertisementChange(id, row.advertisement(), true, new Timestamp(clock)));
+        }
+
+        @Override
+        public List<AdvertisementChange> findChangedSince(Timestamp since) throws SQLException {
+            if (offline) {
+                throw new SQLException("Communications link failure");
+            }
+            queries.add(since);
+            return rows.values().stream()
+                    .filter(row -> since == null || !row.updatedAt().before(since))
+                    .sorted((a, b) -> a.updatedAt().compareTo(b.updatedAt()))
+                    .toList();
+        }
+
+        @Override
+        public int countActive() throws SQLException {
+            if (offline) {
+                throw new SQLException("Communications link failure");
+            }
+            return (int) rows.values().stream().filter(row -> !row.deleted()).count();
+        }
+    }
+
+    /**
+     * Creates an advertisement whose fields are derived from its title.
+     *
+     * @param title the title
+     * @return the advertisement
+     */
+    private static Advertisement advertisement(String title) {
+        return new Advertisement(title, title + " description", "media//" + title + ".jpg");
+    }
+
+    /**
+     * Creates a table with two advertisements and an empty catalog of it before each test.
+     */
+    @Before
+    public void setUp() {
+        table = new FakeTable();
+        table.put(1, "a");
+        table.put(2, "b");
+        catalog = new AdvertisementCatalog(table);
+    }
+
+    /**
+     * Tests that the first sync reads every row and later syncs only read recent changes.
+     */
+    @Test
+    public void testSyncReadsOnlyChanges() {
+        assertTrue(catalog.sync());
+        assertEquals(List.of(advertisement("a"), advertisement("b")), catalog.getAdvertisements());
+
+        catalog.sync();
+
+        assertNull(table.queries.get(0));
+        assertNotNull(table.queries.get(1));
+        assertEquals(1_020_000 - 2000, table.queries.get(1).getTime());
+    }
+
+    /**
+     * Tests that inserts, updates and flagged removals are applied in id order.
+     */
+    @Test
+    public void testChangesAreApplied() {
+        catalog.sync();
+        table.put(3, "c");
+        table.put(1, "a2");
+        table.flagDeleted(2);
+
+        catalog.sync();
+
+        assertEquals(List.of(advertisement("a2"), advertisement("c")), catalog.getAdvertisements());
+    }
+
+    /**
+     * Tests that a row deleted outright is noticed through the count and removed by a full reload.
+     */
+    @Test
+    public void testHardDeleteTriggersReload() {
+        catalog.sync();
+        table.rows.remove(1L);
+
+        catalog.sync();
+
+        assertEquals(List.of(advertisement("b")), catalog.getAdvertisements());
+        assertNull(table.queries.get(table.queries.size() - 1));
+    }
+
+    /**
+     * Tests that the list is swapped only when something changed, and that a failed sync keeps it.
+     */
+    @Test
+    public void testListIsSwappedOnlyOnChange() {
+        catalog.sync();
+        List<Advertisement> first = catalog.getAdvertisements();
+
+        catalog.sync();
+        assertSame(first, catalog.getAdvertisements());
+
+        table.offline = true;
+        assertFalse(catalog.sync());
+        assertSame(first, catalog.getAdvertisements());
+    }
+}
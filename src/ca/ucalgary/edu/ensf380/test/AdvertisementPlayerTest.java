@@ -0,0 +1,216 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementPlayer;
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.helper.ImageLoader;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementSlotCallback;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the AdvertisementPlayer class, with slots begun by hand instead of by the clock.
+ */
+public class AdvertisementPlayerTest {
+
+    private BackgroundRuntime backgroundRuntime;
+    private SlowImageLoader imageLoader;
+    private RecordingCallback callback;
+    private List<Advertisement> ads;
+    private AdvertisementPlayer player;
+
+    /**
+     * An image loader that hands out empty icons and holds back the images of chosen files until released.
+     */
+    private static class SlowImageLoader extends ImageLoader {
+        private final Map<String, CountDownLatch> held = new ConcurrentHashMap<>();
+        private final List<String> loaded = new ArrayList<>();
+
+        @Override
+        public ImageIcon loadImage(String path, int width, int height) {
+            CountDownLatch latch = held.get(path);
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (loaded) {
+                loaded.add(path);
+            }
+            return new ImageIcon();
+        }
+    }
+
+    /**
+     * A callback that records the slots it is asked to show, using the title of the advertisement
+     * or "map" for a map slot.
+     */
+    private static class RecordingCallback implements AdvertisementSlotCallback {
+        private final List<String> slots = new ArrayList<>();
+
+        @Override
+        public void onAdvertisementSlot(Advertisement advertisement, Icon image) {
+            assertNotNull(image);
+            slots.add(advertisement.title());
+        }
+
+        @Override
+        public void onMapSlot() {
+            slots.add("map");
+        }
+    }
+
+    /**
+     * Creates an advertisement whose fields are derived from its title.
+     *
+     * @param title the title
+     * @return the advertisement
+     */
+    private static Advertisement advertisement(String title) {
+        return new Advertisement(title, title + " description", "media//" + title + ".jpg");
+    }
+
+    /**
+     * Creates a player of two advertisements before each test.
+     */
+    @Before
+    public void setUp() {
+        backgroundRuntime = new BackgroundRuntime();
+        imageLoader = new SlowImageLoader();
+        callback = new RecordingCallback();
+        ads = List.of(advertisement("a"), advertisement("b"));
+        player = new AdvertisementPlayer(() -> ads, imageLoader, 600, 440, callback, backgroundRuntime);
+    }
+
+    /**
+     * Stops the background work after each test.
+     */
+    @After
+    public void tearDown() {
+        backgroundRuntime.close();
+    }
+
+    /**
+     * Begins the next slot once the advertisement prepared ahead is ready.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    private void nextSlotWhenReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!player.isNextReady() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(player.isNextReady());
+        player.nextSlot();
+    }
+
+    /**
+     * Tests that the map and the advertisements alternate, and that the next image is decoded as soon as
+     * the previous advertisement is shown.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    public void testAdvertisementsArePreparedAhead() throws InterruptedException {
+        player.prepareNext();
+        nextSlotWhenReady();
+        player.nextSlot();
+        nextSlotWhenReady();
+        player.nextSlot();
+        nextSlotWhenReady();
+        player.nextSlot();
+
+        assertEquals(List.of("a", "map", "b", "map", "a", "map"), callback.slots);
+        assertEquals(List.of("media//a.jpg", "media//b.jpg", "media//a.jpg"), imageLoader.loaded.subList(0, 3));
+        assertEquals(0, player.getLateAdvertisements());
+    }
+
+    /**
+     * Tests that a slow image keeps the map up for its slot without holding the slot back, and that the
+     * advertisement is shown at the next slot once it is ready.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    public void testSlowImageKeepsTheMapUp() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        imageLoader.held.put("media//b.jpg", release);
+        player.prepareNext();
+        nextSlotWhenReady();
+        player.nextSlot();
+
+        player.nextSlot();
+        assertEquals(1, player.getLateAdvertisements());
+        release.countDown();
+        player.nextSlot();
+        nextSlotWhenReady();
+
+        assertEquals(List.of("a", "map", "map", "map", "b"), callback.slots);
+    }
+
+    /**
+     * Tests that an advertisement removed from the list after it was prepared is not shown,
+     * and that an empty list keeps the map up.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    public void testSwappedList() throws InterruptedException {
+        player.prepareNext();
+        nextSlotWhenReady();
+        ads = List.of(advertisement("c"));
+        player.nextSlot();
+        nextSlotWhenReady();
+        ads = List.of();
+        player.nextSlot();
+        player.nextSlot();
+
+        assertEquals(List.of("a", "map", "c", "map", "map"), callback.slots);
+        assertFalse(player.isNextReady());
+    }
+
+    /**
+     * Tests that a started rotation opens with the first advertisement once its image is ready, even when
+     * the image takes a while.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    public void testRotationOpensWithAnAdvertisement() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        imageLoader.held.put("media//a.jpg", release);
+        player.start(60_000);
+        Thread.sleep(50);
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (player) {
+                if (!callback.slots.isEmpty()) {
+                    break;
+                }
+            }
+            Thread.sleep(5);
+        }
+        player.stop();
+
+        synchronized (player) {
+            assertEquals(List.of("a"), callback.slots);
+        }
+        assertEquals(0, player.getLateAdvertisements());
+    }
+}
@@ -0,0 +1,146 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementFetcher;
+import ca.ucalgary.edu.ensf380.database.AdvertisementRepository;
+import ca.ucalgary.edu.ensf380.database.ConnectionPool;
+import ca.ucalgary.edu.ensf380.database.DatabaseConfig;
+import ca.ucalgary.edu.ensf380.models.Advertisement;
+import ca.ucalgary.edu.ensf380.models.AdvertisementChange;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the AdvertisementRepository class, run against an in-memory H2 database that stands in
+ * for MySQL. The H2 driver (h2-2.3.232.jar, listed in .classpath) must be on the test classpath.
+ */
+public class AdvertisementRepositoryTest {
+
+    private static final String URL = "jdbc:h2:mem:subway;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private Connection keepAlive;
+    private ConnectionPool pool;
+    private AdvertisementRepository repository;
+
+    /**
+     * Creates the advertisements table of SubwayScreen.sql with a few rows before each test.
+     *
+     * @throws SQLException if the database cannot be set up
+     */
+    @Before
+    public void setUp() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS advertisements");
+            statement.execute("CREATE TABLE advertisements (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "title VARCHAR(255), description TEXT, media_type VARCHAR(8), media_path VARCHAR(255), "
+                    + "updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                    + "deleted BOOLEAN NOT NULL DEFAULT FALSE)");
+            statement.execute("INSERT INTO advertisements (title, description, media_type, media_path) VALUES "
+                    + "('Pure Protein', 'Pure protein milk and bar', 'JPEG', 'media//pureprotien.jpg'), "
+                    + "('Neymar Puma', 'All new Puma Football Boots', 'JPEG', 'media//neymar.jpg')");
+        }
+        Properties properties = new Properties();
+        properties.setProperty("url", URL);
+        properties.setProperty("username", "sa");
+        properties.setProperty("fetchSize", "1");
+        DatabaseConfig config = DatabaseConfig.fromProperties(properties);
+        pool = ConnectionPool.create(config);
+        repository = new AdvertisementRepository(pool, config.fetchSize());
+    }
+
+    /**
+     * Closes the repository and drops the database after each test.
+     *
+     * @throws SQLException if the database cannot be closed
+     */
+    @After
+    public void tearDown() throws SQLException {
+        repository.close();
+        keepAlive.close();
+    }
+
+    /**
+     * Tests that the advertisements are read in the order they were added.
+     *
+     * @throws SQLException if the database cannot be read
+     */
+    @Test
+    public void testFindAll() throws SQLException {
+        List<Advertisement> advertisements = repository.findAll("advertisements");
+
+        assertEquals(List.of(
+                new Advertisement("Pure Protein", "Pure protein milk and bar", "media//pureprotien.jpg"),
+                new Advertisement("Neymar Puma", "All new Puma Football Boots", "media//neymar.jpg")),
+                advertisements);
+    }
+
+    /**
+     * Tests that only rows changed since a given time are read, with removed rows flagged,
+     * and that removed rows are neither loaded nor counted.
+     *
+     * @throws SQLException if the database cannot be read
+     */
+    @Test
+    public void testFindChangedSince() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("UPDATE advertisements SET updated_at = TIMESTAMP '2026-01-01 00:00:00'");
+            statement.execute("UPDATE advertisements SET deleted = TRUE, "
+                    + "updated_at = TIMESTAMP '2026-02-01 00:00:00' WHERE title = 'Neymar Puma'");
+        }
+
+        List<AdvertisementChange> changes = repository.findChangedSince("advertisements",
+                Timestamp.valueOf("2026-01-15 00:00:00"));
+
+        assertEquals(1, changes.size());
+        assertEquals("Neymar Puma", changes.get(0).advertisement().title());
+        assertTrue(changes.get(0).deleted());
+        assertEquals(2, repository.findChangedSince("advertisements", null).size());
+        assertEquals(1, repository.findAll("advertisements").size());
+        assertEquals(1, repository.countActive("advertisements"));
+    }
+
+    /**
+     * Tests that repeated loads share one pooled connection.
+     *
+     * @throws SQLException if the database cannot be read
+     */
+    @Test
+    public void testLoadsReuseConnection() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            repository.findAll("advertisements");
+        }
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    /**
+     * Tests that a table name that is not a plain identifier is refused before it reaches the database.
+     *
+     * @throws SQLException always, as the table name is refused
+     */
+    @Test(expected = SQLException.class)
+    public void testInvalidTableNameIsRefused() throws SQLException {
+        repository.findAll("advertisements; DROP TABLE advertisements");
+    }
+
+    /**
+     * Tests that the fetcher leaves the list empty when the table cannot be read.
+     */
+    @Test
+    public void testFetcherWithMissingTable() {
+        AdvertisementFetcher fetcher = new AdvertisementFetcher(repository);
+        fetcher.loadAdvertisements("missing_table");
+        assertTrue(fetcher.getAdvertisements().isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.Article;
+import ca.ucalgary.edu.ensf380.news.ArticleParser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ArticleParser class.
+ */
+public class ArticleParserTest {
+
+    private static final String RESPONSE = "{\"status\":\"ok\",\"totalResults\":3,\"articles\":["
+            + "{\"source\":{\"id\":null,\"name\":\"Herald [\\\"x\\\"]\"},\"author\":\"A\","
+            + "\"title\":\"Flood \\\"watch\\\"\",\"description\":\"Bow \\u0026 Elbow\",\"url\":\"http://x/y\","
+            + "\"urlToImage\":null,\"publishedAt\":\"2026-10-17\",\"content\":\"Line\\nbreak\"},\n"
+            + "  {\"title\":\"No description\",\"description\":null,\"content\":\"c\"},\n"
+            + "  {\"title\":\"Second\",\"description\":\"d\",\"content\":\"é\",\"tags\":[1,[2,{\"a\":\"]\"}],true]}"
+            + "]}";
+
+    /**
+     * Tests that only the title, description and content are kept, with escapes resolved.
+     *
+     * @throws IOException if the response is not valid
+     */
+    @Test
+    public void testParseArticles() throws IOException {
+        List<Article> articles = ArticleParser.parseArticles(new StringReader(RESPONSE), 10);
+
+        assertEquals(List.of(new Article("Flood \"watch\"", "Bow & Elbow", "Line\nbreak"),
+                new Article("Second", "d", "é")), articles);
+    }
+
+    /**
+     * Tests that parsing stops once enough articles are read, without reading the rest of the response.
+     *
+     * @throws IOException if the response is not valid
+     */
+    @Test
+    public void testStopsAfterNumberOfArticles() throws IOException {
+        String truncated = RESPONSE.substring(0, RESPONSE.indexOf("{\"title\":\"No description\""))
+                + "this is never read";
+
+        List<Article> articles = ArticleParser.parseArticles(new StringReader(truncated), 1);
+
+        assertEquals(1, articles.size());
+        assertEquals("Flood \"watch\"", articles.get(0).title());
+    }
+
+    /**
+     * Tests that an error response without articles is rejected.
+     *
+     * @throws IOException always, as the response has no articles
+     */
+    @Test(expected = IOException.class)
+    public void testResponseWithoutArticles() throws IOException {
+        String error = "{\"status\":\"error\",\"code\":\"apiKeyInvalid\",\"message\":\"Your API key is invalid.\"}";
+        ArticleParser.parseArticles(new StringReader(error), 10);
+    }
+
+    /**
+     * Tests that a response that ends too early is rejected.
+     *
+     * @throws IOException always, as the response is cut off
+     */
+    @Test(expected = IOException.class)
+    public void testTruncatedResponse() throws IOException {
+        ArticleParser.parseArticles(new StringReader(RESPONSE.substring(0, 60)), 10);
+    }
+}
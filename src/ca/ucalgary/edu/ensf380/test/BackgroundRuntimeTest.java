@@ -0,0 +1,136 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BackgroundRuntime class.
+ */
+public class BackgroundRuntimeTest {
+
+    private BackgroundRuntime runtime;
+
+    /**
+     * Creates a runtime of its own for each test.
+     */
+    @Before
+    public void setUp() {
+        runtime = new BackgroundRuntime();
+    }
+
+    /**
+     * Closes the runtime after each test.
+     */
+    @After
+    public void tearDown() {
+        runtime.close();
+    }
+
+    /**
+     * Tests that submitted tasks run on virtual threads.
+     *
+     * @throws Exception if the task fails or does not finish in time
+     */
+    @Test
+    public void testSubmitRunsOnVirtualThread() throws Exception {
+        boolean virtual = runtime.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS);
+        assertTrue(virtual);
+    }
+
+    /**
+     * Tests that a periodic run is skipped while the previous run is still going.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    public void testPeriodicRunsDoNotOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = runtime.scheduleAtFixedRate(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            runs.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(300);
+        future.cancel(false);
+
+        assertEquals(1, maxRunning.get());
+        assertTrue(runs.get() >= 2);
+        assertTrue(runs.get() < 20);
+    }
+
+    /**
+     * Tests that a serial scheduler runs its tasks one at a time and in order.
+     *
+     * @throws Exception if the tasks do not finish in time
+     */
+    @Test
+    public void testSerialSchedulerKeepsOrder() throws Exception {
+        ScheduledExecutorService scheduler = runtime.newSerialScheduler("serial-test");
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int task = i;
+            scheduler.execute(() -> order.add(task));
+        }
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    /**
+     * Tests that closing the runtime runs the hooks in reverse order, interrupts running tasks
+     * and cancels scheduled ones.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    public void testCloseStopsEverything() throws Exception {
+        List<String> hooks = new CopyOnWriteArrayList<>();
+        runtime.addShutdownHook(() -> hooks.add("first"));
+        runtime.addShutdownHook(() -> hooks.add("second"));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        runtime.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        AtomicInteger scheduledRuns = new AtomicInteger();
+        runtime.schedule(scheduledRuns::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        runtime.close();
+
+        assertTrue(runtime.isClosed());
+        assertEquals(List.of("second", "first"), hooks);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(0, scheduledRuns.get());
+    }
+}
@@ -0,0 +1,190 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.database.ConnectionPool;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ConnectionPool class, run with stand-in connections that need no database.
+ */
+public class ConnectionPoolTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicBoolean valid = new AtomicBoolean(true);
+
+    /**
+     * Opens a stand-in connection that counts how often it is closed and is valid while {@link #valid} is set.
+     *
+     * @return the connection
+     */
+    private Connection openConnection() {
+        opened.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isValid" -> valid.get();
+                    case "close" -> {
+                        closed.incrementAndGet();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Tests that a returned connection is lent out again instead of opening a new one.
+     *
+     * @throws SQLException if a task fails
+     */
+    @Test
+    public void testConnectionIsReused() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::openConnection, 2, 1000);
+        List<Connection> used = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            used.add(pool.withConnection(connection -> connection));
+        }
+
+        assertEquals(1, opened.get());
+        assertEquals(1, pool.getOpenCount());
+        assertTrue(used.stream().allMatch(connection -> connection == used.get(0)));
+    }
+
+    /**
+     * Tests that no more connections than the pool size are in use at once.
+     *
+     * @throws Exception if the tasks fail or do not finish in time
+     */
+    @Test
+    public void testPoolSizeIsNeverExceeded() throws Exception {
+        ConnectionPool pool = new ConnectionPool(this::openConnection, 2, 5000);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                tasks.add(executor.submit(() -> pool.withConnection(connection -> {
+                    maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inUse.decrementAndGet();
+                    return null;
+                })));
+            }
+            for (Future<Object> task : tasks) {
+                task.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, maxInUse.get());
+        assertEquals(2, opened.get());
+    }
+
+    /**
+     * Tests that a connection that fails a task and its check is closed and replaced.
+     *
+     * @throws SQLException if the second task fails
+     */
+    @Test
+    public void testBrokenConnectionIsReplaced() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::openConnection, 1, 1000);
+        try {
+            pool.withConnection(connection -> {
+                valid.set(false);
+                throw new SQLException("Communications link failure");
+            });
+            fail("Expected the task's SQLException");
+        } catch (SQLException e) {
+            assertEquals("Communications link failure", e.getMessage());
+        }
+        assertEquals(1, closed.get());
+
+        valid.set(true);
+        pool.withConnection(connection -> null);
+        assertEquals(2, opened.get());
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    /**
+     * Tests that a task gives up when no connection is freed in time.
+     *
+     * @throws Exception if the holding task fails
+     */
+    @Test
+    public void testBorrowTimesOut() throws Exception {
+        ConnectionPool pool = new ConnectionPool(this::openConnection, 1, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                pool.withConnection(connection -> {
+                    holding.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        try {
+            pool.withConnection(connection -> null);
+            fail("Expected the borrow to time out");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage().contains("No database connection free"));
+        } finally {
+            release.countDown();
+            holder.join(5000);
+        }
+    }
+
+    /**
+     * Tests that closing the pool closes its idle connections and refuses new tasks.
+     *
+     * @throws SQLException if the first task fails
+     */
+    @Test
+    public void testCloseClosesIdleConnections() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::openConnection, 2, 1000);
+        pool.withConnection(connection -> null);
+
+        pool.close();
+
+        assertEquals(1, closed.get());
+        assertEquals(0, pool.getOpenCount());
+        try {
+            pool.withConnection(connection -> null);
+            fail("Expected the closed pool to refuse the task");
+        } catch (SQLException e) {
+            assertEquals("Connection pool is closed", e.getMessage());
+        }
+    }
+}
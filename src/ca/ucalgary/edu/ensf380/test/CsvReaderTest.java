@@ -0,0 +1,130 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.CsvReader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the CsvReader class.
+ */
+public class CsvReaderTest {
+
+    /**
+     * Creates a reader over the given text with a tiny read buffer, so records span several refills.
+     *
+     * @param text the CSV text
+     * @return the reader
+     */
+    private CsvReader reader(String text) {
+        return new CsvReader(new StringReader(text), 4);
+    }
+
+    /**
+     * Tests reading plain records, trimming unquoted fields and counting a trailing empty field.
+     *
+     * @throws IOException if an I/O error occurs while reading
+     */
+    @Test
+    public void testPlainRecords() throws IOException {
+        CsvReader reader = reader("1,R,01,R01, Maplewood Station ,8.75,14.79,\nR,1,R07,forward,R43\n");
+
+        assertTrue(reader.nextRecord());
+        assertEquals(8, reader.getFieldCount());
+        assertEquals(1, reader.getInt(0));
+        assertEquals("Maplewood Station", reader.getString(4));
+        assertEquals(8.75, reader.getDouble(5), 0.0);
+        assertTrue(reader.isEmpty(7));
+
+        assertTrue(reader.nextRecord());
+        assertEquals(5, reader.getFieldCount());
+        assertTrue(reader.fieldEquals(3, "forward"));
+        assertFalse(reader.fieldEquals(3, "backward"));
+        assertEquals("R43", reader.getString(4));
+
+        assertFalse(reader.nextRecord());
+    }
+
+    /**
+     * Tests quoted fields holding commas, doubled quotes and line breaks.
+     *
+     * @throws IOException if an I/O error occurs while reading
+     */
+    @Test
+    public void testQuotedFields() throws IOException {
+        CsvReader reader = reader("24,\"R24,B23,G18\",\"say \"\"hi\"\"\",\"two\nlines\"\n");
+
+        assertTrue(reader.nextRecord());
+        assertEquals(4, reader.getFieldCount());
+        assertEquals("R24,B23,G18", reader.getString(1));
+        assertEquals("say \"hi\"", reader.getString(2));
+        assertEquals("two\nlines", reader.getString(3));
+        assertFalse(reader.nextRecord());
+    }
+
+    /**
+     * Tests that every kind of line ending ends a record, and a missing final line ending is accepted.
+     *
+     * @throws IOException if an I/O error occurs while reading
+     */
+    @Test
+    public void testLineEndings() throws IOException {
+        CsvReader reader = reader("a,b\r\nc\rd\ne");
+
+        String[] expected = { "a", "c", "d", "e" };
+        for (String first : expected) {
+            assertTrue(reader.nextRecord());
+            assertEquals(first, reader.getString(0));
+        }
+        assertFalse(reader.nextRecord());
+    }
+
+    /**
+     * Tests parsing numbers in place, including the cases handed to Double.parseDouble.
+     *
+     * @throws IOException if an I/O error occurs while reading
+     */
+    @Test
+    public void testNumbers() throws IOException {
+        CsvReader reader = reader("-42,2147483647,-2147483648,1157.513672,-0.0050,1.5e3,0.1234567890123456789\n");
+
+        assertTrue(reader.nextRecord());
+        assertEquals(-42, reader.getInt(0));
+        assertEquals(Integer.MAX_VALUE, reader.getInt(1));
+        assertEquals(Integer.MIN_VALUE, reader.getInt(2));
+        assertEquals(Double.parseDouble("1157.513672"), reader.getDouble(3), 0.0);
+        assertEquals(Double.parseDouble("-0.0050"), reader.getDouble(4), 0.0);
+        assertEquals(1500.0, reader.getDouble(5), 0.0);
+        assertEquals(Double.parseDouble("0.1234567890123456789"), reader.getDouble(6), 0.0);
+    }
+
+    /**
+     * Tests that malformed numbers are rejected.
+     *
+     * @throws IOException if an I/O error occurs while reading
+     */
+    @Test
+    public void testInvalidNumbers() throws IOException {
+        CsvReader reader = reader("12a,2147483648,,abc\n");
+        assertTrue(reader.nextRecord());
+
+        for (int field = 0; field < 3; field++) {
+            try {
+                reader.getInt(field);
+                fail("Expected a NumberFormatException for field " + field);
+            } catch (NumberFormatException e) {
+                // Expected
+            }
+        }
+        try {
+            reader.getDouble(3);
+            fail("Expected a NumberFormatException");
+        } catch (NumberFormatException e) {
+            // Expected
+        }
+    }
+}
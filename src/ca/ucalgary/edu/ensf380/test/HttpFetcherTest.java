@@ -0,0 +1,314 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.HttpFetcher;
+import ca.ucalgary.edu.ensf380.models.Article;
+import ca.ucalgary.edu.ensf380.models.WeatherReport;
+import ca.ucalgary.edu.ensf380.news.ArticleRequester;
+import ca.ucalgary.edu.ensf380.weather.WeatherApp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the HttpFetcher class, run against a local stub server.
+ */
+public class HttpFetcherTest {
+
+    private static final String ARTICLES =
+            "{\"status\":\"ok\",\"articles\":[{\"title\":\"t\",\"description\":\"d\",\"content\":\"c\"}]}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private HttpFetcher httpFetcher;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Starts a stub server on a free local port before each test.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        httpFetcher = new HttpFetcher();
+    }
+
+    /**
+     * Stops the stub server after each test.
+     */
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Answers requests to a path with a body and an entity tag, and with a 304 when the tag is sent back.
+     *
+     * @param path the path to answer
+     * @param body the body of a full response
+     */
+    private void serveWithEtag(String path, String body) {
+        server.createContext(path, exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(String.valueOf(ifNoneMatch));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                send(exchange, body, true);
+            }
+        });
+    }
+
+    /**
+     * Tests that a confirmed response with an entity tag is revalidated, and that a 304 comes back without a body.
+     *
+     * @throws IOException if a request fails
+     */
+    @Test
+    public void testEtagRevalidation() throws IOException {
+        server.createContext("/etag", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(String.valueOf(ifNoneMatch));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                send(exchange, "first body", false);
+            }
+        });
+
+        String url = baseUrl + "/etag";
+        try (HttpFetcher.Response first = httpFetcher.getIfModified(url, url)) {
+            assertFalse(first.notModified());
+            assertEquals("first body", first.bodyAsString());
+            first.confirm();
+        }
+        try (HttpFetcher.Response second = httpFetcher.getIfModified(url, url)) {
+            assertEquals(List.of("null", "\"v1\""), requests);
+            assertTrue(second.notModified());
+            assertEquals(304, second.statusCode());
+            assertEquals("", second.bodyAsString());
+        }
+    }
+
+    /**
+     * Tests that validators of a response that was not confirmed are not sent, so a body that could not be read
+     * is fetched in full again.
+     *
+     * @throws IOException if a request fails
+     */
+    @Test
+    public void testUnconfirmedResponseIsNotRevalidated() throws IOException {
+        serveWithEtag("/etag", "body");
+
+        String url = baseUrl + "/etag";
+        httpFetcher.getIfModified(url, url).close();
+        try (HttpFetcher.Response second = httpFetcher.getIfModified(url, url)) {
+            assertFalse(second.notModified());
+            assertEquals("body", second.bodyAsString());
+        }
+        assertEquals(List.of("null", "null"), requests);
+    }
+
+    /**
+     * Tests that a plain fetch neither sends nor keeps validators.
+     *
+     * @throws IOException if a request fails
+     */
+    @Test
+    public void testPlainGetIsNotRevalidated() throws IOException {
+        server.createContext("/plain", exchange -> {
+            requests.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-None-Match")));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            send(exchange, "plain body", false);
+        });
+
+        try (HttpFetcher.Response first = httpFetcher.get(baseUrl + "/plain")) {
+            assertEquals("plain body", first.bodyAsString());
+        }
+        try (HttpFetcher.Response second = httpFetcher.get(baseUrl + "/plain")) {
+            assertFalse(second.notModified());
+            assertEquals("plain body", second.bodyAsString());
+        }
+        assertEquals(List.of("null", "null"), requests);
+    }
+
+    /**
+     * Tests that the last modification date is sent back as If-Modified-Since.
+     *
+     * @throws IOException if a request fails
+     */
+    @Test
+    public void testLastModifiedRevalidation() throws IOException {
+        String lastModified = "Wed, 21 Oct 2026 07:28:00 GMT";
+        server.createContext("/dated", exchange -> {
+            requests.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-Modified-Since")));
+            exchange.getResponseHeaders().add("Last-Modified", lastModified);
+            send(exchange, "dated body", false);
+        });
+
+        String url = baseUrl + "/dated";
+        try (HttpFetcher.Response first = httpFetcher.getIfModified(url, url)) {
+            first.confirm();
+        }
+        try (HttpFetcher.Response second = httpFetcher.getIfModified(url, url)) {
+            assertEquals(List.of("null", lastModified), requests);
+            assertFalse(second.notModified());
+            assertEquals("dated body", second.bodyAsString());
+        }
+    }
+
+    /**
+     * Tests that gzip is requested and a compressed body is decompressed.
+     *
+     * @throws IOException if the request fails
+     */
+    @Test
+    public void testGzipBodyIsDecompressed() throws IOException {
+        server.createContext("/gzip", exchange -> {
+            requests.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            send(exchange, "compressed body", true);
+        });
+
+        try (HttpFetcher.Response response = httpFetcher.get(baseUrl + "/gzip")) {
+            assertEquals(List.of("gzip"), requests);
+            assertEquals("compressed body", response.bodyAsString());
+        }
+    }
+
+    /**
+     * Tests that the weather is fetched through a given fetcher and server.
+     *
+     * @throws IOException if the request fails
+     */
+    @Test
+    public void testWeatherFetchedFromStubServer() throws IOException {
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestURI().toString());
+            send(exchange, "<html><pre>Sunny\r\n21 °C</pre></html>", true);
+        });
+
+        WeatherReport weatherReport = WeatherApp.WeatherFetcher
+                .fetchWeatherData("New York", httpFetcher, baseUrl + "/").toWeatherReport();
+
+        assertEquals(List.of("/New%20York?0QT"), requests);
+        assertEquals(List.of("Weather report: New York", "Sunny", "21 °C"), weatherReport.getWeatherData());
+    }
+
+    /**
+     * Tests that the news is fetched through a given fetcher and server, asking only for the articles it needs.
+     */
+    @Test
+    public void testNewsFetchedFromStubServer() {
+        server.createContext("/everything", exchange -> {
+            requests.add(exchange.getRequestURI().getQuery());
+            send(exchange, "{\"status\":\"ok\",\"articles\":[{\"title\":\"t\",\"description\":\"d\",\"content\":\"c\"}]}", true);
+        });
+
+        ArticleRequester articleRequester = new ArticleRequester(httpFetcher, baseUrl + "/everything");
+        articleRequester.setApiKey("KEY");
+        List<Article> articles = articleRequester.fetchNews("Calgary Transit", "popularity", 5);
+
+        assertEquals(List.of("q=Calgary+Transit&sortBy=popularity&pageSize=5&apiKey=KEY"), requests);
+        assertEquals(List.of(new Article("t", "d", "c")), articles);
+    }
+
+    /**
+     * Tests that news fetched since a later time is revalidated against the articles read for the same query,
+     * and that an unchanged answer gives no articles instead of a failure.
+     */
+    @Test
+    public void testUnchangedNewsGivesNoArticles() {
+        serveWithEtag("/everything", ARTICLES);
+
+        ArticleRequester articleRequester = new ArticleRequester(httpFetcher, baseUrl + "/everything");
+        Instant from = Instant.parse("2026-10-17T00:00:00Z");
+        List<Article> first = articleRequester.fetchNews("Calgary", "relevancy", 5, from);
+        List<Article> second = articleRequester.fetchNews("Calgary", "relevancy", 5, from.plusSeconds(60));
+
+        assertEquals(List.of("null", "\"v1\""), requests);
+        assertEquals(List.of(new Article("t", "d", "c")), first);
+        assertEquals(List.of(), second);
+    }
+
+    /**
+     * Tests that news that cannot be parsed is not revalidated, so the next fetch reads the articles in full.
+     */
+    @Test
+    public void testTruncatedNewsIsFetchedAgain() {
+        serveWithEtag("/everything", ARTICLES.substring(0, ARTICLES.length() / 2));
+
+        ArticleRequester articleRequester = new ArticleRequester(httpFetcher, baseUrl + "/everything");
+        Instant from = Instant.parse("2026-10-17T00:00:00Z");
+        assertNull(articleRequester.fetchNews("Calgary", "relevancy", 5, from));
+        assertNull(articleRequester.fetchNews("Calgary", "relevancy", 5, from.plusSeconds(60)));
+
+        assertEquals(List.of("null", "null"), requests);
+    }
+
+    /**
+     * Tests that an unchanged weather page gives back the last report, and that a page without a report is
+     * not revalidated.
+     *
+     * @throws IOException if a request fails
+     */
+    @Test
+    public void testUnchangedWeatherGivesLastReport() throws IOException {
+        serveWithEtag("/", "<html><pre>Sunny\r\n21 °C</pre></html>");
+        List<String> lastReport = List.of("Weather report: Calgary", "Cloudy", "3 °C");
+
+        WeatherReport first = WeatherApp.WeatherFetcher.fetchWeatherReport("Calgary", null, httpFetcher, baseUrl + "/");
+        WeatherReport second = WeatherApp.WeatherFetcher.fetchWeatherReport("Calgary", lastReport, httpFetcher,
+                baseUrl + "/");
+
+        assertEquals(List.of("null", "\"v1\""), requests);
+        assertEquals(List.of("Weather report: Calgary", "Sunny", "21 °C"), first.getWeatherData());
+        assertEquals(lastReport, second.getWeatherData());
+    }
+
+    /**
+     * Sends a 200 response.
+     *
+     * @param exchange the exchange to answer
+     * @param body     the body
+     * @param gzip     whether to compress the body
+     * @throws IOException if the response cannot be written
+     */
+    private static void send(HttpExchange exchange, String body, boolean gzip) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.ImageLoader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ImageLoader class.
+ */
+public class ImageLoaderTest {
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Writes a PNG image of one colour.
+     *
+     * @param name   the file name
+     * @param colour the colour of the image
+     * @return the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    private String writeImage(String name, Color colour) throws IOException {
+        BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(colour);
+        g2d.fillRect(0, 0, 200, 100);
+        g2d.dispose();
+        File file = tempFolder.newFile(name);
+        ImageIO.write(image, "png", file);
+        return file.getPath();
+    }
+
+    /**
+     * Gets the colour of the centre pixel of an icon.
+     *
+     * @param icon the icon
+     * @return the RGB value of the pixel
+     */
+    private static int centre(ImageIcon icon) {
+        BufferedImage image = (BufferedImage) icon.getImage();
+        return image.getRGB(image.getWidth() / 2, image.getHeight() / 2) & 0xFFFFFF;
+    }
+
+    /**
+     * Tests that an image is scaled to the requested size and served from the cache the second time.
+     *
+     * @throws IOException if the image cannot be written
+     */
+    @Test
+    public void testScaledImageIsCached() throws IOException {
+        String path = writeImage("ad.png", Color.RED);
+        ImageLoader imageLoader = new ImageLoader();
+
+        ImageIcon first = imageLoader.loadImage(path, 60, 44);
+        ImageIcon second = imageLoader.loadImage(path, 60, 44);
+
+        assertEquals(60, first.getIconWidth());
+        assertEquals(44, first.getIconHeight());
+        assertSame(first, second);
+        assertEquals(0xFF0000, centre(first));
+        assertEquals(1, imageLoader.getStats().hits());
+        assertEquals(1, imageLoader.getStats().misses());
+        assertEquals(0.5, imageLoader.getStats().hitRate(), 1e-9);
+    }
+
+    /**
+     * Tests that a different size or a changed file is loaded again.
+     *
+     * @throws IOException if the image cannot be written
+     */
+    @Test
+    public void testSizeAndModificationTimeArePartOfTheKey() throws IOException {
+        String path = writeImage("ad.png", Color.RED);
+        ImageLoader imageLoader = new ImageLoader();
+        imageLoader.loadImage(path, 60, 44);
+        imageLoader.loadImage(path, 30, 22);
+
+        BufferedImage replacement = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = replacement.createGraphics();
+        g2d.setColor(Color.BLUE);
+        g2d.fillRect(0, 0, 200, 100);
+        g2d.dispose();
+        File file = new File(path);
+        ImageIO.write(replacement, "png", file);
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 5000));
+
+        assertEquals(0x0000FF, centre(imageLoader.loadImage(path, 60, 44)));
+        assertEquals(3, imageLoader.getStats().misses());
+        assertEquals(0, imageLoader.getStats().hits());
+    }
+
+    /**
+     * Tests that the least recently used image is dropped when the cache is full.
+     *
+     * @throws IOException if the images cannot be written
+     */
+    @Test
+    public void testLeastRecentlyUsedImageIsEvicted() throws IOException {
+        String red = writeImage("red.png", Color.RED);
+        String green = writeImage("green.png", Color.GREEN);
+        String blue = writeImage("blue.png", Color.BLUE);
+        // Room for two 10 x 10 images of 400 bytes each.
+        ImageLoader imageLoader = new ImageLoader(800);
+
+        imageLoader.loadImage(red, 10, 10);
+        imageLoader.loadImage(green, 10, 10);
+        imageLoader.loadImage(red, 10, 10);
+        imageLoader.loadImage(blue, 10, 10);
+
+        ImageLoader.CacheStats stats = imageLoader.getStats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.entries());
+        assertEquals(800, stats.cachedBytes());
+
+        imageLoader.loadImage(red, 10, 10);
+        assertEquals(2, imageLoader.getStats().hits());
+        imageLoader.loadImage(green, 10, 10);
+        assertEquals(4, imageLoader.getStats().misses());
+    }
+
+    /**
+     * Tests that a missing file gives an empty icon and is not cached.
+     */
+    @Test
+    public void testMissingFile() {
+        ImageLoader imageLoader = new ImageLoader();
+        ImageIcon icon = imageLoader.loadImage(new File(tempFolder.getRoot(), "missing.png").getPath(), 60, 44);
+
+        assertNull(icon.getImage());
+        assertEquals(0, imageLoader.getStats().entries());
+    }
+}
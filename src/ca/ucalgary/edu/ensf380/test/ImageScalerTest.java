@@ -0,0 +1,144 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.ImageScaler;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ImageScaler class.
+ */
+public class ImageScalerTest {
+
+    /**
+     * Creates an image filled with one colour.
+     *
+     * @param width  the width of the image
+     * @param height the height of the image
+     * @param type   the type of the image
+     * @param colour the colour of the image
+     * @return the image
+     */
+    private static BufferedImage filled(int width, int height, int type, Color colour) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.setColor(colour);
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * Tests that a plain colour stays the same at any size, through halving steps and the bilinear pass.
+     */
+    @Test
+    public void testPlainColourIsKept() {
+        BufferedImage source = filled(1000, 700, BufferedImage.TYPE_3BYTE_BGR, new Color(40, 120, 200));
+
+        BufferedImage scaled = ImageScaler.scale(source, 600, 440);
+        BufferedImage tiny = ImageScaler.scale(source, 24, 24);
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, scaled.getType());
+        assertEquals(600, scaled.getWidth());
+        assertEquals(440, scaled.getHeight());
+        for (BufferedImage image : new BufferedImage[] { scaled, tiny }) {
+            assertEquals(0x2878C8, image.getRGB(0, 0) & 0xFFFFFF);
+            assertEquals(0x2878C8, image.getRGB(image.getWidth() - 1, image.getHeight() - 1) & 0xFFFFFF);
+        }
+    }
+
+    /**
+     * Tests that halving averages every pixel of the source, so a fine checkerboard becomes an even grey.
+     */
+    @Test
+    public void testDownscalingAveragesPixels() {
+        BufferedImage source = new BufferedImage(2400, 1600, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                source.setRGB(x, y, (x + y) % 2 == 0 ? 0xFFFFFF : 0x000000);
+            }
+        }
+
+        BufferedImage scaled = ImageScaler.scale(source, 300, 200);
+
+        for (int y = 0; y < scaled.getHeight(); y += 17) {
+            for (int x = 0; x < scaled.getWidth(); x += 13) {
+                int red = (scaled.getRGB(x, y) >> 16) & 0xFF;
+                assertTrue("pixel " + x + "," + y + " is " + red, Math.abs(red - 128) <= 1);
+            }
+        }
+    }
+
+    /**
+     * Tests that the image is written into the given destination, and that a gradient keeps its direction.
+     */
+    @Test
+    public void testScalesIntoDestination() {
+        BufferedImage source = new BufferedImage(900, 300, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < source.getWidth(); x++) {
+            int grey = x * 255 / (source.getWidth() - 1);
+            for (int y = 0; y < source.getHeight(); y++) {
+                source.setRGB(x, y, (grey << 16) | (grey << 8) | grey);
+            }
+        }
+        BufferedImage destination = new BufferedImage(250, 70, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        assertSame(destination, ImageScaler.scale(source, destination));
+
+        int previous = -1;
+        for (int x = 0; x < destination.getWidth(); x++) {
+            int pixel = destination.getRGB(x, 35);
+            assertEquals(0xFF, pixel >>> 24);
+            assertTrue((pixel & 0xFF) >= previous);
+            previous = pixel & 0xFF;
+        }
+        assertTrue((destination.getRGB(0, 0) & 0xFF) <= 2);
+        assertTrue((destination.getRGB(249, 0) & 0xFF) >= 253);
+    }
+
+    /**
+     * Tests that transparent pixels do not darken their neighbours, and that they are drawn over black
+     * in a destination without transparency.
+     */
+    @Test
+    public void testTransparency() {
+        BufferedImage source = filled(200, 100, BufferedImage.TYPE_INT_ARGB, new Color(0, 0, 0, 0));
+        Graphics2D g2d = source.createGraphics();
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, 100, 100);
+        g2d.dispose();
+
+        BufferedImage scaled = ImageScaler.scale(source, 20, 10);
+        BufferedImage opaque = ImageScaler.scale(source, new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(BufferedImage.TYPE_INT_ARGB, scaled.getType());
+        assertEquals(0xFFFF0000, scaled.getRGB(2, 5));
+        assertEquals(0, scaled.getRGB(17, 5) >>> 24);
+        // The pixel straddling the edge is half covered, but still pure red.
+        assertEquals(0xFF0000, scaled.getRGB(10, 5) & 0xFFFFFF);
+        assertEquals(0xFF000000, opaque.getRGB(17, 5));
+        assertEquals(0xFFFF0000, opaque.getRGB(2, 5));
+    }
+
+    /**
+     * Tests that an image can be enlarged.
+     */
+    @Test
+    public void testUpscaling() {
+        BufferedImage source = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(0, 0, 0x000000);
+        source.setRGB(1, 0, 0xFFFFFF);
+
+        BufferedImage scaled = ImageScaler.scale(source, 8, 4);
+
+        assertEquals(0x000000, scaled.getRGB(0, 0) & 0xFFFFFF);
+        assertEquals(0xFFFFFF, scaled.getRGB(7, 3) & 0xFFFFFF);
+        int middle = scaled.getRGB(4, 2) & 0xFF;
+        assertTrue(middle > 0 && middle < 255);
+    }
+}
@@ -0,0 +1,93 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+import ca.ucalgary.edu.ensf380.train.LineTopology;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the LineTopology class.
+ */
+public class LineTopologyTest {
+
+    private StationRegistry registry;
+    private LineTopology topology;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a network with two lines sharing one interchange before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        registry = TestStations.load(tempFolder,
+                "1,R,01,R01,Station One,10,20,",
+                "2,R,02,R02,Station Two,30,40,\"B02, G01\"",
+                "3,R,03,R03,Station Three,50,60,",
+                "4,B,01,B01,Station Four,70,80,",
+                "5,B,02,B02,Station Five,90,100,R02");
+        topology = registry.getTopology();
+    }
+
+    /**
+     * Tests next and previous lookups in both directions of travel.
+     */
+    @Test
+    public void testNextAndPrevious() {
+        int r02 = registry.getOrdinal("R02");
+        assertEquals(registry.getOrdinal("R03"), topology.next(r02, true));
+        assertEquals(registry.getOrdinal("R01"), topology.previous(r02, true));
+        assertEquals(registry.getOrdinal("R01"), topology.next(r02, false));
+        assertEquals(registry.getOrdinal("R03"), topology.previous(r02, false));
+    }
+
+    /**
+     * Tests that lines do not link into each other at their ends.
+     */
+    @Test
+    public void testEndsOfLine() {
+        assertEquals(LineTopology.NO_STATION, topology.next(registry.getOrdinal("R03"), true));
+        assertEquals(LineTopology.NO_STATION, topology.previous(registry.getOrdinal("B01"), true));
+        assertEquals(LineTopology.NO_STATION, topology.next(registry.getOrdinal("B01"), false));
+        assertEquals(LineTopology.NO_STATION, topology.next(LineTopology.NO_STATION, true));
+    }
+
+    /**
+     * Tests walking several stations, stopping at the destination.
+     */
+    @Test
+    public void testAdvance() {
+        int r01 = registry.getOrdinal("R01");
+        assertEquals(registry.getOrdinal("R03"), topology.advance(r01, true, 2, LineTopology.NO_STATION));
+        assertEquals(LineTopology.NO_STATION, topology.advance(r01, true, 3, LineTopology.NO_STATION));
+        assertEquals(LineTopology.NO_STATION, topology.advance(r01, true, 2, registry.getOrdinal("R02")));
+    }
+
+    /**
+     * Tests that interchanges are read from the "Common Stations" column and unknown codes are dropped.
+     */
+    @Test
+    public void testTransfers() {
+        StationInfo r02 = registry.getStation("R02");
+        assertEquals(2, r02.getCommonStations().size());
+
+        int ordinal = registry.getOrdinal("R02");
+        assertEquals(1, topology.getTransferCount(ordinal));
+        assertEquals(registry.getOrdinal("B02"), topology.getTransfer(ordinal, 0));
+        assertEquals(0, topology.getTransferCount(registry.getOrdinal("R01")));
+    }
+}
@@ -0,0 +1,120 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.NetworkSnapshotPublisher;
+import ca.ucalgary.edu.ensf380.train.TrainFeedSource;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the NetworkSnapshot and NetworkSnapshotPublisher classes.
+ */
+public class NetworkSnapshotPublisherTest {
+
+    private TrainFeedSource feedSource;
+    private Queue<Runnable> deliveries;
+    private NetworkSnapshotPublisher publisher;
+    private List<NetworkSnapshot> delivered;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a small one-line network and a publisher whose deliveries are run by hand.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        feedSource = new TrainFeedSource(TestStations.load(tempFolder,
+                "1,R,01,R01,Red One,10,20,",
+                "2,R,02,R02,Red Two,30,40,",
+                "3,R,03,R03,Red Three,50,60,"));
+
+        deliveries = new ArrayDeque<>();
+        publisher = new NetworkSnapshotPublisher(deliveries::add);
+        delivered = new ArrayList<>();
+        publisher.addCallback(delivered::add);
+    }
+
+    /**
+     * Runs every queued delivery.
+     */
+    private void runDeliveries() {
+        while (!deliveries.isEmpty()) {
+            deliveries.poll().run();
+        }
+    }
+
+    /**
+     * Tests that each published tick gets the next epoch and its own copy of the trains.
+     */
+    @Test
+    public void testPublishNumbersSnapshots() {
+        assertSame(NetworkSnapshot.EMPTY, publisher.getLatest());
+
+        TrainStatus[] trains = feedSource.processLine("R: T1(R01, F), T2(R02, F)");
+        NetworkSnapshot first = publisher.publish(trains);
+        trains[0] = null;
+        NetworkSnapshot second = publisher.publish(feedSource.processLine("R: T1(R02, F), T2(R03, F)"));
+
+        assertEquals(1, first.getEpoch());
+        assertEquals(2, second.getEpoch());
+        assertTrue(second.isNewerThan(first));
+        assertSame(second, publisher.getLatest());
+        assertEquals(1, first.getTrain(0).getTrainId());
+        assertEquals(2, first.getTrainCount());
+        assertNull(first.getTrain(2));
+    }
+
+    /**
+     * Tests that ticks published before a delivery runs are coalesced into the newest one.
+     */
+    @Test
+    public void testStaleTicksAreCoalesced() {
+        publisher.publish(feedSource.processLine("R: T1(R01, F)"));
+        publisher.publish(feedSource.processLine("R: T1(R02, F)"));
+        publisher.publish(feedSource.processLine("R: T1(R03, F)"));
+        assertEquals(1, deliveries.size());
+
+        runDeliveries();
+        assertEquals(1, delivered.size());
+        assertEquals(3, delivered.get(0).getEpoch());
+        assertEquals("R03", delivered.get(0).getTrain(0).getCurrentStationId());
+
+        publisher.publish(feedSource.processLine("R: T1(R02, B)"));
+        runDeliveries();
+        assertEquals(2, delivered.size());
+        assertEquals(4, delivered.get(1).getEpoch());
+    }
+
+    /**
+     * Tests that every callback of a delivery gets the same snapshot.
+     */
+    @Test
+    public void testCallbacksShareOneEpoch() {
+        List<NetworkSnapshot> other = new ArrayList<>();
+        publisher.addCallback(other::add);
+
+        publisher.publish(feedSource.processLine("R: T1(R01, F)"));
+        runDeliveries();
+
+        assertEquals(1, other.size());
+        assertSame(delivered.get(0), other.get(0));
+    }
+}
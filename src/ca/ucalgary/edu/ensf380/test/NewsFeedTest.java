@@ -0,0 +1,145 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.Article;
+import ca.ucalgary.edu.ensf380.news.ArticleRequester;
+import ca.ucalgary.edu.ensf380.news.NewsFeed;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the NewsFeed class.
+ */
+public class NewsFeedTest {
+
+    private Path directory;
+    private FakeRequester requester;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * An article requester that hands out prepared responses instead of calling the news API.
+     */
+    private static class FakeRequester extends ArticleRequester {
+        private final List<List<Article>> responses = new ArrayList<>();
+        private final List<Instant> fromTimes = new ArrayList<>();
+
+        @Override
+        public List<Article> fetchNews(String query, String sortBy, int numberOfArticles, Instant from) {
+            fromTimes.add(from);
+            return responses.isEmpty() ? null : responses.remove(0);
+        }
+    }
+
+    /**
+     * Creates an empty cache directory and a requester without responses before each test.
+     *
+     * @throws IOException if the cache directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = tempFolder.newFolder("news-cache").toPath();
+        requester = new FakeRequester();
+    }
+
+    /**
+     * Creates an article whose fields are derived from its title.
+     *
+     * @param title the title
+     * @return the article
+     */
+    private static Article article(String title) {
+        return new Article(title, title + " description", title + " content");
+    }
+
+    /**
+     * Tests that new articles are merged in front, repeated titles are left out and the oldest
+     * articles are dropped once the feed is full.
+     */
+    @Test
+    public void testRefreshMergesNewArticles() {
+        NewsFeed feed = new NewsFeed(requester, "Calgary", 4, directory);
+        requester.responses.add(Arrays.asList(article("b"), article("c"), article("d")));
+        requester.responses.add(Arrays.asList(article("a"), article("B"), article("e"), article("a")));
+
+        assertTrue(feed.refresh());
+        assertEquals(List.of(article("b"), article("c"), article("d")), feed.getArticles());
+        assertTrue(feed.refresh());
+        assertEquals(List.of(article("a"), article("e"), article("b"), article("c")), feed.getArticles());
+    }
+
+    /**
+     * Tests that only the first refresh fetches without a start time.
+     */
+    @Test
+    public void testLaterRefreshesAreIncremental() {
+        NewsFeed feed = new NewsFeed(requester, "Calgary", 10, directory);
+        requester.responses.add(List.of(article("a")));
+        requester.responses.add(List.of());
+
+        Instant before = Instant.now();
+        feed.refresh();
+        feed.refresh();
+
+        assertNull(requester.fromTimes.get(0));
+        assertFalse(requester.fromTimes.get(1).isBefore(before));
+    }
+
+    /**
+     * Tests that a failed refresh keeps the current articles.
+     */
+    @Test
+    public void testFailedRefreshKeepsArticles() {
+        NewsFeed feed = new NewsFeed(requester, "Calgary", 10, directory);
+        requester.responses.add(List.of(article("a")));
+
+        assertTrue(feed.refresh());
+        assertFalse(feed.refresh());
+        assertEquals(List.of(article("a")), feed.getArticles());
+    }
+
+    /**
+     * Tests that a new feed starts from the saved articles and fetches only newer ones.
+     */
+    @Test
+    public void testSavedArticlesAreLoadedAtStartup() {
+        NewsFeed feed = new NewsFeed(requester, "Calgary Transit", 10, directory);
+        requester.responses.add(List.of(new Article("Quote \"x\"", "Line\nbreak", "Tab\tand \\")));
+        feed.refresh();
+        assertTrue(directory.resolve("calgary_transit.json").toFile().isFile());
+
+        FakeRequester offline = new FakeRequester();
+        NewsFeed restarted = new NewsFeed(offline, "Calgary Transit", 10, directory);
+        assertEquals(feed.getArticles(), restarted.getArticles());
+
+        restarted.refresh();
+        assertNotNull(offline.fromTimes.get(0));
+        assertEquals(feed.getArticles(), restarted.getArticles());
+    }
+
+    /**
+     * Tests that the articles handed out cannot be changed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testArticlesAreImmutable() {
+        NewsFeed feed = new NewsFeed(requester, "Calgary", 10, null);
+        requester.responses.add(new ArrayList<>(List.of(article("a"))));
+        feed.refresh();
+        feed.getArticles().add(article("b"));
+    }
+}
@@ -0,0 +1,184 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.SnapshotRetentionManager;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SnapshotRetentionManager class.
+ */
+public class SnapshotRetentionManagerTest {
+
+    private StationRegistry registry;
+    private Path outputDirectory;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a one-line network and an empty output directory before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary files
+     */
+    @Before
+    public void setUp() throws IOException {
+        registry = TestStations.load(tempFolder,
+                "1,R,01,R01,Red One,10,20,",
+                "2,R,02,R02,Red Two,30,40,",
+                "3,R,03,R03,Red Three,50,60,");
+        outputDirectory = tempFolder.newFolder("out").toPath();
+    }
+
+    /**
+     * Tests that only the newest snapshots stay in the output directory.
+     *
+     * @throws IOException if an I/O error occurs while compacting
+     */
+    @Test
+    public void testEnforceKeepsNewestSnapshots() throws IOException {
+        writeSnapshot(1000, "R01");
+        writeSnapshot(2000, "R02");
+        writeSnapshot(3000, "R03");
+
+        SnapshotRetentionManager manager = new SnapshotRetentionManager(outputDirectory, 1, 1024 * 1024, registry);
+        assertEquals(2, manager.enforce());
+        assertEquals(0, manager.enforce());
+
+        assertFalse(Files.exists(outputDirectory.resolve("Trains_1000.csv")));
+        assertFalse(Files.exists(outputDirectory.resolve("Trains_2000.csv")));
+        assertTrue(Files.exists(outputDirectory.resolve("Trains_3000.csv")));
+        assertTrue(Files.exists(manager.getHistoryFile()));
+    }
+
+    /**
+     * Tests that compacted snapshots can be replayed by time range.
+     *
+     * @throws IOException if an I/O error occurs while compacting or replaying
+     */
+    @Test
+    public void testReplayByTimeRange() throws IOException {
+        writeSnapshot(1000, "R01");
+        writeSnapshot(2000, "R02");
+        writeSnapshot(3000, "R03");
+        writeSnapshot(4000, "R03");
+
+        SnapshotRetentionManager manager = new SnapshotRetentionManager(outputDirectory, 1, 1024 * 1024, registry);
+        manager.enforce();
+
+        List<TrainStatus[]> replayed = new ArrayList<>();
+        manager.replay(1500, 3000, replayed::add);
+
+        assertEquals(2, replayed.size());
+        assertEquals("Red Two", replayed.get(0)[0].getCurrentStationName());
+        assertEquals("Red Three", replayed.get(1)[0].getCurrentStationName());
+    }
+
+    /**
+     * Tests that a replay seeks past the entries before its range using the index, so an earlier entry
+     * that could not be parsed is never read.
+     *
+     * @throws IOException if an I/O error occurs while compacting or replaying
+     */
+    @Test
+    public void testReplaySeeksWithIndex() throws IOException {
+        writeSnapshot(1000, "R01");
+        writeSnapshot(2000, "R02");
+        writeSnapshot(3000, "R03");
+        writeSnapshot(4000, "R03");
+
+        SnapshotRetentionManager manager = new SnapshotRetentionManager(outputDirectory, 1, 1024 * 1024, registry);
+        manager.enforce();
+        Path history = manager.getHistoryFile();
+        Files.writeString(history, Files.readString(history).replaceFirst("# 1000", "# xxxx"));
+
+        List<TrainStatus[]> replayed = new ArrayList<>();
+        manager.replay(2500, 3000, replayed::add);
+
+        assertEquals(1, replayed.size());
+        assertEquals("Red Three", replayed.get(0)[0].getCurrentStationName());
+    }
+
+    /**
+     * Tests that a history without an index, or with an index that does not match it, is still replayed
+     * in full by scanning it.
+     *
+     * @throws IOException if an I/O error occurs while compacting or replaying
+     */
+    @Test
+    public void testReplayWithoutUsableIndex() throws IOException {
+        writeSnapshot(1000, "R01");
+        writeSnapshot(2000, "R02");
+        writeSnapshot(3000, "R03");
+        writeSnapshot(4000, "R03");
+
+        SnapshotRetentionManager manager = new SnapshotRetentionManager(outputDirectory, 1, 1024 * 1024, registry);
+        manager.enforce();
+        Path index = manager.getHistoryFile().resolveSibling("trains_history.idx");
+        assertEquals(3 * 2 * Long.BYTES, Files.size(index));
+
+        List<TrainStatus[]> replayed = new ArrayList<>();
+        byte[] stale = Files.readAllBytes(index);
+        // Points the entry at 2000, which the replay seeks to, at the entry of 3000 instead.
+        System.arraycopy(stale, 5 * Long.BYTES, stale, 3 * Long.BYTES, Long.BYTES);
+        Files.write(index, stale);
+        manager.replay(2500, 3000, replayed::add);
+
+        Files.delete(index);
+        manager.replay(2500, 3000, replayed::add);
+
+        assertEquals(2, replayed.size());
+        assertEquals("Red Three", replayed.get(0)[0].getCurrentStationName());
+        assertEquals("Red Three", replayed.get(1)[0].getCurrentStationName());
+    }
+
+    /**
+     * Tests that the history is rolled over once it reaches its size cap.
+     *
+     * @throws IOException if an I/O error occurs while compacting or replaying
+     */
+    @Test
+    public void testHistorySizeCap() throws IOException {
+        for (int i = 1; i <= 6; i++) {
+            writeSnapshot(i * 1000L, "R01");
+        }
+
+        SnapshotRetentionManager manager = new SnapshotRetentionManager(outputDirectory, 1, 40, registry);
+        manager.enforce();
+
+        assertTrue(Files.size(manager.getHistoryFile()) <= 40);
+
+        List<TrainStatus[]> replayed = new ArrayList<>();
+        manager.replay(0, Long.MAX_VALUE, replayed::add);
+        assertTrue(replayed.size() < 5);
+        assertFalse(replayed.isEmpty());
+    }
+
+    /**
+     * Writes a simulator snapshot with a single train.
+     *
+     * @param epochMillis the time in the file name
+     * @param stationCode the station the train is at
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    private void writeSnapshot(long epochMillis, String stationCode) throws IOException {
+        Files.writeString(outputDirectory.resolve("Trains_" + epochMillis + ".csv"),
+                "LineName,TrainNumber,StationCode,Direction,Destination\n" +
+                        "R,1," + stationCode + ",forward,R03\n");
+    }
+}
@@ -0,0 +1,227 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.SnapshotRingReader;
+import ca.ucalgary.edu.ensf380.train.SnapshotRingWriter;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+import ca.ucalgary.edu.ensf380.train.TrainDataCollector;
+import ca.ucalgary.edu.ensf380.train.TrainFeedSource;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SnapshotRingWriter and SnapshotRingReader classes.
+ */
+public class SnapshotRingTest {
+
+    private StationRegistry registry;
+    private TrainFeedSource feedSource;
+    private Path ringFile;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a small two-line network before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        registry = TestStations.load(tempFolder,
+                "1,R,01,R01,Red One,10,20,",
+                "2,R,02,R02,Red Two,30,40,",
+                "3,R,03,R03,Red Three,50,60,",
+                "4,B,01,B01,Blue One,70,80,",
+                "5,B,02,B02,Blue Two,90,100,");
+        feedSource = new TrainFeedSource(registry);
+        ringFile = tempFolder.getRoot().toPath().resolve(SnapshotRingWriter.DEFAULT_FILE_NAME);
+    }
+
+    /**
+     * Parses a complete tick of simulator output.
+     *
+     * @param red  the output line of the red line
+     * @param blue the output line of the blue line
+     * @return the snapshot
+     */
+    private TrainStatus[] tick(String red, String blue) {
+        feedSource.processLine(red);
+        return feedSource.processLine(blue);
+    }
+
+    /**
+     * Tests that a written tick is read back with the same trains.
+     *
+     * @throws IOException if the ring cannot be opened
+     */
+    @Test
+    public void testWriteAndReadLatest() throws IOException {
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry);
+             SnapshotRingReader reader = new SnapshotRingReader(ringFile, registry)) {
+            assertEquals(0, reader.getSequence());
+            assertNull(reader.readLatest());
+
+            assertEquals(1, writer.write(tick("R: T1(R02, F), T2(R03, B)", "B: T3(B01, F)")));
+            assertEquals(1, reader.getSequence());
+
+            TrainStatus[] trains = reader.readLatest();
+            assertEquals(3, trains.length);
+            assertEquals(1, trains[0].getTrainId());
+            assertEquals("R", trains[0].getRouteName());
+            assertEquals("R02", trains[0].getCurrentStationId());
+            assertEquals("Red Three", trains[0].getNextStationName(0));
+            assertEquals("backward", trains[1].getMovementDirection());
+            assertEquals("R01", trains[1].getEndStation());
+            assertEquals("B", trains[2].getRouteName());
+            assertEquals("B02", trains[2].getEndStation());
+        }
+    }
+
+    /**
+     * Tests that the newest tick is read after the ring wraps around.
+     *
+     * @throws IOException if the ring cannot be opened
+     */
+    @Test
+    public void testWrapAround() throws IOException {
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 2, 8, registry);
+             SnapshotRingReader reader = new SnapshotRingReader(ringFile, registry)) {
+            writer.write(tick("R: T1(R01, F)", "B: T2(B01, F)"));
+            writer.write(tick("R: T1(R02, F)", "B: T2(B02, B)"));
+            writer.write(tick("R: T1(R03, B)", "B: T2(B01, F)"));
+
+            assertEquals(3, reader.getSequence());
+            TrainStatus[] trains = reader.readLatest();
+            assertEquals("R03", trains[0].getCurrentStationId());
+            assertEquals("B01", trains[1].getCurrentStationId());
+        }
+    }
+
+    /**
+     * Tests that reopening a ring with the same layout continues its sequence.
+     *
+     * @throws IOException if the ring cannot be opened
+     */
+    @Test
+    public void testReopenKeepsSequence() throws IOException {
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            writer.write(tick("R: T1(R01, F)", "B: T2(B01, F)"));
+            writer.write(tick("R: T1(R02, F)", "B: T2(B02, B)"));
+        }
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            assertEquals(2, writer.getSequence());
+            assertEquals(3, writer.write(tick("R: T1(R03, B)", "B: T2(B01, F)")));
+        }
+    }
+
+    /**
+     * Tests that a snapshot larger than a slot is rejected.
+     *
+     * @throws IOException if the ring cannot be opened
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotExceedsCapacity() throws IOException {
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 1, registry)) {
+            writer.write(tick("R: T1(R01, F)", "B: T2(B01, F)"));
+        }
+    }
+
+    /**
+     * Tests that a file that is not a ring is rejected.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Files.write(ringFile, new byte[128]);
+        new SnapshotRingReader(ringFile, registry).close();
+    }
+
+    /**
+     * Tests that the TrainDataCollector reads the ring when the output directory has one.
+     *
+     * @throws Exception if the ring cannot be written or read
+     */
+    @Test
+    public void testCollectorReadsRing() throws Exception {
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            writer.write(tick("R: T1(R02, F)", "B: T2(B01, F)"));
+        }
+
+        TrainStatus[] trains = new TrainDataCollector(registry, tempFolder.getRoot().toPath()).collectTrainData();
+        assertEquals(2, trains.length);
+        assertEquals("R02", trains[0].getCurrentStationId());
+    }
+
+    /**
+     * Tests that a ring left over from an earlier run is not used when a CSV file is newer than its newest
+     * tick, and that it is used again once it advances.
+     *
+     * @throws Exception if the ring or the CSV file cannot be written or read
+     */
+    @Test
+    public void testCollectorPrefersNewerCsvOverStaleRing() throws Exception {
+        Path directory = tempFolder.getRoot().toPath();
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            writer.write(tick("R: T1(R02, F)", "B: T2(B01, F)"));
+        }
+        Path csvFile = directory.resolve("Trains_1.csv");
+        Files.writeString(csvFile, "LineName,TrainNumber,StationCode,Direction,Destination\n"
+                + "R,7,R03,backward,R01\n");
+        Files.setLastModifiedTime(csvFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        TrainDataCollector collector = new TrainDataCollector(registry, directory);
+        TrainStatus[] trains = collector.collectTrainData();
+        assertEquals(1, trains.length);
+        assertEquals(7, trains[0].getTrainId());
+        assertEquals(7, collector.collectTrainData()[0].getTrainId());
+
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            writer.write(tick("R: T1(R01, F)", "B: T2(B02, B)"));
+        }
+        trains = collector.collectTrainData();
+        assertEquals(2, trains.length);
+        assertEquals("R01", trains[0].getCurrentStationId());
+    }
+
+    /**
+     * Tests that a trusted ring that has not advanced hands back the trains it read last time without
+     * looking at the CSV files, and that the next tick is read once its sequence moves.
+     *
+     * @throws Exception if the ring or the CSV file cannot be written or read
+     */
+    @Test
+    public void testCollectorReusesTickUntilRingAdvances() throws Exception {
+        Path directory = tempFolder.getRoot().toPath();
+        TrainDataCollector collector = new TrainDataCollector(registry, directory);
+        try (SnapshotRingWriter writer = new SnapshotRingWriter(ringFile, 4, 8, registry)) {
+            writer.write(tick("R: T1(R02, F)", "B: T2(B01, F)"));
+            TrainStatus[] first = collector.collectTrainData();
+
+            Path csvFile = directory.resolve("Trains_1.csv");
+            Files.writeString(csvFile, "LineName,TrainNumber,StationCode,Direction,Destination\n"
+                    + "R,7,R03,backward,R01\n");
+            Files.setLastModifiedTime(csvFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+            assertSame(first, collector.collectTrainData());
+
+            writer.write(tick("R: T1(R03, F)", "B: T2(B02, F)"));
+            TrainStatus[] second = collector.collectTrainData();
+            assertNotSame(first, second);
+            assertEquals("R03", second[0].getCurrentStationId());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the StationRegistry class.
+ */
+public class StationRegistryTest {
+
+    private StationRegistry registry;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a registry backed by a small two-line network before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        registry = TestStations.load(tempFolder,
+                "1,R,01,R01,Station One,10,20,",
+                "2,R,02,R02,Station Two,30,40,B01",
+                "3,R,03,R03,Station Three,50,60,",
+                "4,B,01,B01,Station Four,70,80,R02");
+    }
+
+    /**
+     * Tests that stations can be looked up by station code.
+     */
+    @Test
+    public void testGetStationByCode() {
+        assertEquals(4, registry.size());
+        assertEquals("Station Two", registry.getStation("R02").getStationLabel());
+        assertNull(registry.getStation("X99"));
+        assertNull(registry.getStation(null));
+    }
+
+    /**
+     * Tests that ordinals follow the order of the data source.
+     */
+    @Test
+    public void testOrdinals() {
+        assertEquals(0, registry.getOrdinal("R01"));
+        assertEquals(3, registry.getOrdinal("B01"));
+        assertEquals(-1, registry.getOrdinal("X99"));
+        assertSame(registry.getStation("R03"), registry.getStation(registry.getOrdinal("R03")));
+    }
+
+    /**
+     * Tests that stations are grouped by line in data source order.
+     */
+    @Test
+    public void testGetLineStations() {
+        List<StationInfo> red = registry.getLineStations("R");
+        assertEquals(3, red.size());
+        assertEquals("R01", red.get(0).getStationIdentifier());
+        assertEquals("R03", red.get(2).getStationIdentifier());
+        assertTrue(registry.getLineStations("G").isEmpty());
+    }
+
+    /**
+     * Tests that the registry cannot be modified through its views.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreImmutable() {
+        registry.getLineStations("R").clear();
+    }
+
+    /**
+     * Tests that a TrainStatus resolves its stations through the registry.
+     */
+    @Test
+    public void testTrainStatusUsesRegistry() {
+        TrainStatus status = new TrainStatus(registry, "R", 1, "R01", "forward", "R03", "R02", "R00");
+        assertEquals("Station One", status.getCurrentStationName());
+        assertEquals("Station Two", status.getNextStationName(0));
+        assertEquals("Station Three", status.getNextStationName(1));
+        assertEquals("", status.getPreviousStationName());
+        assertEquals(10, status.getCurrentStationX());
+    }
+}
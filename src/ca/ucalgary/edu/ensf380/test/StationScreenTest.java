@@ -0,0 +1,136 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.StationScreen;
+import ca.ucalgary.edu.ensf380.advertisement.AdvertisementDisplay;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.news.ArticleDisplay;
+import ca.ucalgary.edu.ensf380.train.TrainFeedSource;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+import ca.ucalgary.edu.ensf380.weather.WeatherDisplay;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the StationScreen class.
+ */
+public class StationScreenTest {
+
+    private NetworkSnapshot snapshot;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Builds a snapshot of two trains on a small one-line network before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        TrainFeedSource feedSource = new TrainFeedSource(TestStations.load(tempFolder,
+                "1,R,01,R01,Red One,10,20,",
+                "2,R,02,R02,Red Two,30,40,",
+                "3,R,03,R03,Red Three,50,60,"));
+        snapshot = new NetworkSnapshot(1, 0, feedSource.processLine("R: T1(R01, F), T2(R02, F)"));
+    }
+
+    /**
+     * Creates a screen following the given train, without fetching weather.
+     *
+     * @param focusedTrain the index of the train to follow
+     * @return the screen
+     */
+    private StationScreen createScreen(int focusedTrain) {
+        AdvertisementDisplay advertisementDisplay =
+                new AdvertisementDisplay(new ArrayList<>(), new TrainMapVisualizer(), focusedTrain);
+        WeatherDisplay weatherDisplay = new WeatherDisplay(new ArticleDisplay(new ArrayList<>()), "Calgary", false);
+        return new StationScreen(focusedTrain, advertisementDisplay, weatherDisplay);
+    }
+
+    /**
+     * Tests that each screen shows the train it follows.
+     *
+     * @throws Exception if the screens cannot be created on the event dispatch thread
+     */
+    @Test
+    public void testShowTrainUsesFocusedTrain() throws Exception {
+        TrainStatus[][] shown = new TrainStatus[2][];
+        SwingUtilities.invokeAndWait(() -> {
+            shown[0] = new TrainStatus[] { createScreen(0).showTrain(snapshot) };
+            shown[1] = new TrainStatus[] { createScreen(1).showTrain(snapshot) };
+        });
+
+        assertEquals(1, shown[0][0].getTrainId());
+        assertEquals(2, shown[1][0].getTrainId());
+    }
+
+    /**
+     * Tests that a screen following a train missing from the snapshot shows nothing.
+     *
+     * @throws Exception if the screen cannot be created on the event dispatch thread
+     */
+    @Test
+    public void testShowTrainMissingFromSnapshot() throws Exception {
+        TrainStatus[] shown = new TrainStatus[1];
+        SwingUtilities.invokeAndWait(() -> shown[0] = createScreen(5).showTrain(snapshot));
+
+        assertNull(shown[0]);
+    }
+
+    /**
+     * Tests that a snapshot that is not newer than the one shown is ignored.
+     *
+     * @throws Exception if the screen cannot be created on the event dispatch thread
+     */
+    @Test
+    public void testShowTrainIgnoresStaleSnapshot() throws Exception {
+        NetworkSnapshot newer = new NetworkSnapshot(2, 0, new TrainStatus[] { snapshot.getTrain(1) });
+        TrainStatus[] shown = new TrainStatus[2];
+        StationScreen[] screen = new StationScreen[1];
+        SwingUtilities.invokeAndWait(() -> {
+            screen[0] = createScreen(0);
+            shown[0] = screen[0].showTrain(newer);
+            shown[1] = screen[0].showTrain(snapshot);
+        });
+
+        assertEquals(2, shown[0].getTrainId());
+        assertNull(shown[1]);
+        assertEquals(2, screen[0].getShownEpoch());
+    }
+
+    /**
+     * Tests that a screen can be painted into an image without a window.
+     *
+     * @throws Exception if the screen cannot be painted on the event dispatch thread
+     */
+    @Test
+    public void testPaintOffscreen() throws Exception {
+        BufferedImage image = new BufferedImage(StationScreen.SCREEN_WIDTH, StationScreen.SCREEN_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        StationScreen[] screen = new StationScreen[1];
+        SwingUtilities.invokeAndWait(() -> {
+            screen[0] = createScreen(0);
+            screen[0].showTrain(snapshot);
+            screen[0].paintOffscreen(image);
+        });
+
+        assertEquals(StationScreen.SCREEN_WIDTH, screen[0].getWidth());
+        assertEquals(StationScreen.SCREEN_HEIGHT, screen[0].getHeight());
+        // The station panel along the bottom is dark gray.
+        assertEquals(0x404040, image.getRGB(5, StationScreen.SCREEN_HEIGHT - 5) & 0xFFFFFF);
+    }
+}
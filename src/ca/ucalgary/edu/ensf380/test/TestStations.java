@@ -0,0 +1,43 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.train.StationDataImporter;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Builds small station networks for the tests from rows of the station file.
+ */
+final class TestStations {
+
+    private static final String HEADER = "Row,Line,StationNumber,StationCode,StationName,X,Y,Common Stations";
+
+    private TestStations() {
+    }
+
+    /**
+     * Writes a station file with the given rows to a temporary folder and loads a registry from it.
+     *
+     * @param tempFolder the folder to write the station file to
+     * @param rows       the rows of the station file, without the header
+     * @return the registry of the stations
+     * @throws IOException if the station file cannot be written
+     */
+    static StationRegistry load(TemporaryFolder tempFolder, String... rows) throws IOException {
+        File csvFile = tempFolder.newFile("test_stations.csv");
+        try (FileWriter writer = new FileWriter(csvFile)) {
+            writer.write(HEADER + "\n");
+            for (String row : rows) {
+                writer.write(row + "\n");
+            }
+        }
+
+        StationDataImporter importer = new StationDataImporter();
+        importer.setDataSource(csvFile.getAbsolutePath());
+        return StationRegistry.load(importer);
+    }
+}
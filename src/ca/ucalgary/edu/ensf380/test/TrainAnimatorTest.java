@@ -0,0 +1,221 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.train.StationRegistry;
+import ca.ucalgary.edu.ensf380.train.TrainAnimator;
+import ca.ucalgary.edu.ensf380.train.TrainFeedSource;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrainAnimator class, rendering frames at explicit times instead of from its timer.
+ * The Red line bends once, so a path along it is a polyline rather than a straight line.
+ */
+public class TrainAnimatorTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    /**
+     * The coordinates of the stations R01 to R09, in order along the line.
+     */
+    private static final double[][] LINE = {
+            { 0, 0 }, { 300, 0 }, { 300, 400 }, { 400, 400 }, { 500, 400 },
+            { 600, 400 }, { 700, 400 }, { 800, 400 }, { 900, 400 } };
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private TrainFeedSource feedSource;
+    private RecordingVisualizer visualizer;
+    private TrainAnimator animator;
+    private long epoch;
+
+    /**
+     * A visualizer that records the marker positions of every frame instead of drawing them.
+     */
+    private static class RecordingVisualizer extends TrainMapVisualizer {
+        private final List<int[][]> frames = new ArrayList<>();
+
+        @Override
+        public void renderTrainMap(int[] xPositions, int[] yPositions, int count, int focusedTrain) {
+            frames.add(new int[][] { Arrays.copyOf(xPositions, count), Arrays.copyOf(yPositions, count) });
+        }
+
+        /**
+         * Gets the position of a train in the latest frame.
+         *
+         * @param train the index of the train
+         * @return the x- and y-coordinate of the train
+         */
+        int[] position(int train) {
+            int[][] frame = frames.get(frames.size() - 1);
+            return new int[] { frame[0][train], frame[1][train] };
+        }
+    }
+
+    /**
+     * Loads the Red line and creates an animator on a recording visualizer before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        String[] rows = new String[LINE.length];
+        for (int i = 0; i < LINE.length; i++) {
+            rows[i] = (i + 1) + ",R,0" + (i + 1) + ",R0" + (i + 1) + ",Red " + (i + 1) + ","
+                    + (int) LINE[i][0] + "," + (int) LINE[i][1] + ",";
+        }
+        StationRegistry registry = TestStations.load(tempFolder, rows);
+        feedSource = new TrainFeedSource(registry);
+        visualizer = new RecordingVisualizer();
+        animator = new TrainAnimator(registry, visualizer, -1);
+    }
+
+    /**
+     * Hands the animator the next snapshot of the Red line.
+     *
+     * @param trains the trains of the line, as the simulator prints them
+     */
+    private void deliver(String trains) {
+        epoch++;
+        animator.onNetworkSnapshot(new NetworkSnapshot(epoch, 0, feedSource.processLine("R: " + trains)));
+    }
+
+    /**
+     * Gets the point at a distance along the line from R01.
+     *
+     * @param travelled the distance along the line
+     * @return the x- and y-coordinate of the point
+     */
+    private static double[] pointAt(double travelled) {
+        for (int k = 1; k < LINE.length; k++) {
+            double segment = Math.hypot(LINE[k][0] - LINE[k - 1][0], LINE[k][1] - LINE[k - 1][1]);
+            if (travelled <= segment) {
+                double t = travelled / segment;
+                return new double[] { LINE[k - 1][0] + (LINE[k][0] - LINE[k - 1][0]) * t,
+                        LINE[k - 1][1] + (LINE[k][1] - LINE[k - 1][1]) * t };
+            }
+            travelled -= segment;
+        }
+        return LINE[LINE.length - 1];
+    }
+
+    /**
+     * Gets the distance from a point to the nearest segment of the line.
+     *
+     * @param point the x- and y-coordinate of the point
+     * @return the distance to the line
+     */
+    private static double distanceToLine(int[] point) {
+        double nearest = Double.MAX_VALUE;
+        for (int k = 1; k < LINE.length; k++) {
+            double dx = LINE[k][0] - LINE[k - 1][0];
+            double dy = LINE[k][1] - LINE[k - 1][1];
+            double t = ((point[0] - LINE[k - 1][0]) * dx + (point[1] - LINE[k - 1][1]) * dy) / (dx * dx + dy * dy);
+            t = Math.max(0, Math.min(1, t));
+            nearest = Math.min(nearest, Math.hypot(point[0] - (LINE[k - 1][0] + dx * t),
+                    point[1] - (LINE[k - 1][1] + dy * t)));
+        }
+        return nearest;
+    }
+
+    /**
+     * Asserts that a train is at a point, allowing for rounding to whole pixels.
+     *
+     * @param expected the x- and y-coordinate the train should be at
+     * @param actual   the x- and y-coordinate of the train
+     */
+    private static void assertAt(double[] expected, int[] actual) {
+        assertEquals(expected[0], actual[0], 0.5);
+        assertEquals(expected[1], actual[1], 0.5);
+    }
+
+    /**
+     * Tests that a train moves by distance along the bend of its line over the time between two snapshots,
+     * stays on the line in every frame, and lands on its station at the end of the window.
+     */
+    @Test
+    public void testMarkersFollowThePolyline() {
+        deliver("T1(R01, F)");
+        animator.renderFrame(0);
+        assertAt(LINE[0], visualizer.position(0));
+
+        // R01 to R03 is 300 along the first leg and 400 along the second.
+        deliver("T1(R03, F)");
+        for (int k = 0; k < 10; k++) {
+            animator.renderFrame(SECOND + k * SECOND / 10);
+            int[] position = visualizer.position(0);
+            assertTrue(Arrays.toString(position), distanceToLine(position) <= 1.0);
+            assertAt(pointAt(700.0 * k / 10), position);
+        }
+        animator.renderFrame(2 * SECOND);
+        assertAt(LINE[2], visualizer.position(0));
+
+        int rendered = visualizer.frames.size();
+        animator.renderFrame(3 * SECOND);
+        assertEquals(rendered, visualizer.frames.size());
+    }
+
+    /**
+     * Tests that a move along at most eight stations is animated, and that a longer one jumps straight to
+     * the new station.
+     */
+    @Test
+    public void testPathIsCappedAtEightStations() {
+        deliver("T1(R01, F), T2(R01, F)");
+        animator.renderFrame(0);
+
+        // T1 passes eight stations, T2 would pass nine.
+        deliver("T1(R08, F), T2(R09, F)");
+        animator.renderFrame(SECOND);
+        assertAt(LINE[0], visualizer.position(0));
+        assertAt(LINE[8], visualizer.position(1));
+
+        animator.renderFrame(SECOND + SECOND / 2);
+        assertAt(pointAt(600), visualizer.position(0));
+        assertAt(LINE[8], visualizer.position(1));
+
+        animator.renderFrame(2 * SECOND);
+        assertAt(LINE[7], visualizer.position(0));
+        assertAt(LINE[8], visualizer.position(1));
+    }
+
+    /**
+     * Tests that a snapshot arriving mid-animation starts a new path from the station the train was heading
+     * to, timed by the shorter gap since the previous snapshot, and that a snapshot that is not newer is ignored.
+     */
+    @Test
+    public void testSnapshotArrivingMidAnimation() {
+        deliver("T1(R01, F)");
+        animator.renderFrame(0);
+        deliver("T1(R03, F)");
+        animator.renderFrame(SECOND);
+        animator.renderFrame(SECOND + SECOND / 2);
+        assertAt(pointAt(350), visualizer.position(0));
+
+        // Half a second after the previous snapshot, so the new path takes half a second.
+        deliver("T1(R05, F)");
+        animator.renderFrame(SECOND + SECOND / 2);
+        assertAt(LINE[2], visualizer.position(0));
+
+        animator.renderFrame(SECOND + 3 * SECOND / 4);
+        int[] position = visualizer.position(0);
+        assertTrue(Arrays.toString(position), distanceToLine(position) <= 1.0);
+        assertAt(pointAt(800), position);
+
+        animator.onNetworkSnapshot(new NetworkSnapshot(epoch - 1, 0, feedSource.processLine("R: T1(R09, F)")));
+        animator.renderFrame(2 * SECOND);
+        assertAt(LINE[4], visualizer.position(0));
+    }
+}
@@ -0,0 +1,98 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.TrainFeedSource;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrainFeedSource class.
+ */
+public class TrainFeedSourceTest {
+
+    private TrainFeedSource feedSource;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Sets up a feed source over a small two-line network before each test.
+     *
+     * @throws IOException if an I/O error occurs while creating the temporary CSV file
+     */
+    @Before
+    public void setUp() throws IOException {
+        feedSource = new TrainFeedSource(TestStations.load(tempFolder,
+                "1,R,01,R01,Red One,10,20,",
+                "2,R,02,R02,Red Two,30,40,",
+                "3,R,03,R03,Red Three,50,60,",
+                "4,B,01,B01,Blue One,70,80,",
+                "5,B,02,B02,Blue Two,90,100,"));
+    }
+
+    /**
+     * Tests that a snapshot is only emitted once every line has been reported.
+     */
+    @Test
+    public void testProcessLineEmitsCompleteSnapshot() {
+        assertNull(feedSource.processLine("Train positions:"));
+        assertNull(feedSource.processLine("R: T2(R03, B), T1(R02, F)"));
+        TrainStatus[] snapshot = feedSource.processLine("B: T3(B01, F)");
+
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.length);
+        assertEquals(1, snapshot[0].getTrainId());
+        assertEquals("Red Two", snapshot[0].getCurrentStationName());
+        assertEquals("Red Three", snapshot[0].getNextStationName(0));
+        assertEquals("R03", snapshot[0].getEndStation());
+        assertEquals("backward", snapshot[1].getMovementDirection());
+        assertEquals("R01", snapshot[1].getEndStation());
+        assertEquals("Red Two", snapshot[1].getNextStationName(0));
+        assertEquals("Blue Two", snapshot[2].getNextStationName(0));
+    }
+
+    /**
+     * Tests that an incomplete block is discarded when the next block starts.
+     */
+    @Test
+    public void testIncompleteBlockIsDiscarded() {
+        feedSource.processLine("Train positions:");
+        feedSource.processLine("R: T1(R01, F)");
+        feedSource.processLine("Train positions:");
+        feedSource.processLine("R: T1(R02, F)");
+        TrainStatus[] snapshot = feedSource.processLine("B: T3(B02, B)");
+
+        assertEquals(2, snapshot.length);
+        assertEquals("Red Two", snapshot[0].getCurrentStationName());
+    }
+
+    /**
+     * Tests reading several snapshots from a stream.
+     *
+     * @throws IOException if an I/O error occurs while reading the stream
+     */
+    @Test
+    public void testConsumeStream() throws IOException {
+        String output = "Train positions:\nR: T1(R01, F)\nB: T2(B02, B)\n" +
+                "Train positions:\nR: T1(R02, F)\nB: T2(B01, B)\n";
+        List<TrainStatus[]> snapshots = new ArrayList<>();
+        feedSource.consume(new ByteArrayInputStream(output.getBytes()), snapshots::add);
+
+        assertEquals(2, snapshots.size());
+        assertEquals("Red Two", snapshots.get(1)[0].getCurrentStationName());
+        assertEquals("Blue One", snapshots.get(1)[1].getCurrentStationName());
+    }
+}
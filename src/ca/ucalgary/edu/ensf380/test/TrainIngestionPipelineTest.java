@@ -0,0 +1,210 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.RetryBackoff;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+import ca.ucalgary.edu.ensf380.train.TrainIngestionPipeline;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrainIngestionPipeline and RetryBackoff classes.
+ */
+public class TrainIngestionPipelineTest {
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The snapshots the handler was called with, in order. Each snapshot is identified by its length.
+     */
+    private List<Integer> handled;
+
+    /**
+     * Creates the scheduler before each test.
+     */
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        handled = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Shuts the scheduler down after each test.
+     */
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Waits until the scheduler has run everything submitted so far.
+     *
+     * @throws Exception if the scheduler does not catch up in time
+     */
+    private void awaitIdle() throws Exception {
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Tests that snapshots are handled in order when the handler keeps up.
+     *
+     * @throws Exception if the scheduler does not catch up in time
+     */
+    @Test
+    public void testSnapshotsHandledInOrder() throws Exception {
+        TrainIngestionPipeline pipeline = new TrainIngestionPipeline(trains -> handled.add(trains.length),
+                scheduler, 4, new RetryBackoff(10, 100));
+
+        for (int i = 1; i <= 3; i++) {
+            pipeline.onTrainSnapshot(new TrainStatus[i]);
+            awaitIdle();
+        }
+
+        assertEquals(List.of(1, 2, 3), handled);
+        assertEquals(0, pipeline.getDroppedSnapshots());
+    }
+
+    /**
+     * Tests that the oldest waiting snapshot is dropped when the queue is full, without blocking the reader.
+     *
+     * @throws Exception if the scheduler does not catch up in time
+     */
+    @Test
+    public void testFullQueueDropsOldest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TrainIngestionPipeline pipeline = new TrainIngestionPipeline(trains -> {
+            handled.add(trains.length);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, scheduler, 2, new RetryBackoff(10, 100));
+
+        pipeline.onTrainSnapshot(new TrainStatus[1]);
+        while (handled.isEmpty()) {
+            Thread.sleep(1);
+        }
+        // Snapshot 1 is being handled and still heads the queue, so 3 and 4 push out 1 and 2.
+        for (int i = 2; i <= 4; i++) {
+            pipeline.onTrainSnapshot(new TrainStatus[i]);
+        }
+        release.countDown();
+        awaitIdle();
+
+        assertEquals(List.of(1, 3, 4), handled);
+        assertEquals(2, pipeline.getDroppedSnapshots());
+    }
+
+    /**
+     * Tests that a failed snapshot is retried after a backoff, and that a newer snapshot arriving
+     * during the backoff replaces it.
+     *
+     * @throws Exception if the retry does not happen in time
+     */
+    @Test
+    public void testBackoffRetriesNewestSnapshot() throws Exception {
+        CountDownLatch retried = new CountDownLatch(1);
+        TrainIngestionPipeline pipeline = new TrainIngestionPipeline(trains -> {
+            handled.add(trains.length);
+            if (handled.size() == 1) {
+                throw new IllegalStateException("Simulated failure");
+            }
+            retried.countDown();
+        }, scheduler, 4, new RetryBackoff(200, 200));
+
+        pipeline.onTrainSnapshot(new TrainStatus[1]);
+        awaitIdle();
+        pipeline.onTrainSnapshot(new TrainStatus[2]);
+        pipeline.onTrainSnapshot(new TrainStatus[3]);
+
+        assertTrue(retried.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+        assertEquals(List.of(1, 3), handled);
+        assertEquals(2, pipeline.getDroppedSnapshots());
+    }
+
+    /**
+     * Tests that a handler failing after the snapshot was recorded retries only the handler,
+     * so the snapshot is recorded once.
+     *
+     * @throws Exception if the retry does not happen in time
+     */
+    @Test
+    public void testRetryDoesNotRecordAgain() throws Exception {
+        List<Integer> recorded = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        TrainIngestionPipeline pipeline = new TrainIngestionPipeline(trains -> recorded.add(trains.length),
+                trains -> {
+                    handled.add(trains.length);
+                    if (handled.size() < 3) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                    delivered.countDown();
+                }, scheduler, 4, new RetryBackoff(10, 10), 5);
+
+        pipeline.onTrainSnapshot(new TrainStatus[1]);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+        assertEquals(List.of(1), recorded);
+        assertEquals(List.of(1, 1, 1), handled);
+        assertEquals(0, pipeline.getDroppedSnapshots());
+    }
+
+    /**
+     * Tests that a snapshot is given up on after the most attempts, and that the next one is still handled.
+     *
+     * @throws Exception if the retries do not happen in time
+     */
+    @Test
+    public void testRetriesAreCapped() throws Exception {
+        List<Integer> recorded = new CopyOnWriteArrayList<>();
+        TrainIngestionPipeline pipeline = new TrainIngestionPipeline(trains -> recorded.add(trains.length),
+                trains -> {
+                    handled.add(trains.length);
+                    if (trains.length == 1) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                }, scheduler, 4, new RetryBackoff(10, 10), 3);
+
+        pipeline.onTrainSnapshot(new TrainStatus[1]);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.getDroppedSnapshots() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        awaitIdle();
+        pipeline.onTrainSnapshot(new TrainStatus[2]);
+        awaitIdle();
+
+        assertEquals(List.of(1, 1, 1, 2), handled);
+        assertEquals(List.of(1, 2), recorded);
+        assertEquals(1, pipeline.getDroppedSnapshots());
+    }
+
+    /**
+     * Tests that the backoff delay doubles, is capped and keeps at least half of its value.
+     */
+    @Test
+    public void testBackoffDelays() {
+        RetryBackoff backoff = new RetryBackoff(100, 1000);
+        for (int i = 0; i < 100; i++) {
+            long first = backoff.delayMillis(1);
+            long third = backoff.delayMillis(3);
+            long capped = backoff.delayMillis(40);
+            assertTrue(first >= 50 && first <= 100);
+            assertTrue(third >= 200 && third <= 400);
+            assertTrue(capped >= 500 && capped <= 1000);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.advertisement.TrainMapIcon;
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrainMapIcon class, painting a 600 by 500 map into a 300 by 200 icon.
+ */
+public class TrainMapIconTest {
+
+    private TrainMapIcon icon;
+    private RecordingComponent component;
+    private BufferedImage screen;
+
+    /**
+     * A component that counts as showing and records the regions it is asked to repaint.
+     */
+    private static class RecordingComponent extends JComponent {
+        private final List<Rectangle> repaints = new ArrayList<>();
+
+        @Override
+        public boolean isShowing() {
+            return true;
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+            repaints.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    /**
+     * Creates a map frame of one colour.
+     *
+     * @param width  the width of the frame
+     * @param height the height of the frame
+     * @param colour the colour of the frame
+     * @return the frame
+     */
+    private static BufferedImage frame(int width, int height, Color colour) {
+        BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = frame.createGraphics();
+        g2d.setColor(colour);
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return frame;
+    }
+
+    /**
+     * Paints the icon at (10, 20) of the recording component.
+     */
+    private void paint() {
+        Graphics2D g2d = screen.createGraphics();
+        try {
+            icon.paintIcon(component, g2d, 10, 20);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Creates an icon showing a blue frame, painted once, before each test.
+     */
+    @Before
+    public void setUp() {
+        icon = new TrainMapIcon(300, 200, new TrainMapVisualizer(), -1);
+        component = new RecordingComponent();
+        screen = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        icon.setFrame(frame(600, 500, Color.BLUE));
+        paint();
+    }
+
+    /**
+     * Tests that the damage of a new frame is scaled to the icon size, widened by a pixel for filtering,
+     * and offset by where the icon was painted.
+     */
+    @Test
+    public void testDamageIsScaledToTheIcon() {
+        icon.updateFrame(frame(600, 500, Color.BLUE), new Rectangle(200, 200, 224, 24));
+
+        // x: 200 * 0.5 - 1 = 99 to 424 * 0.5 + 1 = 213; y: 200 * 0.4 - 1 = 79 to ceil(224 * 0.4) + 1 = 91.
+        assertEquals(List.of(new Rectangle(10 + 99, 20 + 79, 114, 12)), component.repaints);
+    }
+
+    /**
+     * Tests that a frame without damage repaints nothing, and that a frame of another size repaints the whole icon.
+     */
+    @Test
+    public void testUndamagedAndResizedFrames() {
+        icon.updateFrame(frame(600, 500, Color.BLUE), new Rectangle());
+        assertTrue(component.repaints.isEmpty());
+
+        icon.updateFrame(frame(800, 600, Color.BLUE), new Rectangle(0, 0, 10, 10));
+        assertEquals(List.of(new Rectangle(10, 20, 300, 200)), component.repaints);
+    }
+
+    /**
+     * Tests that the next paint shows the frame handed over last, scaled to fill the icon.
+     */
+    @Test
+    public void testPaintsTheLatestFrame() {
+        icon.updateFrame(frame(600, 500, Color.RED), new Rectangle(0, 0, 600, 500));
+        paint();
+
+        assertEquals(Color.RED.getRGB(), screen.getRGB(10, 20));
+        assertEquals(Color.RED.getRGB(), screen.getRGB(309, 219));
+        assertEquals(0, screen.getRGB(310, 220));
+    }
+}
@@ -0,0 +1,264 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.train.TrainMapVisualizer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrainMapVisualizer class, rendering into images written to a temporary folder.
+ * Train coordinates are chosen so that each marker lands on a round map pixel.
+ */
+public class TrainMapVisualizerTest {
+
+    private static final int MAP_WIDTH = 600;
+    private static final int MAP_HEIGHT = 500;
+    private static final int MARKER_SIZE = 24;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File baseMapFile;
+    private File trainFile;
+    private File trainRedFile;
+    private BufferedImage baseMap;
+    private TrainMapVisualizer visualizer;
+    private final List<int[]> frames = new ArrayList<>();
+    private final List<Rectangle> damages = new ArrayList<>();
+
+    /**
+     * Writes a noisy base map and two plain markers, and creates a visualizer that records every frame.
+     *
+     * @throws IOException if the images cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        baseMap = new BufferedImage(MAP_WIDTH, MAP_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(380);
+        for (int y = 0; y < MAP_HEIGHT; y++) {
+            for (int x = 0; x < MAP_WIDTH; x++) {
+                baseMap.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        baseMapFile = tempFolder.newFile("Trains.png");
+        ImageIO.write(baseMap, "png", baseMapFile);
+        trainFile = writeMarker("train.jpg", Color.BLACK);
+        trainRedFile = writeMarker("trainRed.jpg", Color.RED);
+
+        visualizer = newVisualizer();
+        visualizer.addTrainMapCallback((frame, damage) -> {
+            frames.add(pixels(frame));
+            damages.add(new Rectangle(damage));
+        });
+    }
+
+    /**
+     * Writes a marker image of one colour.
+     *
+     * @param name   the name of the file
+     * @param colour the colour of the marker
+     * @return the file
+     * @throws IOException if the image cannot be written
+     */
+    private File writeMarker(String name, Color colour) throws IOException {
+        BufferedImage marker = new BufferedImage(MARKER_SIZE, MARKER_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = marker.createGraphics();
+        g2d.setColor(colour);
+        g2d.fillRect(0, 0, MARKER_SIZE, MARKER_SIZE);
+        g2d.dispose();
+        File file = tempFolder.newFile(name);
+        ImageIO.write(marker, "jpg", file);
+        return file;
+    }
+
+    /**
+     * Creates a visualizer on the images of the temporary folder.
+     *
+     * @return the visualizer
+     */
+    private TrainMapVisualizer newVisualizer() {
+        return new TrainMapVisualizer(baseMapFile.getPath(), trainFile.getPath(), trainRedFile.getPath(),
+                new File(tempFolder.getRoot(), "trainmap.png").getPath());
+    }
+
+    /**
+     * Gets every pixel of an image.
+     *
+     * @param image the image
+     * @return the pixels, row by row
+     */
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Gets the bounds of a marker drawn at a map pixel.
+     *
+     * @param x the x-coordinate in map pixels
+     * @param y the y-coordinate in map pixels
+     * @return the bounds of the marker
+     */
+    private static Rectangle marker(int x, int y) {
+        return new Rectangle(x, y, MARKER_SIZE, MARKER_SIZE);
+    }
+
+    /**
+     * Checks whether a pixel of a frame is painted by a black marker rather than the noisy base map.
+     *
+     * @param frame the pixels of the frame
+     * @param x     the x-coordinate in map pixels
+     * @param y     the y-coordinate in map pixels
+     * @return true if the pixel is close to black
+     */
+    private static boolean isMarker(int[] frame, int x, int y) {
+        int pixel = frame[y * MAP_WIDTH + x];
+        return ((pixel >> 16) & 0xFF) < 32 && ((pixel >> 8) & 0xFF) < 32 && (pixel & 0xFF) < 32;
+    }
+
+    /**
+     * Asserts that two frames are equal outside a region.
+     *
+     * @param previous the earlier frame
+     * @param current  the later frame
+     * @param region   the region the frames may differ in
+     */
+    private static void assertEqualOutside(int[] previous, int[] current, Rectangle region) {
+        for (int y = 0; y < MAP_HEIGHT; y++) {
+            for (int x = 0; x < MAP_WIDTH; x++) {
+                if (!region.contains(x, y)) {
+                    assertEquals("pixel " + x + "," + y, previous[y * MAP_WIDTH + x], current[y * MAP_WIDTH + x]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the damage of each tick covers exactly the old and new bounds of the markers that moved,
+     * that nothing outside it changes, and that a back buffer last drawn two ticks ago is brought up to date.
+     */
+    @Test
+    public void testDamageCoversMovedMarkers() {
+        // Map pixels (100, 100), (200, 200) and (300, 300).
+        int[] xs = { 266, 531, 796 };
+        int[] ys = { 153, 305, 457 };
+        visualizer.renderTrainMap(xs, ys, 3, -1);
+
+        // The second train moves to (400, 200).
+        xs[1] = 1061;
+        visualizer.renderTrainMap(xs, ys, 3, -1);
+
+        // The third train moves to (400, 401), drawn into the buffer of the first tick.
+        xs[2] = 1061;
+        ys[2] = 610;
+        visualizer.renderTrainMap(xs, ys, 3, -1);
+
+        // Nothing moves.
+        visualizer.renderTrainMap(xs, ys, 3, -1);
+
+        assertEquals(4, frames.size());
+        assertEquals(new Rectangle(0, 0, MAP_WIDTH, MAP_HEIGHT), damages.get(0));
+        assertEquals(marker(200, 200).union(marker(400, 200)), damages.get(1));
+        assertEquals(marker(300, 300).union(marker(400, 401)), damages.get(2));
+        assertTrue(damages.get(3).isEmpty());
+
+        assertEqualOutside(frames.get(0), frames.get(1), damages.get(1));
+        assertEqualOutside(frames.get(1), frames.get(2), damages.get(2));
+        assertArrayEquals(frames.get(2), frames.get(3));
+
+        // The old position of the second train shows the base map again.
+        assertEquals(baseMap.getRGB(210, 210) | 0xFF000000, frames.get(1)[210 * MAP_WIDTH + 210]);
+
+        List<int[]> fresh = new ArrayList<>();
+        TrainMapVisualizer freshVisualizer = newVisualizer();
+        freshVisualizer.addTrainMapCallback((frame, damage) -> fresh.add(pixels(frame)));
+        freshVisualizer.renderTrainMap(xs, ys, 3, -1);
+        assertArrayEquals(fresh.get(0), frames.get(3));
+    }
+
+    /**
+     * Tests that the base map and the markers are decoded on the first render only, so later ticks keep
+     * drawing from the cached images after the files are gone.
+     */
+    @Test
+    public void testImagesAreDecodedOnce() {
+        int[] xs = { 266 };
+        int[] ys = { 153 };
+        visualizer.renderTrainMap(xs, ys, 1, -1);
+        assertTrue(baseMapFile.delete());
+        assertTrue(trainFile.delete());
+        assertTrue(trainRedFile.delete());
+
+        // Map pixel (200, 100).
+        xs[0] = 531;
+        visualizer.renderTrainMap(xs, ys, 1, -1);
+
+        assertEquals(2, frames.size());
+        assertTrue(isMarker(frames.get(0), 110, 110));
+        assertTrue(isMarker(frames.get(1), 210, 110));
+        assertEquals(baseMap.getRGB(110, 110) | 0xFF000000, frames.get(1)[110 * MAP_WIDTH + 110]);
+    }
+
+    /**
+     * Tests that a marker image that cannot be loaded still lets the map be drawn, without trains, and that
+     * the failure is logged once rather than on every tick.
+     */
+    @Test
+    public void testMissingMarkersStillDrawTheMap() {
+        assertTrue(trainFile.delete());
+        List<LogRecord> severe = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.SEVERE) {
+                    severe.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(TrainMapVisualizer.class.getName());
+        logger.addHandler(handler);
+        try {
+            int[] xs = { 266 };
+            int[] ys = { 153 };
+            visualizer.renderTrainMap(xs, ys, 1, -1);
+            xs[0] = 531;
+            visualizer.renderTrainMap(xs, ys, 1, -1);
+        } finally {
+            logger.removeHandler(handler);
+        }
+
+        assertEquals(2, frames.size());
+        assertEquals(1, severe.size());
+        for (int[] frame : frames) {
+            for (int y = 0; y < MAP_HEIGHT; y++) {
+                for (int x = 0; x < MAP_WIDTH; x++) {
+                    assertEquals(baseMap.getRGB(x, y) | 0xFF000000, frame[y * MAP_WIDTH + x]);
+                }
+            }
+        }
+    }
+}
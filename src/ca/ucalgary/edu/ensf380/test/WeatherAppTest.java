@@ -0,0 +1,80 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.models.WeatherReport;
+import ca.ucalgary.edu.ensf380.weather.WeatherApp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the in-process API of the WeatherApp class.
+ */
+public class WeatherAppTest {
+
+    private static final String PAGE = "<html><body><pre><span style=\"color:#fff\">Weather report: Calgary</span>\n"
+            + "\n"
+            + "     \\   /     Sunny   \n"
+            + "      .-.      \u001b[38;5;226m21\u001b[0m °C\n"
+            + "</pre></body></html>\n";
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Tests that a fetched page is turned into a report with tags, colour codes and trailing spaces removed.
+     */
+    @Test
+    public void testParseWeatherReport() {
+        WeatherReport weatherReport = WeatherApp.WeatherFetcher.parseWeatherData("Calgary", PAGE).toWeatherReport();
+
+        // Like the stored file, the report leaves out empty lines.
+        assertEquals(List.of("Weather report: Calgary", "Weather report: Calgary",
+                "     \\   /     Sunny", "      .-.      21 °C"), weatherReport.getWeatherData());
+    }
+
+    /**
+     * Tests that the report holds the same lines as the file the standalone application stores.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    public void testReportMatchesStoredFile() throws IOException {
+        WeatherApp.WeatherData weatherData = WeatherApp.WeatherFetcher.parseWeatherData("Calgary", PAGE);
+        File file = tempFolder.newFile("weather.txt");
+        WeatherApp.WeatherStorage.storeWeatherData(weatherData, file.getAbsolutePath());
+
+        assertEquals(Files.readAllLines(file.toPath()), weatherData.toWeatherReport().getWeatherData());
+    }
+
+    /**
+     * Tests that a page without a report gives an empty report.
+     */
+    @Test
+    public void testParsePageWithoutReport() {
+        WeatherReport weatherReport = WeatherApp.WeatherFetcher.parseWeatherData("Calgary", "<html>404</html>")
+                .toWeatherReport();
+        assertTrue(weatherReport.getWeatherData().isEmpty());
+    }
+
+    /**
+     * Tests which city names are accepted.
+     */
+    @Test
+    public void testIsValidCity() {
+        assertTrue(WeatherApp.isValidCity("New York"));
+        assertFalse(WeatherApp.isValidCity("Calgary&format=j1"));
+        assertFalse(WeatherApp.isValidCity(""));
+        assertFalse(WeatherApp.isValidCity(null));
+    }
+}
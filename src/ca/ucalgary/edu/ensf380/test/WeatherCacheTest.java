@@ -0,0 +1,193 @@
+package ca.ucalgary.edu.ensf380.test;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.WeatherReport;
+import ca.ucalgary.edu.ensf380.weather.WeatherCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the WeatherCache class.
+ */
+public class WeatherCacheTest {
+
+    private BackgroundRuntime runtime;
+    private Path directory;
+    private AtomicInteger loads;
+
+    /**
+     * A temporary folder for creating temporary files during testing.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Creates a runtime for the refreshes and an empty cache directory before each test.
+     *
+     * @throws IOException if the cache directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        runtime = new BackgroundRuntime();
+        directory = tempFolder.newFolder("weather-cache").toPath();
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Closes the runtime after each test.
+     */
+    @After
+    public void tearDown() {
+        runtime.close();
+    }
+
+    /**
+     * Creates a cache whose reports count the loads.
+     *
+     * @param ttlMillis the time to live of a report
+     * @return the cache
+     */
+    private WeatherCache createCache(long ttlMillis) {
+        return new WeatherCache((city, lastReport) -> report(city + " " + loads.incrementAndGet()), ttlMillis, 0, directory,
+                runtime::submit);
+    }
+
+    /**
+     * Creates a report of one line.
+     *
+     * @param line the line
+     * @return the report
+     */
+    private static WeatherReport report(String line) {
+        WeatherReport weatherReport = new WeatherReport();
+        weatherReport.addWeatherData(line);
+        return weatherReport;
+    }
+
+    /**
+     * Tests that a fresh report is served from memory.
+     */
+    @Test
+    public void testFreshReportIsCached() {
+        WeatherCache cache = createCache(60000);
+
+        assertEquals(List.of("Calgary 1"), cache.get("Calgary"));
+        assertEquals(List.of("Calgary 1"), cache.get("calgary"));
+        assertEquals(List.of("Edmonton 2"), cache.get("Edmonton"));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that a stale report is served right away while it is refreshed in the background.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    public void testStaleReportIsServedWhileRefreshing() throws Exception {
+        WeatherCache cache = createCache(50);
+        assertEquals(List.of("Calgary 1"), cache.get("Calgary"));
+
+        Thread.sleep(100);
+        assertEquals(List.of("Calgary 1"), cache.get("Calgary"));
+        List<String> refreshed = cache.get("Calgary");
+        for (int i = 0; i < 100 && refreshed.equals(List.of("Calgary 1")); i++) {
+            Thread.sleep(10);
+            refreshed = cache.get("Calgary");
+        }
+        assertEquals(List.of("Calgary 2"), refreshed);
+    }
+
+    /**
+     * Tests that callers waiting for the same city share one upstream request.
+     *
+     * @throws Exception if the callers do not finish in time
+     */
+    @Test
+    public void testConcurrentRefreshesAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        WeatherCache cache = new WeatherCache((city, lastReport) -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return report(city);
+        }, 60000, 0, directory, runtime::submit);
+
+        List<Future<List<String>>> callers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            callers.add(runtime.submit(() -> cache.get("Calgary")));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<List<String>> caller : callers) {
+            assertEquals(List.of("Calgary"), caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Tests that a failed refresh keeps the last good report.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    public void testFailedRefreshKeepsLastGoodReport() throws Exception {
+        WeatherCache cache = new WeatherCache((city, lastReport) -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IOException("offline");
+            }
+            return report(city);
+        }, 10, 0, directory, runtime::submit);
+
+        assertEquals(List.of("Calgary"), cache.get("Calgary"));
+        Thread.sleep(50);
+        assertEquals(List.of("Calgary"), cache.get("Calgary"));
+        for (int i = 0; i < 100 && loads.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("Calgary"), cache.get("Calgary"));
+    }
+
+    /**
+     * Tests that a new cache starts from the last good report on disk, without waiting for the network.
+     */
+    @Test
+    public void testLastGoodReportIsPersisted() {
+        createCache(60000).get("New York");
+        assertTrue(Files.exists(directory.resolve("new_york.txt")));
+
+        WeatherCache restarted = new WeatherCache((city, lastReport) -> {
+            throw new IOException("offline");
+        }, 60000, 0, directory, runtime::submit);
+        assertEquals(List.of("New York 1"), restarted.get("New York"));
+    }
+
+    /**
+     * Tests that a city that has never been fetched gives no report.
+     */
+    @Test
+    public void testNoReportWithoutSuccessfulFetch() {
+        WeatherCache cache = new WeatherCache((city, lastReport) -> new WeatherReport(), 60000, 60000, directory, runtime::submit);
+        assertNull(cache.get("Calgary"));
+        assertNull(cache.get("Calgary"));
+    }
+}
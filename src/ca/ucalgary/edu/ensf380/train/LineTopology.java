@@ -0,0 +1,143 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+
+import java.util.Arrays;
+
+/**
+ * The LineTopology class is a compiled, read-only graph of the subway network.
+ * <p>
+ * Stations are addressed by their {@link StationRegistry} ordinal. For every line the successor and
+ * predecessor of each station are stored in flat {@code int[]} arrays, one pair per direction of travel,
+ * so walking a line is a sequence of array reads. Interchanges are taken from the "Common Stations"
+ * column of the data source and stored as ordinals as well.
+ */
+public final class LineTopology {
+
+    /**
+     * Marker returned when there is no adjacent station, for example past the end of a line.
+     */
+    public static final int NO_STATION = -1;
+
+    private static final int[] NO_TRANSFERS = new int[0];
+
+    private final int[] forwardSuccessors;
+    private final int[] forwardPredecessors;
+    private final int[] backwardSuccessors;
+    private final int[] backwardPredecessors;
+    private final int[][] transfers;
+
+    /**
+     * Compiles the topology of the network held by the given registry.
+     * Stations of a line are linked in the order they appear in the data source.
+     *
+     * @param registry the registry whose stations and ordinals the topology is built on.
+     */
+    LineTopology(StationRegistry registry) {
+        int size = registry.size();
+        this.forwardSuccessors = new int[size];
+        this.forwardPredecessors = new int[size];
+        Arrays.fill(forwardSuccessors, NO_STATION);
+        Arrays.fill(forwardPredecessors, NO_STATION);
+
+        for (String lineCode : registry.getLineCodes()) {
+            int previous = NO_STATION;
+            for (StationInfo station : registry.getLineStations(lineCode)) {
+                int current = registry.getOrdinal(station.getStationIdentifier());
+                if (previous != NO_STATION) {
+                    forwardSuccessors[previous] = current;
+                    forwardPredecessors[current] = previous;
+                }
+                previous = current;
+            }
+        }
+
+        // Travelling backward walks the same links in the opposite order.
+        this.backwardSuccessors = forwardPredecessors;
+        this.backwardPredecessors = forwardSuccessors;
+
+        this.transfers = new int[size][];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            transfers[ordinal] = registry.getStation(ordinal).getCommonStations().stream()
+                    .mapToInt(registry::getOrdinal)
+                    .filter(transfer -> transfer != NO_STATION)
+                    .toArray();
+            if (transfers[ordinal].length == 0) {
+                transfers[ordinal] = NO_TRANSFERS;
+            }
+        }
+    }
+
+    /**
+     * Determines whether a direction string from the simulator means travelling forward.
+     *
+     * @param direction the direction of movement ("forward" or "backward").
+     * @return true if the direction is forward, false otherwise.
+     */
+    public static boolean isForward(String direction) {
+        return "forward".equals(direction);
+    }
+
+    /**
+     * Gets the station a train reaches next when leaving the given station.
+     *
+     * @param ordinal the ordinal of the current station.
+     * @param forward true if the train travels forward, false if backward.
+     * @return the ordinal of the next station, or {@link #NO_STATION} at the end of the line.
+     */
+    public int next(int ordinal, boolean forward) {
+        if (ordinal < 0) return NO_STATION;
+        return forward ? forwardSuccessors[ordinal] : backwardSuccessors[ordinal];
+    }
+
+    /**
+     * Gets the station a train came from when arriving at the given station.
+     *
+     * @param ordinal the ordinal of the current station.
+     * @param forward true if the train travels forward, false if backward.
+     * @return the ordinal of the previous station, or {@link #NO_STATION} at the start of the line.
+     */
+    public int previous(int ordinal, boolean forward) {
+        if (ordinal < 0) return NO_STATION;
+        return forward ? forwardPredecessors[ordinal] : backwardPredecessors[ordinal];
+    }
+
+    /**
+     * Walks a number of stations along the line without allocating.
+     *
+     * @param ordinal     the ordinal of the starting station.
+     * @param forward     true if the train travels forward, false if backward.
+     * @param steps       the number of stations to move.
+     * @param destination the ordinal where the train terminates, or {@link #NO_STATION} to walk to the end of the line.
+     * @return the ordinal reached, or {@link #NO_STATION} if the walk passes the destination or the end of the line.
+     */
+    public int advance(int ordinal, boolean forward, int steps, int destination) {
+        int current = ordinal;
+        for (int i = 0; i < steps && current != NO_STATION; i++) {
+            if (current == destination) return NO_STATION;
+            current = next(current, forward);
+        }
+        return current;
+    }
+
+    /**
+     * Gets the number of interchange stations linked to the given station.
+     *
+     * @param ordinal the ordinal of the station.
+     * @return the number of transfers available at the station.
+     */
+    public int getTransferCount(int ordinal) {
+        return transfers[ordinal].length;
+    }
+
+    /**
+     * Gets one of the interchange stations linked to the given station.
+     *
+     * @param ordinal the ordinal of the station.
+     * @param index   the index of the transfer, from zero to {@link #getTransferCount(int)} - 1.
+     * @return the ordinal of the station on the other line.
+     */
+    public int getTransfer(int ordinal, int index) {
+        return transfers[ordinal][index];
+    }
+}
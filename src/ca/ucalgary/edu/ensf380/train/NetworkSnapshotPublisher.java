@@ -0,0 +1,109 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshotCallback;
+import ca.ucalgary.edu.ensf380.models.TrainFeedCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The NetworkSnapshotPublisher class turns the train feed into numbered {@link NetworkSnapshot}s and
+ * hands the newest one to every registered {@link NetworkSnapshotCallback} on the event dispatch thread.
+ * <p>
+ * Each tick is published by swapping an {@link AtomicReference}, so the feed thread never blocks and a
+ * reader on any thread sees a complete snapshot. At most one delivery is queued on the event dispatch
+ * thread at a time. A delivery reads the newest snapshot when it runs, so ticks that arrive while the
+ * event dispatch thread is busy are skipped rather than applied one after another, and every callback
+ * of a delivery gets the same snapshot.
+ */
+public class NetworkSnapshotPublisher implements TrainFeedCallback {
+
+    private final AtomicReference<NetworkSnapshot> latest = new AtomicReference<>(NetworkSnapshot.EMPTY);
+    private final AtomicBoolean deliveryPending = new AtomicBoolean();
+    private final List<NetworkSnapshotCallback> callbacks = new CopyOnWriteArrayList<>();
+    private final Executor deliveryExecutor;
+    private long deliveredEpoch = 0;
+
+    /**
+     * Constructs a NetworkSnapshotPublisher that delivers snapshots on the event dispatch thread.
+     */
+    public NetworkSnapshotPublisher() {
+        this(SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Constructs a NetworkSnapshotPublisher that delivers snapshots through the given executor.
+     * The executor must run deliveries one at a time.
+     *
+     * @param deliveryExecutor The executor the callbacks are run on.
+     */
+    public NetworkSnapshotPublisher(Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Registers a callback for the snapshots published after this call.
+     *
+     * @param callback The callback to register.
+     */
+    public void addCallback(NetworkSnapshotCallback callback) {
+        callbacks.add(callback);
+    }
+
+    /**
+     * Publishes a tick of the train feed.
+     *
+     * @param trains The trains in the tick, ordered by train ID.
+     */
+    @Override
+    public void onTrainSnapshot(TrainStatus[] trains) {
+        publish(trains);
+    }
+
+    /**
+     * Publishes a tick as the newest snapshot and schedules a delivery if none is pending.
+     *
+     * @param trains The trains in the tick, ordered by train ID.
+     * @return The published snapshot.
+     */
+    public NetworkSnapshot publish(TrainStatus[] trains) {
+        long timestamp = System.currentTimeMillis();
+        NetworkSnapshot snapshot = latest.updateAndGet(
+                previous -> new NetworkSnapshot(previous.getEpoch() + 1, timestamp, trains));
+        if (deliveryPending.compareAndSet(false, true)) {
+            deliveryExecutor.execute(this::deliver);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the newest published snapshot.
+     *
+     * @return The newest snapshot, or {@link NetworkSnapshot#EMPTY} before the first tick.
+     */
+    public NetworkSnapshot getLatest() {
+        return latest.get();
+    }
+
+    /**
+     * Hands the newest snapshot to every callback, unless it was already delivered.
+     */
+    private void deliver() {
+        // Clear the flag before reading, so a tick published from here on schedules another delivery.
+        deliveryPending.set(false);
+        NetworkSnapshot snapshot = latest.get();
+        if (snapshot.getEpoch() <= deliveredEpoch) {
+            return;
+        }
+        deliveredEpoch = snapshot.getEpoch();
+        for (NetworkSnapshotCallback callback : callbacks) {
+            callback.onNetworkSnapshot(snapshot);
+        }
+    }
+}
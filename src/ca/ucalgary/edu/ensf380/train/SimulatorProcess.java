@@ -0,0 +1,231 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.helper.RetryBackoff;
+import ca.ucalgary.edu.ensf380.models.TrainFeedCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The SimulatorProcess class runs the SubwaySimulator and feeds its output to a {@link TrainFeedCallback}.
+ * <p>
+ * The standard output of the simulator is read and parsed by a {@link TrainFeedSource} on a virtual
+ * thread of the {@link BackgroundRuntime} that does nothing else, so the pipe is always drained. Each
+ * snapshot goes through a {@link TrainIngestionPipeline} to a serial scheduler, which transcodes it into the binary
+ * snapshot ring in the output directory, where other readers on the host can map it, keeps the CSV
+ * files bounded with a {@link SnapshotRetentionManager}, and calls the callback. If the simulator exits
+ * while it should be running, it is restarted after a jittered backoff on the same scheduler. One
+ * process can feed any number of screens, since the callback is free to fan the snapshot out.
+ */
+public class SimulatorProcess {
+
+    private static final Logger LOGGER = Logger.getLogger(SimulatorProcess.class.getName());
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final StationRegistry stationRegistry;
+    private final Path outputDirectory;
+    private final RetryBackoff backoff = new RetryBackoff(INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+    private final BackgroundRuntime backgroundRuntime = BackgroundRuntime.getInstance();
+    private Process process;
+    private ScheduledExecutorService scheduler;
+    private TrainIngestionPipeline pipeline;
+    private SnapshotRingWriter ringWriter;
+    private int restartFailures = 0;
+
+    /**
+     * Constructs a SimulatorProcess that writes its snapshots to the 'out' directory.
+     *
+     * @param stationRegistry The registry used to resolve the stations in the simulator output.
+     */
+    public SimulatorProcess(StationRegistry stationRegistry) {
+        this(stationRegistry, Paths.get("out"));
+    }
+
+    /**
+     * Constructs a SimulatorProcess.
+     *
+     * @param stationRegistry The registry used to resolve the stations in the simulator output.
+     * @param outputDirectory The directory the simulator writes its snapshots to.
+     */
+    public SimulatorProcess(StationRegistry stationRegistry, Path outputDirectory) {
+        this.stationRegistry = stationRegistry;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Starts the simulator if it is not already running.
+     *
+     * @param callback The callback to notify with every snapshot, always on the same background thread.
+     * @throws IOException If the simulator cannot be started.
+     */
+    public synchronized void start(TrainFeedCallback callback) throws IOException {
+        if (scheduler != null) {
+            return;
+        }
+
+        SnapshotRetentionManager retentionManager = new SnapshotRetentionManager(outputDirectory,
+                SnapshotRetentionManager.DEFAULT_MAX_LIVE_SNAPSHOTS,
+                SnapshotRetentionManager.DEFAULT_MAX_HISTORY_BYTES, stationRegistry);
+        SnapshotRingWriter writer = openRingWriter();
+        this.ringWriter = writer;
+        this.scheduler = backgroundRuntime.newSerialScheduler("train-ingestion");
+        this.pipeline = new TrainIngestionPipeline(
+                snapshot -> recordSnapshot(snapshot, writer, retentionManager),
+                snapshot -> deliverSnapshot(snapshot, callback), scheduler,
+                TrainIngestionPipeline.DEFAULT_QUEUE_CAPACITY, backoff, TrainIngestionPipeline.DEFAULT_MAX_ATTEMPTS);
+
+        try {
+            launch();
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the simulator process and a background task reading its output.
+     *
+     * @throws IOException If the simulator cannot be started.
+     */
+    private void launch() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder("java", "-jar", "./exe/SubwaySimulator.jar", "--in",
+                "./data/subway.csv", "--out", outputDirectory.toString());
+        builder.redirectErrorStream(true);
+        Process started = builder.start();
+        process = started;
+
+        TrainFeedSource trainFeedSource = new TrainFeedSource(stationRegistry);
+        TrainIngestionPipeline target = pipeline;
+        backgroundRuntime.submit(() -> {
+            try {
+                trainFeedSource.consume(started.getInputStream(), target);
+            } catch (IOException e) {
+                LOGGER.warning("Error reading process output: " + e.getMessage());
+            }
+            scheduleRestart(started);
+        });
+    }
+
+    /**
+     * Schedules the simulator to be started again after its output ended, unless it was stopped.
+     *
+     * @param ended The process whose output ended.
+     */
+    private synchronized void scheduleRestart(Process ended) {
+        if (process != ended || scheduler == null) {
+            return;
+        }
+        restartFailures++;
+        long delay = backoff.delayMillis(restartFailures);
+        LOGGER.warning("Simulator output ended, restarting in " + delay + " ms");
+        try {
+            scheduler.schedule(this::restart, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("Not restarting the simulator after shutdown.");
+        }
+    }
+
+    /**
+     * Starts the simulator again, unless it was stopped in the meantime.
+     */
+    private synchronized void restart() {
+        if (process == null || scheduler == null) {
+            return;
+        }
+        Process ended = process;
+        try {
+            launch();
+        } catch (IOException e) {
+            LOGGER.warning("Error restarting simulator: " + e.getMessage());
+            scheduleRestart(ended);
+        }
+    }
+
+    /**
+     * Records one snapshot on the scheduler thread, exactly once per snapshot.
+     *
+     * @param snapshot         The trains in the snapshot.
+     * @param writer           The snapshot ring to write to, or null.
+     * @param retentionManager The manager keeping the CSV files bounded.
+     */
+    private static void recordSnapshot(TrainStatus[] snapshot, SnapshotRingWriter writer,
+                                       SnapshotRetentionManager retentionManager) {
+        if (writer != null && snapshot.length <= SnapshotRingWriter.DEFAULT_SLOT_CAPACITY) {
+            writer.write(snapshot);
+        }
+        try {
+            retentionManager.enforce();
+        } catch (IOException e) {
+            LOGGER.warning("Error compacting simulator output: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hands one snapshot to the callback on the scheduler thread. Retried by the pipeline when it fails.
+     *
+     * @param snapshot The trains in the snapshot.
+     * @param callback The callback to notify.
+     */
+    private void deliverSnapshot(TrainStatus[] snapshot, TrainFeedCallback callback) {
+        callback.onTrainSnapshot(snapshot);
+        synchronized (this) {
+            restartFailures = 0;
+        }
+    }
+
+    /**
+     * Opens the snapshot ring in the output directory.
+     *
+     * @return The writer, or null if the ring cannot be opened, in which case only the CSV files are written.
+     */
+    private SnapshotRingWriter openRingWriter() {
+        try {
+            Files.createDirectories(outputDirectory);
+            return new SnapshotRingWriter(outputDirectory.resolve(SnapshotRingWriter.DEFAULT_FILE_NAME),
+                    SnapshotRingWriter.DEFAULT_SLOT_COUNT, SnapshotRingWriter.DEFAULT_SLOT_CAPACITY, stationRegistry);
+        } catch (IOException e) {
+            LOGGER.warning("Error opening snapshot ring: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Closes the snapshot ring, if it was opened.
+     *
+     * @param ringWriter The writer to close, or null.
+     */
+    private static void closeRingWriter(SnapshotRingWriter ringWriter) {
+        if (ringWriter != null) {
+            try {
+                ringWriter.close();
+            } catch (IOException e) {
+                LOGGER.warning("Error closing snapshot ring: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the simulator if it is running, along with the thread handling its snapshots.
+     */
+    public synchronized void stop() {
+        if (process != null) {
+            process.destroy();
+            process = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        closeRingWriter(ringWriter);
+        ringWriter = null;
+    }
+}
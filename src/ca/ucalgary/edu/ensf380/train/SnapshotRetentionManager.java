@@ -0,0 +1,346 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.helper.CsvReader;
+import ca.ucalgary.edu.ensf380.models.TrainFeedCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The SnapshotRetentionManager class keeps the SubwaySimulator output directory bounded.
+ * <p>
+ * Only the newest {@code Trains_<epoch>.csv} snapshots are left in place. Older snapshots are appended
+ * to a history file and deleted. Each entry in the history starts with a {@code # <epoch>} line followed
+ * by the CSV records of that snapshot, so the history is ordered by time and can be replayed. When the
+ * history reaches its size cap it is rolled over to a single backup file, which bounds the disk usage
+ * to roughly twice the cap.
+ * <p>
+ * Next to each history file an index is kept, holding the time and byte offset of every entry as two
+ * 8-byte numbers. A replay looks up the last entry before the start of its range in the index and reads
+ * the history from there, instead of scanning every older entry. An index that is missing or does not
+ * match its history file only costs the seek: the replay then scans the file from the start.
+ */
+public class SnapshotRetentionManager {
+
+    private static final Logger LOGGER = Logger.getLogger(SnapshotRetentionManager.class.getName());
+    private static final Pattern SNAPSHOT_PATTERN = Pattern.compile("Trains_(\\d+)\\.csv");
+    private static final String ENTRY_PREFIX = "# ";
+    private static final int INDEX_RECORD_BYTES = 2 * Long.BYTES;
+
+    /**
+     * Default number of snapshots kept in the output directory.
+     */
+    public static final int DEFAULT_MAX_LIVE_SNAPSHOTS = 10;
+
+    /**
+     * Default size cap of the history file in bytes.
+     */
+    public static final long DEFAULT_MAX_HISTORY_BYTES = 16L * 1024 * 1024;
+
+    private final Path outputDirectory;
+    private final Path historyFile;
+    private final Path rolledHistoryFile;
+    private final Path historyIndexFile;
+    private final Path rolledHistoryIndexFile;
+    private final int maxLiveSnapshots;
+    private final long maxHistoryBytes;
+    private final StationRegistry stationRegistry;
+
+    /**
+     * Constructs a SnapshotRetentionManager with the default limits and the shared {@link StationRegistry}.
+     *
+     * @param outputDirectory The directory the simulator writes its snapshots to.
+     */
+    public SnapshotRetentionManager(Path outputDirectory) {
+        this(outputDirectory, DEFAULT_MAX_LIVE_SNAPSHOTS, DEFAULT_MAX_HISTORY_BYTES, StationRegistry.getInstance());
+    }
+
+    /**
+     * Constructs a SnapshotRetentionManager.
+     *
+     * @param outputDirectory  The directory the simulator writes its snapshots to.
+     * @param maxLiveSnapshots The number of newest snapshots to leave in the output directory.
+     * @param maxHistoryBytes  The size at which the history file is rolled over.
+     * @param stationRegistry  The registry used to resolve stations when replaying the history.
+     */
+    public SnapshotRetentionManager(Path outputDirectory, int maxLiveSnapshots, long maxHistoryBytes,
+                                    StationRegistry stationRegistry) {
+        if (maxLiveSnapshots < 1) {
+            throw new IllegalArgumentException("At least one snapshot must be kept: " + maxLiveSnapshots);
+        }
+        this.outputDirectory = outputDirectory;
+        this.historyFile = outputDirectory.resolve("history").resolve("trains_history.log");
+        this.rolledHistoryFile = outputDirectory.resolve("history").resolve("trains_history.1.log");
+        this.historyIndexFile = indexFileOf(historyFile);
+        this.rolledHistoryIndexFile = indexFileOf(rolledHistoryFile);
+        this.maxLiveSnapshots = maxLiveSnapshots;
+        this.maxHistoryBytes = maxHistoryBytes;
+        this.stationRegistry = stationRegistry;
+    }
+
+    /**
+     * Compacts every snapshot except the newest ones into the history file.
+     *
+     * @return The number of snapshots moved into the history.
+     * @throws IOException If there is an error reading, writing or deleting a snapshot.
+     */
+    public int enforce() throws IOException {
+        List<Snapshot> snapshots = listSnapshots();
+        int excess = snapshots.size() - maxLiveSnapshots;
+        if (excess <= 0) {
+            return 0;
+        }
+
+        Files.createDirectories(historyFile.getParent());
+        long historySize = Files.exists(historyFile) ? Files.size(historyFile) : 0;
+
+        for (int i = 0; i < excess; i++) {
+            Snapshot snapshot = snapshots.get(i);
+            byte[] entry = toHistoryEntry(snapshot);
+
+            if (historySize > 0 && historySize + entry.length > maxHistoryBytes) {
+                Files.move(historyFile, rolledHistoryFile, StandardCopyOption.REPLACE_EXISTING);
+                if (Files.exists(historyIndexFile)) {
+                    Files.move(historyIndexFile, rolledHistoryIndexFile, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(rolledHistoryIndexFile);
+                }
+                historySize = 0;
+            }
+
+            Files.write(historyFile, entry, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            byte[] indexRecord = ByteBuffer.allocate(INDEX_RECORD_BYTES)
+                    .putLong(snapshot.epochMillis()).putLong(historySize).array();
+            Files.write(historyIndexFile, indexRecord, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            historySize += entry.length;
+            Files.delete(snapshot.path());
+        }
+
+        LOGGER.fine("Compacted " + excess + " train snapshots into " + historyFile);
+        return excess;
+    }
+
+    /**
+     * Replays the snapshots in the history whose time falls within the given range, oldest first.
+     *
+     * @param fromEpochMillis The earliest snapshot time to replay, inclusive.
+     * @param toEpochMillis   The latest snapshot time to replay, inclusive.
+     * @param callback        The callback to notify with each replayed snapshot.
+     * @throws IOException If there is an error reading the history.
+     */
+    public void replay(long fromEpochMillis, long toEpochMillis, TrainFeedCallback callback) throws IOException {
+        for (Path file : List.of(rolledHistoryFile, historyFile)) {
+            if (Files.exists(file)) {
+                replayFile(file, fromEpochMillis, toEpochMillis, callback);
+            }
+        }
+    }
+
+    /**
+     * Gets the path of the active history file.
+     *
+     * @return The path of the history file.
+     */
+    public Path getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Replays one history file, starting from the last indexed entry before the range.
+     *
+     * @param file            The history file to read.
+     * @param fromEpochMillis The earliest snapshot time to replay, inclusive.
+     * @param toEpochMillis   The latest snapshot time to replay, inclusive.
+     * @param callback        The callback to notify with each replayed snapshot.
+     * @throws IOException If there is an error reading the file.
+     */
+    private void replayFile(Path file, long fromEpochMillis, long toEpochMillis,
+                            TrainFeedCallback callback) throws IOException {
+        IndexEntry start = findEntryBefore(indexFileOf(file), fromEpochMillis);
+        if (start == null || start.offset() >= Files.size(file)
+                || !replayFrom(file, start, fromEpochMillis, toEpochMillis, callback)) {
+            replayFrom(file, null, fromEpochMillis, toEpochMillis, callback);
+        }
+    }
+
+    /**
+     * Replays one history file from an entry onwards.
+     *
+     * @param file            The history file to read.
+     * @param start           The entry to start reading at, or null to read from the start of the file.
+     * @param fromEpochMillis The earliest snapshot time to replay, inclusive.
+     * @param toEpochMillis   The latest snapshot time to replay, inclusive.
+     * @param callback        The callback to notify with each replayed snapshot.
+     * @return false if the file does not hold the start entry at its offset, before anything was replayed.
+     * @throws IOException If there is an error reading the file.
+     */
+    private boolean replayFrom(Path file, IndexEntry start, long fromEpochMillis, long toEpochMillis,
+                               TrainFeedCallback callback) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CsvReader reader = new CsvReader(new InputStreamReader(
+                     Channels.newInputStream(channel.position(start == null ? 0 : start.offset())),
+                     StandardCharsets.UTF_8))) {
+            if (start != null && !(reader.nextRecord() && reader.getFieldCount() == 1
+                    && reader.getString(0).equals(ENTRY_PREFIX + start.epochMillis()))) {
+                return false;
+            }
+            List<TrainStatus> trains = new ArrayList<>();
+            boolean inRange = false;
+            while (reader.nextRecord()) {
+                if (reader.getFieldCount() == 1 && reader.getString(0).startsWith(ENTRY_PREFIX)) {
+                    emit(trains, inRange, callback);
+                    long epoch = Long.parseLong(reader.getString(0).substring(ENTRY_PREFIX.length()).trim());
+                    if (epoch > toEpochMillis) {
+                        return true;
+                    }
+                    inRange = epoch >= fromEpochMillis;
+                } else if (inRange) {
+                    TrainStatus status = TrainDataCollector.parseTrainStatus(stationRegistry, reader);
+                    if (status != null) {
+                        trains.add(status);
+                    }
+                }
+            }
+            emit(trains, inRange, callback);
+            return true;
+        }
+    }
+
+    /**
+     * Looks up the newest entry older than a given time in the index of a history file.
+     *
+     * @param indexFile       The index file.
+     * @param fromEpochMillis The time the entry must be older than.
+     * @return The entry, or null if the index is missing or holds no older entry.
+     * @throws IOException If there is an error reading the index.
+     */
+    private static IndexEntry findEntryBefore(Path indexFile, long fromEpochMillis) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_BYTES);
+            IndexEntry found = null;
+            long low = 0;
+            long high = index.size() / INDEX_RECORD_BYTES - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                record.clear();
+                while (record.hasRemaining()) {
+                    if (index.read(record, middle * INDEX_RECORD_BYTES + record.position()) < 0) {
+                        return found;
+                    }
+                }
+                record.flip();
+                IndexEntry entry = new IndexEntry(record.getLong(), record.getLong());
+                if (entry.epochMillis() < fromEpochMillis) {
+                    found = entry;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Gets the index file kept next to a history file.
+     *
+     * @param historyFile The history file.
+     * @return The path of its index.
+     */
+    private static Path indexFileOf(Path historyFile) {
+        String name = historyFile.getFileName().toString();
+        return historyFile.resolveSibling(name.substring(0, name.length() - ".log".length()) + ".idx");
+    }
+
+    /**
+     * Hands the trains of one history entry to the callback and clears them.
+     *
+     * @param trains   The trains collected for the entry.
+     * @param inRange  Whether the entry is within the requested time range.
+     * @param callback The callback to notify.
+     */
+    private void emit(List<TrainStatus> trains, boolean inRange, TrainFeedCallback callback) {
+        if (inRange && !trains.isEmpty()) {
+            callback.onTrainSnapshot(trains.toArray(new TrainStatus[0]));
+        }
+        trains.clear();
+    }
+
+    /**
+     * Converts a snapshot file into a history entry.
+     *
+     * @param snapshot The snapshot to convert.
+     * @return The bytes of the entry, including the time header.
+     * @throws IOException If there is an error reading the snapshot.
+     */
+    private byte[] toHistoryEntry(Snapshot snapshot) throws IOException {
+        List<String> lines = Files.readAllLines(snapshot.path(), StandardCharsets.UTF_8);
+        StringBuilder entry = new StringBuilder(ENTRY_PREFIX).append(snapshot.epochMillis()).append('\n');
+        for (int i = 1; i < lines.size(); i++) { // Skip header
+            if (!lines.get(i).isBlank()) {
+                entry.append(lines.get(i)).append('\n');
+            }
+        }
+        return entry.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists the snapshots in the output directory, oldest first, using the time in the file name.
+     *
+     * @return The snapshots sorted by time.
+     * @throws IOException If there is an error listing the directory.
+     */
+    private List<Snapshot> listSnapshots() throws IOException {
+        List<Snapshot> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(outputDirectory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(outputDirectory, "Trains_*.csv")) {
+            for (Path file : files) {
+                Matcher matcher = SNAPSHOT_PATTERN.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots.add(new Snapshot(Long.parseLong(matcher.group(1)), file));
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::epochMillis));
+        return snapshots;
+    }
+
+    /**
+     * A snapshot file written by the simulator.
+     *
+     * @param epochMillis The time in the file name.
+     * @param path        The path of the file.
+     */
+    private record Snapshot(long epochMillis, Path path) {
+    }
+
+    /**
+     * An entry of a history index.
+     *
+     * @param epochMillis The time of the snapshot.
+     * @param offset      The byte offset of the entry in its history file.
+     */
+    private record IndexEntry(long epochMillis, long offset) {
+    }
+}
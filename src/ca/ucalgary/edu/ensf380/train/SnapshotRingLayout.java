@@ -0,0 +1,112 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The SnapshotRingLayout class describes the binary file shared by {@link SnapshotRingWriter} and
+ * {@link SnapshotRingReader}.
+ * <p>
+ * The file starts with a 64 byte header:
+ * <pre>
+ *  0  int   magic ("SUBR")
+ *  4  int   format version
+ *  8  int   number of slots
+ * 12  int   record capacity of a slot
+ * 16  long  sequence number of the newest complete tick, 0 before the first one
+ * 24  int   number of stations in the network the ordinals refer to
+ * </pre>
+ * It is followed by the slots. Tick {@code n} is written to slot {@code (n - 1) % slots}. Each slot has a
+ * 24 byte header (long sequence, long epoch millis, int record count) followed by 12 byte records
+ * (int train ID, int station ordinal, short line index, byte direction, one byte of padding).
+ * A slot's sequence is -1 while it is being written. All values are big-endian, and every long is
+ * 8 byte aligned so it can be read and written atomically through {@link #LONG}.
+ */
+final class SnapshotRingLayout {
+
+    static final int MAGIC = 0x53554252; // "SUBR"
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_COUNT_OFFSET = 8;
+    static final int SLOT_CAPACITY_OFFSET = 12;
+    static final int SEQUENCE_OFFSET = 16;
+    static final int STATION_COUNT_OFFSET = 24;
+    static final int HEADER_BYTES = 64;
+
+    static final int SLOT_SEQUENCE_OFFSET = 0;
+    static final int SLOT_EPOCH_OFFSET = 8;
+    static final int SLOT_RECORD_COUNT_OFFSET = 16;
+    static final int SLOT_HEADER_BYTES = 24;
+
+    static final int RECORD_TRAIN_OFFSET = 0;
+    static final int RECORD_STATION_OFFSET = 4;
+    static final int RECORD_LINE_OFFSET = 8;
+    static final int RECORD_DIRECTION_OFFSET = 10;
+    static final int RECORD_BYTES = 12;
+
+    static final byte FORWARD = 1;
+    static final byte BACKWARD = 0;
+
+    /**
+     * Sequence value of a slot that is being written.
+     */
+    static final long WRITING = -1;
+
+    /**
+     * Atomic access to the longs of the mapped file, so sequence numbers can be read and published
+     * with volatile semantics, including by other processes mapping the same file.
+     */
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private SnapshotRingLayout() {
+    }
+
+    /**
+     * Gets the size in bytes of one slot, rounded up so the next slot is 8 byte aligned.
+     *
+     * @param slotCapacity The number of records a slot holds.
+     * @return The size of a slot.
+     */
+    static int slotBytes(int slotCapacity) {
+        return (SLOT_HEADER_BYTES + slotCapacity * RECORD_BYTES + 7) & ~7;
+    }
+
+    /**
+     * Gets the size in bytes of a whole file.
+     *
+     * @param slotCount    The number of slots.
+     * @param slotCapacity The number of records a slot holds.
+     * @return The size of the file.
+     */
+    static long fileBytes(int slotCount, int slotCapacity) {
+        return HEADER_BYTES + (long) slotCount * slotBytes(slotCapacity);
+    }
+
+    /**
+     * Gets the offset of the slot holding a tick.
+     *
+     * @param sequence     The sequence number of the tick, starting at 1.
+     * @param slotCount    The number of slots.
+     * @param slotCapacity The number of records a slot holds.
+     * @return The offset of the slot in the file.
+     */
+    static int slotOffset(long sequence, int slotCount, int slotCapacity) {
+        return HEADER_BYTES + (int) ((sequence - 1) % slotCount) * slotBytes(slotCapacity);
+    }
+
+    /**
+     * Checks whether a buffer holds a file in this format.
+     *
+     * @param buffer The mapped file.
+     * @return true if the magic number and version match.
+     */
+    static boolean isValid(ByteBuffer buffer) {
+        return buffer.capacity() >= HEADER_BYTES
+                && buffer.getInt(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(VERSION_OFFSET) == VERSION;
+    }
+}
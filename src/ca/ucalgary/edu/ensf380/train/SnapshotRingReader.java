@@ -0,0 +1,206 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ca.ucalgary.edu.ensf380.train.SnapshotRingLayout.*;
+
+/**
+ * The SnapshotRingReader class reads train snapshots from a ring buffer file written by a
+ * {@link SnapshotRingWriter}, possibly in another process.
+ * <p>
+ * The file is mapped read-only. {@link #getSequence()} is a single volatile read of the file header, so
+ * polling for a new tick costs nothing when there is none. The records of a tick are copied out of its
+ * slot and the slot's sequence number is checked again afterwards, so a tick that the writer overwrote
+ * while it was being read is never returned.
+ */
+public class SnapshotRingReader implements Closeable {
+
+    private static final int MAX_READ_ATTEMPTS = 3;
+
+    private final StationRegistry stationRegistry;
+    private final List<String> lineCodes;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotCapacity;
+
+    private int[] trainIds = new int[0];
+    private int[] stationOrdinals = new int[0];
+    private short[] lineIndexes = new short[0];
+    private byte[] directions = new byte[0];
+    private long readSequence;
+    private long readEpochMillis;
+    private long copiedEpochMillis;
+
+    /**
+     * Opens a ring buffer file for reading.
+     *
+     * @param file            The ring buffer file.
+     * @param stationRegistry The registry the station ordinals and line indexes refer to. It must be loaded
+     *                        from the same station data as the writer's.
+     * @throws IOException If the file cannot be mapped, is not a ring buffer file, or was written for a
+     *                     different network.
+     */
+    public SnapshotRingReader(Path file, StationRegistry stationRegistry) throws IOException {
+        this.stationRegistry = stationRegistry;
+        this.lineCodes = new ArrayList<>(stationRegistry.getLineCodes());
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!isValid(buffer)) {
+                throw new IOException("Not a train snapshot ring: " + file);
+            }
+            if (buffer.getInt(STATION_COUNT_OFFSET) != stationRegistry.size()) {
+                throw new IOException("Snapshot ring " + file + " was written for " + buffer.getInt(STATION_COUNT_OFFSET)
+                        + " stations, not " + stationRegistry.size());
+            }
+            this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+            this.slotCapacity = buffer.getInt(SLOT_CAPACITY_OFFSET);
+            if (buffer.capacity() < fileBytes(slotCount, slotCapacity)) {
+                throw new IOException("Snapshot ring is truncated: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the sequence number of the newest published tick. A reader compares it with the last sequence
+     * number it read to find out whether there is a new tick.
+     *
+     * @return The sequence number, or 0 if nothing has been published.
+     */
+    public long getSequence() {
+        return (long) LONG.getVolatile(buffer, SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Reads the newest tick.
+     *
+     * @return The trains of the newest tick, or null if nothing has been published or the writer kept
+     *         overwriting the tick while it was read.
+     */
+    public TrainStatus[] readLatest() {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = getSequence();
+            if (sequence <= 0) {
+                return null;
+            }
+            int count = copySlot(sequence);
+            if (count >= 0) {
+                readSequence = sequence;
+                readEpochMillis = copiedEpochMillis;
+                return toTrainStatuses(count);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the sequence number of the tick last returned by {@link #readLatest()}.
+     *
+     * @return The sequence number, or 0 if no tick has been read.
+     */
+    public long getReadSequence() {
+        return readSequence;
+    }
+
+    /**
+     * Gets the time the tick last returned by {@link #readLatest()} was written.
+     *
+     * @return The time in epoch milliseconds, or 0 if no tick has been read.
+     */
+    public long getReadEpochMillis() {
+        return readEpochMillis;
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected.
+     *
+     * @throws IOException If there is an error closing the file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Copies the records of a tick out of its slot.
+     *
+     * @param sequence The sequence number of the tick.
+     * @return The number of records copied, or -1 if the slot no longer holds the tick.
+     */
+    private int copySlot(long sequence) {
+        int slot = slotOffset(sequence, slotCount, slotCapacity);
+        if ((long) LONG.getAcquire(buffer, slot + SLOT_SEQUENCE_OFFSET) != sequence) {
+            return -1;
+        }
+
+        copiedEpochMillis = buffer.getLong(slot + SLOT_EPOCH_OFFSET);
+        int count = Math.min(buffer.getInt(slot + SLOT_RECORD_COUNT_OFFSET), slotCapacity);
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int record = slot + SLOT_HEADER_BYTES + i * RECORD_BYTES;
+            trainIds[i] = buffer.getInt(record + RECORD_TRAIN_OFFSET);
+            stationOrdinals[i] = buffer.getInt(record + RECORD_STATION_OFFSET);
+            lineIndexes[i] = buffer.getShort(record + RECORD_LINE_OFFSET);
+            directions[i] = buffer.get(record + RECORD_DIRECTION_OFFSET);
+        }
+
+        // The copy only counts if the writer did not start on the slot meanwhile.
+        VarHandle.loadLoadFence();
+        return (long) LONG.getVolatile(buffer, slot + SLOT_SEQUENCE_OFFSET) == sequence ? count : -1;
+    }
+
+    /**
+     * Turns the copied records into train statuses.
+     *
+     * @param count The number of copied records.
+     * @return The trains of the tick.
+     */
+    private TrainStatus[] toTrainStatuses(int count) {
+        List<TrainStatus> trains = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = stationOrdinals[i];
+            int line = lineIndexes[i];
+            if (ordinal < 0 || ordinal >= stationRegistry.size() || line < 0 || line >= lineCodes.size()) {
+                continue;
+            }
+            String lineCode = lineCodes.get(line);
+            boolean forward = directions[i] == FORWARD;
+            List<StationInfo> lineStations = stationRegistry.getLineStations(lineCode);
+            StationInfo terminus = forward ? lineStations.get(lineStations.size() - 1) : lineStations.get(0);
+            trains.add(TrainDataCollector.createTrainStatus(stationRegistry, lineCode, trainIds[i],
+                    stationRegistry.getStation(ordinal).getStationIdentifier(),
+                    forward ? "forward" : "backward", terminus.getStationIdentifier()));
+        }
+        return trains.toArray(new TrainStatus[0]);
+    }
+
+    /**
+     * Grows the copy arrays to hold at least the given number of records.
+     *
+     * @param size The number of records.
+     */
+    private void ensureCapacity(int size) {
+        if (trainIds.length >= size) {
+            return;
+        }
+        trainIds = new int[size];
+        stationOrdinals = new int[size];
+        lineIndexes = new short[size];
+        directions = new byte[size];
+    }
+}
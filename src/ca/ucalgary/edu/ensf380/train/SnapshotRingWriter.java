@@ -0,0 +1,182 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ca.ucalgary.edu.ensf380.train.SnapshotRingLayout.*;
+
+/**
+ * The SnapshotRingWriter class publishes train snapshots into a memory-mapped ring buffer file.
+ * <p>
+ * Each snapshot is written into the next slot of the ring as fixed-width binary records, and then made
+ * visible by advancing the sequence number in the file header. A reader only has to compare that one
+ * number with the last one it saw to know whether a new tick is available, and the file can be mapped by
+ * readers in other processes on the same host. The ring keeps the newest ticks, so a reader that falls
+ * behind by less than the number of slots still finds the tick it was told about. See
+ * {@link SnapshotRingLayout} for the file format.
+ * <p>
+ * There must be only one writer per file.
+ */
+public class SnapshotRingWriter implements Closeable {
+
+    /**
+     * Name of the ring buffer file in the simulator output directory.
+     */
+    public static final String DEFAULT_FILE_NAME = "trains.ring";
+
+    /**
+     * Default number of ticks kept in the ring.
+     */
+    public static final int DEFAULT_SLOT_COUNT = 8;
+
+    /**
+     * Default number of trains a tick can hold.
+     */
+    public static final int DEFAULT_SLOT_CAPACITY = 256;
+
+    private final StationRegistry stationRegistry;
+    private final Map<String, Integer> lineIndexes;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotCapacity;
+    private long sequence;
+
+    /**
+     * Opens a ring buffer file for writing, creating it if needed. An existing file with the same layout
+     * keeps its sequence number, so readers never see it go backwards; any other file is reset.
+     *
+     * @param file            The ring buffer file.
+     * @param slotCount       The number of ticks kept in the ring.
+     * @param slotCapacity    The number of trains a tick can hold.
+     * @param stationRegistry The registry the station ordinals and line indexes refer to.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public SnapshotRingWriter(Path file, int slotCount, int slotCapacity, StationRegistry stationRegistry)
+            throws IOException {
+        if (slotCount < 1 || slotCapacity < 1) {
+            throw new IllegalArgumentException("A ring needs at least one slot of one record: "
+                    + slotCount + " x " + slotCapacity);
+        }
+        this.stationRegistry = stationRegistry;
+        this.lineIndexes = new HashMap<>();
+        for (String lineCode : stationRegistry.getLineCodes()) {
+            lineIndexes.put(lineCode, lineIndexes.size());
+        }
+        this.slotCount = slotCount;
+        this.slotCapacity = slotCapacity;
+
+        long size = fileBytes(slotCount, slotCapacity);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean sameLayout = channel.size() == size;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (sameLayout && isValid(buffer)
+                    && buffer.getInt(SLOT_COUNT_OFFSET) == slotCount
+                    && buffer.getInt(SLOT_CAPACITY_OFFSET) == slotCapacity
+                    && buffer.getInt(STATION_COUNT_OFFSET) == stationRegistry.size()) {
+                this.sequence = (long) LONG.getVolatile(buffer, SEQUENCE_OFFSET);
+            } else {
+                initialize();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a snapshot into the next slot and publishes it.
+     *
+     * @param trains The trains of the tick.
+     * @return The sequence number of the tick.
+     * @throws IllegalArgumentException If the snapshot has more trains than a slot holds.
+     */
+    public long write(TrainStatus[] trains) {
+        if (trains.length > slotCapacity) {
+            throw new IllegalArgumentException("Snapshot of " + trains.length + " trains exceeds the slot capacity of "
+                    + slotCapacity);
+        }
+
+        long next = sequence + 1;
+        int slot = slotOffset(next, slotCount, slotCapacity);
+
+        // Mark the slot as being written before touching its records, so a reader of the tick that
+        // used to be in this slot notices it was overwritten.
+        LONG.setVolatile(buffer, slot + SLOT_SEQUENCE_OFFSET, WRITING);
+        VarHandle.storeStoreFence();
+
+        int count = 0;
+        for (TrainStatus train : trains) {
+            int ordinal = stationRegistry.getOrdinal(train.getCurrentStationId());
+            Integer line = lineIndexes.get(train.getRouteName());
+            if (ordinal < 0 || line == null) {
+                continue;
+            }
+            int record = slot + SLOT_HEADER_BYTES + count * RECORD_BYTES;
+            buffer.putInt(record + RECORD_TRAIN_OFFSET, train.getTrainId());
+            buffer.putInt(record + RECORD_STATION_OFFSET, ordinal);
+            buffer.putShort(record + RECORD_LINE_OFFSET, line.shortValue());
+            buffer.put(record + RECORD_DIRECTION_OFFSET,
+                    LineTopology.isForward(train.getMovementDirection()) ? FORWARD : BACKWARD);
+            count++;
+        }
+        buffer.putLong(slot + SLOT_EPOCH_OFFSET, System.currentTimeMillis());
+        buffer.putInt(slot + SLOT_RECORD_COUNT_OFFSET, count);
+
+        LONG.setRelease(buffer, slot + SLOT_SEQUENCE_OFFSET, next);
+        LONG.setRelease(buffer, SEQUENCE_OFFSET, next);
+        sequence = next;
+        return next;
+    }
+
+    /**
+     * Gets the sequence number of the newest published tick.
+     *
+     * @return The sequence number, or 0 if nothing has been published.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected.
+     *
+     * @throws IOException If there is an error closing the file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a fresh header and empties every slot.
+     */
+    private void initialize() {
+        // Invalidate the file while the header is rewritten, so readers reject it.
+        buffer.putInt(MAGIC_OFFSET, 0);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+        buffer.putInt(SLOT_CAPACITY_OFFSET, slotCapacity);
+        buffer.putInt(STATION_COUNT_OFFSET, stationRegistry.size());
+        for (int i = 0; i < slotCount; i++) {
+            int slot = slotOffset(i + 1, slotCount, slotCapacity);
+            buffer.putLong(slot + SLOT_SEQUENCE_OFFSET, 0);
+            buffer.putInt(slot + SLOT_RECORD_COUNT_OFFSET, 0);
+        }
+        LONG.setVolatile(buffer, SEQUENCE_OFFSET, 0L);
+        VarHandle.storeStoreFence();
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        sequence = 0;
+    }
+}
@@ -1,13 +1,15 @@
 package ca.ucalgary.edu.ensf380.train;
 
+import ca.ucalgary.edu.ensf380.helper.CsvReader;
 import ca.ucalgary.edu.ensf380.models.Coordinates;
 import ca.ucalgary.edu.ensf380.models.StationInfo;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,20 +30,20 @@ public class StationDataImporter {
      * Constructs a new StationDataImporter with an empty station directory.
      */
     public StationDataImporter() {
-        this.stationDirectory = new HashMap<>();
+        this.stationDirectory = new LinkedHashMap<>();
     }
 
     /**
      * Imports station data from the CSV file specified by the dataSource attribute.
      *
-     * @return a map containing station identifiers as keys and StationInfo objects as values.
+     * @return a map containing station identifiers as keys and StationInfo objects as values,
+     *         in the order the stations appear in the file.
      */
     public Map<String, StationInfo> importStationData() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(dataSource))) {
-            String line;
-            reader.readLine(); // Skip header
-            while ((line = reader.readLine()) != null) {
-                processStationRecord(line);
+        try (CsvReader reader = CsvReader.open(Paths.get(dataSource))) {
+            reader.nextRecord(); // Skip header
+            while (reader.nextRecord()) {
+                processStationRecord(reader);
             }
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error reading station data: " + e.getMessage(), e);
@@ -50,30 +52,47 @@ public class StationDataImporter {
     }
 
     /**
-     * Processes a single line of the CSV file, creating a StationInfo object
+     * Processes a single record of the CSV file, creating a StationInfo object
      * and adding it to the station directory.
      *
-     * @param record a single line of the CSV file representing a station record.
+     * @param record the reader positioned on a station record.
      */
-    private void processStationRecord(String record) {
-        String[] fields = record.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
-        if (fields.length < 7) return;
+    private void processStationRecord(CsvReader record) {
+        if (record.getFieldCount() < 7) return;
 
-        int id = Integer.parseInt(fields[0].trim());
-        String lineCode = fields[1].trim();
-        String identifier = fields[3].trim();
-        String label = fields[4].trim();
-        Coordinates location = new Coordinates(
-                Double.parseDouble(fields[5].trim()),
-                Double.parseDouble(fields[6].trim())
-        );
+        int id = record.getInt(0);
+        String lineCode = record.getString(1);
+        String identifier = record.getString(3);
+        String label = record.getString(4);
+        Coordinates location = new Coordinates(record.getDouble(5), record.getDouble(6));
 
-        StationInfo station = new StationInfo(id, lineCode, identifier, label, location);
+        Set<String> commonStations = record.getFieldCount() > 7 && !record.isEmpty(7)
+                ? parseCommonStations(record.getString(7))
+                : new LinkedHashSet<>();
+
+        StationInfo station = new StationInfo(id, lineCode, identifier, label, location, commonStations);
 
         stationDirectory.put(identifier, station);
     }
 
 
+    /**
+     * Parses the "Common Stations" column, which holds either a single station code
+     * or a quoted, comma separated list of station codes.
+     *
+     * @param field the value of the column, without the enclosing quotes.
+     * @return the set of station codes listed in the column.
+     */
+    private Set<String> parseCommonStations(String field) {
+        Set<String> commonStations = new LinkedHashSet<>();
+        for (String code : field.split(",")) {
+            if (!code.isBlank()) {
+                commonStations.add(code.trim());
+            }
+        }
+        return commonStations;
+    }
+
     /**
      * Sets the data source file path.
      *
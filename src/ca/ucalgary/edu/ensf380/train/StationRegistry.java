@@ -0,0 +1,157 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The StationRegistry class is a process-wide, immutable view of the subway network.
+ * <p>
+ * Station data is imported once through {@link StationDataImporter} and indexed by station code,
+ * by line code and by ordinal. The ordinal of a station is its position in the data source,
+ * starting at zero, and stays stable for the lifetime of the registry.
+ */
+public final class StationRegistry {
+
+    private final StationInfo[] stationsByOrdinal;
+    private final Map<String, Integer> ordinalsByCode;
+    private final Map<String, StationInfo> stationsByCode;
+    private final Map<String, List<StationInfo>> stationsByLine;
+    private final LineTopology topology;
+
+    /**
+     * Lazily initialized holder for the shared registry backed by the default data source.
+     */
+    private static final class Holder {
+        private static final StationRegistry INSTANCE = load(new StationDataImporter());
+    }
+
+    /**
+     * Constructs a StationRegistry from the given stations, in ordinal order.
+     *
+     * @param stations the stations to index, in the order they appear in the data source.
+     */
+    private StationRegistry(List<StationInfo> stations) {
+        this.stationsByOrdinal = stations.toArray(new StationInfo[0]);
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        Map<String, StationInfo> byCode = new LinkedHashMap<>();
+        Map<String, List<StationInfo>> byLine = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < stationsByOrdinal.length; ordinal++) {
+            StationInfo station = stationsByOrdinal[ordinal];
+            ordinals.put(station.getStationIdentifier(), ordinal);
+            byCode.put(station.getStationIdentifier(), station);
+            byLine.computeIfAbsent(station.getLineCode(), line -> new ArrayList<>()).add(station);
+        }
+        byLine.replaceAll((line, lineStations) -> Collections.unmodifiableList(lineStations));
+
+        this.ordinalsByCode = Collections.unmodifiableMap(ordinals);
+        this.stationsByCode = Collections.unmodifiableMap(byCode);
+        this.stationsByLine = Collections.unmodifiableMap(byLine);
+        this.topology = new LineTopology(this);
+    }
+
+    /**
+     * Gets the shared registry built from the default data source ({@code ./data/subway.csv}).
+     * The data source is read the first time this method is called.
+     *
+     * @return the shared StationRegistry.
+     */
+    public static StationRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Builds a new registry from the data source configured on the given importer.
+     *
+     * @param importer the importer used to read the station data.
+     * @return a new StationRegistry containing the imported stations.
+     */
+    public static StationRegistry load(StationDataImporter importer) {
+        return new StationRegistry(new ArrayList<>(importer.importStationData().values()));
+    }
+
+    /**
+     * Gets the station with the given station code.
+     *
+     * @param stationCode the station code, for example "R01".
+     * @return the matching StationInfo, or null if no such station exists.
+     */
+    public StationInfo getStation(String stationCode) {
+        return stationCode == null ? null : stationsByCode.get(stationCode);
+    }
+
+    /**
+     * Gets the station with the given ordinal.
+     *
+     * @param ordinal the ordinal of the station.
+     * @return the matching StationInfo.
+     * @throws IndexOutOfBoundsException if the ordinal is outside the registry.
+     */
+    public StationInfo getStation(int ordinal) {
+        return stationsByOrdinal[ordinal];
+    }
+
+    /**
+     * Gets the ordinal of the station with the given station code.
+     *
+     * @param stationCode the station code, for example "R01".
+     * @return the ordinal of the station, or -1 if no such station exists.
+     */
+    public int getOrdinal(String stationCode) {
+        Integer ordinal = stationCode == null ? null : ordinalsByCode.get(stationCode);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Gets the stations on the given line, in data source order.
+     *
+     * @param lineCode the line code, for example "R".
+     * @return an unmodifiable list of stations, empty if the line is unknown.
+     */
+    public List<StationInfo> getLineStations(String lineCode) {
+        return stationsByLine.getOrDefault(lineCode, Collections.emptyList());
+    }
+
+    /**
+     * Gets the codes of all lines in the network.
+     *
+     * @return an unmodifiable set of line codes, in data source order.
+     */
+    public Set<String> getLineCodes() {
+        return stationsByLine.keySet();
+    }
+
+    /**
+     * Gets the compiled topology of the network, used for next and previous station lookups.
+     *
+     * @return the LineTopology built from this registry.
+     */
+    public LineTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets all stations keyed by station code.
+     *
+     * @return an unmodifiable map of station codes to StationInfo objects, in data source order.
+     */
+    public Map<String, StationInfo> getStationsByCode() {
+        return stationsByCode;
+    }
+
+    /**
+     * Gets the number of stations in the registry.
+     *
+     * @return the number of stations.
+     */
+    public int size() {
+        return stationsByOrdinal.length;
+    }
+}
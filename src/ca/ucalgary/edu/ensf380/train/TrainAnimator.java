@@ -0,0 +1,261 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.Coordinates;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshot;
+import ca.ucalgary.edu.ensf380.models.NetworkSnapshotCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import javax.swing.Timer;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The TrainAnimator class moves the train markers smoothly between simulator ticks.
+ * <p>
+ * When a snapshot arrives, each train gets a path along its line from the station it was last shown
+ * at to its new station, following the coordinates of every station in between. A single Swing
+ * {@link Timer} then advances all trains along their paths at a fixed frame rate, spreading the
+ * movement over the measured time between snapshots, and renders each frame through the
+ * {@link TrainMapVisualizer}. Paths and positions live in arrays that are only resized when a
+ * snapshot brings more trains, so a frame does not allocate.
+ * <p>
+ * Snapshots may be delivered from any thread, and a snapshot that is not newer than the last one
+ * applied is ignored. Everything else runs on the event dispatch thread.
+ */
+public class TrainAnimator implements NetworkSnapshotCallback {
+
+    /**
+     * Number of frames rendered per second while trains are moving.
+     */
+    public static final int FRAMES_PER_SECOND = 60;
+
+    private static final int MAX_PATH_STATIONS = 8;
+    private static final long DEFAULT_TICK_NANOS = 15_000_000_000L;
+    private static final long MIN_TICK_NANOS = 250_000_000L;
+    private static final long MAX_TICK_NANOS = 60_000_000_000L;
+
+    private final StationRegistry stationRegistry;
+    private final TrainMapVisualizer visualizer;
+    private final double[] stationXs;
+    private final double[] stationYs;
+    private final Timer timer;
+    private final AtomicReference<NetworkSnapshot> pendingSnapshot = new AtomicReference<>();
+    private volatile int focusedTrain;
+
+    private int trainCount = 0;
+    private int[][] paths = new int[0][];
+    private double[][] pathDistances = new double[0][];
+    private int[] pathLengths = new int[0];
+    private int[] xPositions = new int[0];
+    private int[] yPositions = new int[0];
+    private long segmentStart;
+    private long segmentDuration = DEFAULT_TICK_NANOS;
+    private long lastSnapshotTime = -1;
+    private boolean settled = true;
+    private int renderedFocus = -1;
+    private NetworkSnapshot appliedSnapshot = NetworkSnapshot.EMPTY;
+
+    /**
+     * Constructs a TrainAnimator that renders through the given visualizer.
+     *
+     * @param stationRegistry The registry used to resolve station positions and line paths.
+     * @param visualizer      The visualizer that draws each frame.
+     * @param focusedTrain    Index of the train to highlight.
+     */
+    public TrainAnimator(StationRegistry stationRegistry, TrainMapVisualizer visualizer, int focusedTrain) {
+        this.stationRegistry = stationRegistry;
+        this.visualizer = visualizer;
+        this.focusedTrain = focusedTrain;
+
+        this.stationXs = new double[stationRegistry.size()];
+        this.stationYs = new double[stationRegistry.size()];
+        for (int ordinal = 0; ordinal < stationRegistry.size(); ordinal++) {
+            Coordinates location = stationRegistry.getStation(ordinal).getLocation();
+            stationXs[ordinal] = location.getLatitude();
+            stationYs[ordinal] = location.getLongitude();
+        }
+
+        this.timer = new Timer(1000 / FRAMES_PER_SECOND, e -> renderFrame(System.nanoTime()));
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Starts the animation timer.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Stops the animation timer.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Sets the train to highlight. The change is shown on the next frame.
+     *
+     * @param focusedTrain Index of the train to highlight.
+     */
+    public void setFocusedTrain(int focusedTrain) {
+        this.focusedTrain = focusedTrain;
+    }
+
+    /**
+     * Hands a new snapshot to the animator. Only the newest snapshot is kept until the next frame.
+     *
+     * @param snapshot The snapshot of the network.
+     */
+    @Override
+    public void onNetworkSnapshot(NetworkSnapshot snapshot) {
+        pendingSnapshot.set(snapshot);
+    }
+
+    /**
+     * Advances the animation and renders a frame if anything changed. The timer calls this with the
+     * current time; it can also be called with explicit times to render frames without the timer.
+     * Must be called on the event dispatch thread while the timer runs.
+     *
+     * @param now The current time from {@link System#nanoTime()}.
+     */
+    public void renderFrame(long now) {
+        NetworkSnapshot snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot != null && snapshot.isNewerThan(appliedSnapshot)) {
+            applySnapshot(snapshot, now);
+        }
+
+        int focus = focusedTrain;
+        if (trainCount == 0 || (settled && focus == renderedFocus)) {
+            return;
+        }
+
+        double progress = Math.min(1.0, (now - segmentStart) / (double) segmentDuration);
+        for (int i = 0; i < trainCount; i++) {
+            interpolate(i, progress);
+        }
+        visualizer.renderTrainMap(xPositions, yPositions, trainCount, focus);
+
+        renderedFocus = focus;
+        settled = progress >= 1.0;
+    }
+
+    /**
+     * Builds a new path for every train, ending at its station in the snapshot.
+     *
+     * @param snapshot The snapshot to apply.
+     * @param now      The time the snapshot is applied.
+     */
+    private void applySnapshot(NetworkSnapshot snapshot, long now) {
+        if (lastSnapshotTime >= 0) {
+            segmentDuration = Math.max(MIN_TICK_NANOS, Math.min(MAX_TICK_NANOS, now - lastSnapshotTime));
+        }
+        lastSnapshotTime = now;
+        segmentStart = now;
+        settled = false;
+        appliedSnapshot = snapshot;
+
+        int count = snapshot.getTrainCount();
+        ensureCapacity(count);
+        LineTopology topology = stationRegistry.getTopology();
+        for (int i = 0; i < count; i++) {
+            TrainStatus train = snapshot.getTrain(i);
+            int target = stationRegistry.getOrdinal(train.getCurrentStationId());
+            int start = i < trainCount ? paths[i][pathLengths[i] - 1] : LineTopology.NO_STATION;
+            boolean forward = LineTopology.isForward(train.getMovementDirection());
+            buildPath(i, topology, start, target, forward);
+        }
+        trainCount = count;
+    }
+
+    /**
+     * Builds the path of one train by walking its line from the start to the target station.
+     * If the target cannot be reached within {@link #MAX_PATH_STATIONS}, the train jumps to it.
+     *
+     * @param train    The index of the train.
+     * @param topology The topology used to walk the line.
+     * @param start    The ordinal of the station the train was last shown at.
+     * @param target   The ordinal of the station the train is at now.
+     * @param forward  True if the train travels forward.
+     */
+    private void buildPath(int train, LineTopology topology, int start, int target, boolean forward) {
+        int[] path = paths[train];
+        double[] distances = pathDistances[train];
+
+        int length = 1;
+        path[0] = target;
+        if (start != LineTopology.NO_STATION && start != target) {
+            path[0] = start;
+            int current = start;
+            while (current != target && current != LineTopology.NO_STATION && length < MAX_PATH_STATIONS) {
+                current = topology.next(current, forward);
+                path[length++] = current;
+            }
+            if (current != target) {
+                path[0] = target;
+                length = 1;
+            }
+        }
+
+        distances[0] = 0;
+        for (int k = 1; k < length; k++) {
+            distances[k] = distances[k - 1] + Math.hypot(
+                    stationXs[path[k]] - stationXs[path[k - 1]],
+                    stationYs[path[k]] - stationYs[path[k - 1]]);
+        }
+        pathLengths[train] = length;
+    }
+
+    /**
+     * Places one train at the given fraction of its path, measured by distance.
+     *
+     * @param train    The index of the train.
+     * @param progress The fraction of the path travelled, from 0 to 1.
+     */
+    private void interpolate(int train, double progress) {
+        int[] path = paths[train];
+        double[] distances = pathDistances[train];
+        int last = pathLengths[train] - 1;
+
+        double x = stationXs[path[last]];
+        double y = stationYs[path[last]];
+        if (last > 0 && progress < 1.0) {
+            double travelled = progress * distances[last];
+            int k = 1;
+            while (k < last && distances[k] < travelled) {
+                k++;
+            }
+            double segment = distances[k] - distances[k - 1];
+            double t = segment > 0 ? (travelled - distances[k - 1]) / segment : 1.0;
+            x = stationXs[path[k - 1]] + (stationXs[path[k]] - stationXs[path[k - 1]]) * t;
+            y = stationYs[path[k - 1]] + (stationYs[path[k]] - stationYs[path[k - 1]]) * t;
+        }
+        xPositions[train] = (int) Math.round(x);
+        yPositions[train] = (int) Math.round(y);
+    }
+
+    /**
+     * Grows the per-train arrays to hold at least the given number of trains, keeping existing paths.
+     *
+     * @param size The number of trains.
+     */
+    private void ensureCapacity(int size) {
+        if (paths.length >= size) {
+            return;
+        }
+        int[][] grownPaths = new int[size][];
+        double[][] grownDistances = new double[size][];
+        int[] grownLengths = new int[size];
+        System.arraycopy(paths, 0, grownPaths, 0, paths.length);
+        System.arraycopy(pathDistances, 0, grownDistances, 0, pathDistances.length);
+        System.arraycopy(pathLengths, 0, grownLengths, 0, pathLengths.length);
+        for (int i = paths.length; i < size; i++) {
+            grownPaths[i] = new int[MAX_PATH_STATIONS];
+            grownDistances[i] = new double[MAX_PATH_STATIONS];
+        }
+        paths = grownPaths;
+        pathDistances = grownDistances;
+        pathLengths = grownLengths;
+        xPositions = new int[size];
+        yPositions = new int[size];
+    }
+}
@@ -1,5 +1,6 @@
 package ca.ucalgary.edu.ensf380.train;
 
+import ca.ucalgary.edu.ensf380.helper.CsvReader;
 import ca.ucalgary.edu.ensf380.models.TrainStatus;
 
 import java.io.IOException;
@@ -10,23 +11,71 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Collects and processes train data from files in the output directory.
  * <p>
  * This class is responsible for finding the latest data file, reading the train status records,
- * and converting them into {@link TrainStatus} objects.
+ * and converting them into {@link TrainStatus} objects. When the output directory holds a binary
+ * snapshot ring written by a {@link SnapshotRingWriter}, the newest tick is read from it through a
+ * memory mapping instead of listing and parsing the CSV files. Each collection starts with a single
+ * volatile read of the ring's sequence number: while it is unchanged, the trains read last time are
+ * returned again, and a tick is only copied out of the ring when the sequence moves.
+ * <p>
+ * A ring is trusted once it advances while being watched. A ring seen for the first time may be left
+ * over from an earlier run, so it is only trusted if no CSV file is newer than its newest tick, and a
+ * ring that has not advanced for {@link #STALE_RING_MILLIS} is treated the same way. Only then are the
+ * CSV files listed.
+ * <p>
+ * The screens of this process take their ticks straight from the simulator's output through
+ * {@link SimulatorProcess}; a collector is how another process on the same host, or a benchmark,
+ * reads the ticks that process publishes.
  */
 public class TrainDataCollector {
+    /**
+     * Time in milliseconds after which a ring that has not advanced is checked against the CSV files again.
+     */
+    public static final long STALE_RING_MILLIS = 60_000;
+
     private static final Logger LOGGER = Logger.getLogger(TrainDataCollector.class.getName());
     private final List<TrainStatus> trainStatusList;
+    private final StationRegistry stationRegistry;
+    private final Path dataDirectory;
+    private SnapshotRingReader ringReader;
+    private long lastRingSequence;
+    private TrainStatus[] ringSnapshot;
+    private boolean ringTrusted;
 
     /**
-     * Constructs a new TrainDataCollector instance.
+     * Constructs a new TrainDataCollector instance backed by the shared {@link StationRegistry}.
      * Initializes an empty list to hold the collected train statuses.
      */
     public TrainDataCollector() {
+        this(StationRegistry.getInstance());
+    }
+
+    /**
+     * Constructs a new TrainDataCollector instance backed by the given {@link StationRegistry}.
+     * Initializes an empty list to hold the collected train statuses.
+     *
+     * @param stationRegistry The registry used to resolve station codes.
+     */
+    public TrainDataCollector(StationRegistry stationRegistry) {
+        this(stationRegistry, Paths.get(System.getProperty("user.dir"), "out"));
+    }
+
+    /**
+     * Constructs a new TrainDataCollector instance that reads data files from the given directory.
+     * Initializes an empty list to hold the collected train statuses.
+     *
+     * @param stationRegistry The registry used to resolve station codes.
+     * @param dataDirectory   The directory the SubwaySimulator writes its data files to.
+     */
+    public TrainDataCollector(StationRegistry stationRegistry, Path dataDirectory) {
         this.trainStatusList = new ArrayList<>();
+        this.stationRegistry = stationRegistry;
+        this.dataDirectory = dataDirectory;
     }
 
     /**
@@ -34,23 +83,48 @@ public class TrainDataCollector {
      * <p>
      * This method identifies the latest data file, reads its contents, and parses each record
      * into a {@link TrainStatus} object. The resulting array of {@link TrainStatus} objects is returned.
+     * While a trusted snapshot ring has not advanced, the array returned by the previous call is returned
+     * again, so it must not be modified.
      *
      * @return An array of {@link TrainStatus} objects representing the collected train data.
      * @throws TrainDataException If there is an error processing the train data.
      * @throws IOException If there is an error reading the data file.
      */
     public TrainStatus[] collectTrainData() throws TrainDataException, IOException {
-        Path dataDirectory = Paths.get(System.getProperty("user.dir"), "out");
+        if (openSnapshotRing()) {
+            long sequence = ringReader.getSequence();
+            if (sequence != lastRingSequence) {
+                TrainStatus[] trains = ringReader.readLatest();
+                if (trains != null) {
+                    ringTrusted = ringSnapshot != null;
+                    ringSnapshot = trains;
+                    lastRingSequence = ringReader.getReadSequence();
+                }
+            }
+            if (ringTrusted && System.currentTimeMillis() - ringReader.getReadEpochMillis() <= STALE_RING_MILLIS) {
+                return ringSnapshot;
+            }
+        }
+
         Path latestDataFile = findLatestDataFile(dataDirectory);
+        if (ringSnapshot != null && (latestDataFile == null
+                || lastModifiedMillis(latestDataFile) <= ringReader.getReadEpochMillis())) {
+            ringTrusted = true;
+            return ringSnapshot;
+        }
+        ringTrusted = false;
 
         if (latestDataFile == null) {
             throw new TrainDataException("No data files found in the output directory.");
         }
 
-        try {
-            Files.lines(latestDataFile)
-                    .skip(1)  // Skip header
-                    .forEach(this::parseTrainStatusRecord);
+        trainStatusList.clear(); // Only the trains of the latest file are returned
+
+        try (CsvReader reader = CsvReader.open(latestDataFile)) {
+            reader.nextRecord(); // Skip header
+            while (reader.nextRecord()) {
+                parseTrainStatusRecord(reader);
+            }
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error reading train data file: " + e.getMessage(), e);
             throw new TrainDataException("Failed to read train data: " + e.getMessage());
@@ -60,63 +134,135 @@ public class TrainDataCollector {
     }
 
     /**
-     * Parses a train status record from a CSV line and adds it to the train status list.
+     * Opens the snapshot ring in the output directory on first use.
+     *
+     * @return true if there is a usable ring.
+     */
+    private boolean openSnapshotRing() {
+        if (ringReader == null) {
+            Path ringFile = dataDirectory.resolve(SnapshotRingWriter.DEFAULT_FILE_NAME);
+            if (!Files.isRegularFile(ringFile)) {
+                return false;
+            }
+            try {
+                ringReader = new SnapshotRingReader(ringFile, stationRegistry);
+            } catch (IOException e) {
+                LOGGER.fine("Ignoring snapshot ring: " + e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a train status record and adds it to the train status list.
+     *
+     * @param record The reader positioned on a train status record.
+     */
+    private void parseTrainStatusRecord(CsvReader record) {
+        TrainStatus status = parseTrainStatus(stationRegistry, record);
+        if (status != null) {
+            trainStatusList.add(status);
+        }
+    }
+
+    /**
+     * Parses a train status record.
      * <p>
      * The record is expected to have 5 fields: route name, train ID, station ID, direction, and destination.
      * It also calculates the next and previous station IDs based on the current station ID and direction.
      *
-     * @param record The CSV line representing a train status record.
+     * @param stationRegistry The registry used to resolve station codes.
+     * @param record          The reader positioned on a train status record.
+     * @return The status of the train, or null if the record does not have 5 fields.
      */
-    private void parseTrainStatusRecord(String record) {
-        String[] fields = record.split(",");
-        if (fields.length != 5) return;
+    static TrainStatus parseTrainStatus(StationRegistry stationRegistry, CsvReader record) {
+        if (record.getFieldCount() != 5) return null;
 
-        String routeName = fields[0].trim();
-        int trainId = Integer.parseInt(fields[1].trim());
-        String stationId = fields[2].trim();
-        String direction = fields[3].trim();
-        String destination = fields[4].trim();
+        String routeName = record.getString(0);
+        int trainId = record.getInt(1);
+        String stationId = record.getString(2);
+        String direction = record.fieldEquals(3, "forward") ? "forward"
+                : record.fieldEquals(3, "backward") ? "backward"
+                : record.getString(3);
+        String destination = record.getString(4);
 
-        String nextStationId = calculateAdjacentStation(stationId, direction, true);
-        String prevStationId = calculateAdjacentStation(stationId, direction, false);
+        return createTrainStatus(stationRegistry, routeName, trainId, stationId, direction, destination);
+    }
+
+    /**
+     * Creates a {@link TrainStatus}, resolving the next and previous station IDs through the registry.
+     *
+     * @param stationRegistry The registry used to resolve station codes.
+     * @param routeName       The name of the train route.
+     * @param trainId         The unique ID of the train.
+     * @param stationId       The ID of the current station.
+     * @param direction       The direction of movement ("forward" or "backward").
+     * @param destination     The ID of the end station of the route.
+     * @return The status of the train.
+     */
+    static TrainStatus createTrainStatus(StationRegistry stationRegistry, String routeName, int trainId,
+                                         String stationId, String direction, String destination) {
+        String nextStationId = calculateAdjacentStation(stationRegistry, stationId, direction, true);
+        String prevStationId = calculateAdjacentStation(stationRegistry, stationId, direction, false);
 
-        TrainStatus status = new TrainStatus(routeName, trainId, stationId, direction,
+        return new TrainStatus(stationRegistry, routeName, trainId, stationId, direction,
                 destination, nextStationId, prevStationId);
-        trainStatusList.add(status);
     }
 
     /**
      * Calculates the ID of the adjacent station based on the current station ID and direction.
      * <p>
-     * This is a simplified placeholder method. The actual implementation may depend on the specific station numbering system.
+     * Neighbours are resolved through the {@link LineTopology} of the station registry.
      *
+     * @param stationRegistry The registry used to resolve station codes.
      * @param stationId   The ID of the current station.
      * @param direction   The direction of movement ("forward" or "backward").
      * @param isNext      If true, calculates the ID of the next station; if false, calculates the ID of the previous station.
-     * @return The ID of the adjacent station.
+     * @return The ID of the adjacent station, or null if the station is at the end of its line.
      */
-    private String calculateAdjacentStation(String stationId, String direction, boolean isNext) {
-        int currentNumber = Integer.parseInt(stationId.replaceAll("\\D", ""));
-        int adjacentNumber = isNext ?
-                ("forward".equals(direction) ? currentNumber + 1 : currentNumber - 1) :
-                ("forward".equals(direction) ? currentNumber - 1 : currentNumber + 1);
-        return stationId.replaceAll("\\d+", String.format("%02d", adjacentNumber));
+    private static String calculateAdjacentStation(StationRegistry stationRegistry, String stationId,
+                                                   String direction, boolean isNext) {
+        LineTopology topology = stationRegistry.getTopology();
+        int ordinal = stationRegistry.getOrdinal(stationId);
+        boolean forward = LineTopology.isForward(direction);
+        int adjacent = isNext ? topology.next(ordinal, forward) : topology.previous(ordinal, forward);
+        return adjacent == LineTopology.NO_STATION ? null : stationRegistry.getStation(adjacent).getStationIdentifier();
     }
 
     /**
      * Finds the latest data file in the specified directory based on the last modified time.
      * <p>
-     * Returns the path to the most recently modified file or null if no files are found.
+     * Returns the path to the most recently modified {@code Trains_*.csv} file or null if no files are found.
      *
      * @param directory The directory to search for data files.
      * @return The path to the latest data file, or null if no files are found.
      * @throws IOException If there is an error accessing the directory.
      */
     private Path findLatestDataFile(Path directory) throws IOException {
-        return Files.list(directory)
-                .filter(Files::isRegularFile)
-                .max(TrainDataCollector::compareModificationTimes)
-                .orElse(null);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith("Trains_") && name.endsWith(".csv");
+                    })
+                    .max(TrainDataCollector::compareModificationTimes)
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Gets the modification time of a file.
+     *
+     * @param file The file.
+     * @return The modification time in epoch milliseconds, or 0 if it cannot be read.
+     */
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
     }
 
     /**
@@ -0,0 +1,138 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.models.StationInfo;
+import ca.ucalgary.edu.ensf380.models.TrainFeedCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The TrainFeedSource class reads train positions directly from the standard output of the
+ * SubwaySimulator and turns them into {@link TrainStatus} snapshots.
+ * <p>
+ * The simulator prints one block per tick:
+ * <pre>
+ * Train positions:
+ * R: T1(R02, F), T2(R07, F), T3(R38, B), T4(R42, B)
+ * B: T5(B04, F), ...
+ * G: T9(G04, F), ...
+ * </pre>
+ * A snapshot is emitted as soon as every line of the network has been reported, so the cost of a
+ * tick depends only on the number of trains and not on the files the simulator leaves in {@code out/}.
+ */
+public class TrainFeedSource {
+
+    private static final Logger LOGGER = Logger.getLogger(TrainFeedSource.class.getName());
+    private static final String SNAPSHOT_HEADER = "Train positions:";
+    private static final Pattern TRAIN_PATTERN = Pattern.compile("T(\\d+)\\(\\s*(\\w+)\\s*,\\s*([FB])\\s*\\)");
+
+    private final StationRegistry stationRegistry;
+    private final List<TrainStatus> pendingTrains;
+    private final Set<String> pendingLines;
+
+    /**
+     * Constructs a TrainFeedSource backed by the shared {@link StationRegistry}.
+     */
+    public TrainFeedSource() {
+        this(StationRegistry.getInstance());
+    }
+
+    /**
+     * Constructs a TrainFeedSource backed by the given {@link StationRegistry}.
+     *
+     * @param stationRegistry The registry used to resolve station codes and line ends.
+     */
+    public TrainFeedSource(StationRegistry stationRegistry) {
+        this.stationRegistry = stationRegistry;
+        this.pendingTrains = new ArrayList<>();
+        this.pendingLines = new HashSet<>();
+    }
+
+    /**
+     * Reads the simulator output until the stream ends, calling the callback for every complete snapshot.
+     * This method blocks and is meant to run on a background thread.
+     *
+     * @param input    The standard output of the simulator process.
+     * @param callback The callback to notify with each snapshot.
+     * @throws IOException If there is an error reading the stream.
+     */
+    public void consume(InputStream input, TrainFeedCallback callback) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                TrainStatus[] snapshot = processLine(line);
+                if (snapshot != null) {
+                    callback.onTrainSnapshot(snapshot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes one line of simulator output.
+     *
+     * @param line A line printed by the simulator.
+     * @return The completed snapshot if this line finished one, or null otherwise.
+     */
+    public TrainStatus[] processLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.equals(SNAPSHOT_HEADER)) {
+            // A new block starts; anything left over belongs to an incomplete tick.
+            clearPending();
+            return null;
+        }
+
+        int separator = trimmed.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+
+        String lineCode = trimmed.substring(0, separator).trim();
+        List<StationInfo> lineStations = stationRegistry.getLineStations(lineCode);
+        if (lineStations.isEmpty()) {
+            LOGGER.fine("Ignoring simulator output for unknown line: " + trimmed);
+            return null;
+        }
+
+        Matcher matcher = TRAIN_PATTERN.matcher(trimmed);
+        while (matcher.find(separator)) {
+            String direction = "F".equals(matcher.group(3)) ? "forward" : "backward";
+            StationInfo terminus = "forward".equals(direction)
+                    ? lineStations.get(lineStations.size() - 1)
+                    : lineStations.get(0);
+            pendingTrains.add(TrainDataCollector.createTrainStatus(stationRegistry, lineCode,
+                    Integer.parseInt(matcher.group(1)), matcher.group(2), direction,
+                    terminus.getStationIdentifier()));
+            separator = matcher.end();
+        }
+        pendingLines.add(lineCode);
+
+        if (pendingLines.size() < stationRegistry.getLineCodes().size()) {
+            return null;
+        }
+
+        pendingTrains.sort(Comparator.comparingInt(TrainStatus::getTrainId));
+        TrainStatus[] snapshot = pendingTrains.toArray(new TrainStatus[0]);
+        clearPending();
+        return snapshot;
+    }
+
+    /**
+     * Discards the trains and lines collected for the current tick.
+     */
+    private void clearPending() {
+        pendingTrains.clear();
+        pendingLines.clear();
+    }
+}
@@ -0,0 +1,206 @@
+package ca.ucalgary.edu.ensf380.train;
+
+import ca.ucalgary.edu.ensf380.helper.RetryBackoff;
+import ca.ucalgary.edu.ensf380.models.TrainFeedCallback;
+import ca.ucalgary.edu.ensf380.models.TrainStatus;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The TrainIngestionPipeline class hands snapshots from the thread reading the simulator output to the
+ * thread that handles them, so the reader never waits for the handler.
+ * <p>
+ * Snapshots wait in a bounded queue and are handled in order on a {@link ScheduledExecutorService}.
+ * When the queue is full, the oldest snapshot is dropped. Each snapshot is first passed to a recorder,
+ * exactly once, and then to the handler. When the handler throws, only the handler is retried, after a
+ * jittered {@link RetryBackoff} delay that is scheduled rather than slept, so whatever the recorder
+ * publishes is never published twice. Any snapshot that arrives while the pipeline is backing off
+ * replaces the ones waiting, so the retry handles the newest tick instead of working through stale ones.
+ * A snapshot whose handler fails a set number of times in a row is given up on.
+ */
+public class TrainIngestionPipeline implements TrainFeedCallback {
+
+    /**
+     * Default number of snapshots that can wait to be handled.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    /**
+     * Default number of times the handler is tried on one snapshot before the snapshot is given up on.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final Logger LOGGER = Logger.getLogger(TrainIngestionPipeline.class.getName());
+
+    private final TrainFeedCallback recorder;
+    private final TrainFeedCallback handler;
+    private final ScheduledExecutorService scheduler;
+    private final int queueCapacity;
+    private final RetryBackoff backoff;
+    private final int maxAttempts;
+
+    // Guarded by this.
+    private final Deque<TrainStatus[]> queue = new ArrayDeque<>();
+    private boolean drainScheduled = false;
+    private boolean backingOff = false;
+    private int failures = 0;
+    private long droppedSnapshots = 0;
+    private TrainStatus[] recorded;
+    private TrainStatus[] attempted;
+    private int attempts = 0;
+
+    /**
+     * Constructs a TrainIngestionPipeline without a recorder, which tries each snapshot the default number of times.
+     *
+     * @param handler       The callback that handles each snapshot. It is only ever called on the scheduler.
+     * @param scheduler     The executor the handler runs on. It must run one task at a time.
+     * @param queueCapacity The number of snapshots that can wait to be handled.
+     * @param backoff       The delays before a failed snapshot is retried.
+     */
+    public TrainIngestionPipeline(TrainFeedCallback handler, ScheduledExecutorService scheduler, int queueCapacity,
+                                  RetryBackoff backoff) {
+        this(trains -> { }, handler, scheduler, queueCapacity, backoff, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Constructs a TrainIngestionPipeline.
+     *
+     * @param recorder      The callback that records each snapshot once, before it is handled. A failure is
+     *                      logged and not retried. It is only ever called on the scheduler.
+     * @param handler       The callback that handles each snapshot. It is only ever called on the scheduler.
+     * @param scheduler     The executor the callbacks run on. It must run one task at a time.
+     * @param queueCapacity The number of snapshots that can wait to be handled.
+     * @param backoff       The delays before a failed snapshot is retried.
+     * @param maxAttempts   The number of times the handler is tried on one snapshot.
+     */
+    public TrainIngestionPipeline(TrainFeedCallback recorder, TrainFeedCallback handler,
+                                  ScheduledExecutorService scheduler, int queueCapacity, RetryBackoff backoff,
+                                  int maxAttempts) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1: " + queueCapacity);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Attempts must be at least 1: " + maxAttempts);
+        }
+        this.recorder = recorder;
+        this.handler = handler;
+        this.scheduler = scheduler;
+        this.queueCapacity = queueCapacity;
+        this.backoff = backoff;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Queues a snapshot to be handled. Never blocks.
+     *
+     * @param trains The trains in the snapshot, ordered by train ID.
+     */
+    @Override
+    public void onTrainSnapshot(TrainStatus[] trains) {
+        synchronized (this) {
+            if (backingOff) {
+                // The retry will handle this snapshot instead of the ones waiting.
+                droppedSnapshots += queue.size();
+                queue.clear();
+            } else if (queue.size() >= queueCapacity) {
+                queue.pollFirst();
+                droppedSnapshots++;
+            }
+            queue.addLast(trains);
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        try {
+            scheduler.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("Dropping snapshot after the pipeline was shut down.");
+        }
+    }
+
+    /**
+     * Gets the number of snapshots that were dropped or replaced before they were handled.
+     *
+     * @return The number of dropped snapshots.
+     */
+    public synchronized long getDroppedSnapshots() {
+        return droppedSnapshots;
+    }
+
+    /**
+     * Handles the waiting snapshots in order until the queue is empty or the handler fails.
+     * A snapshot is recorded the first time it heads the queue; a retry only calls the handler again.
+     */
+    private void drain() {
+        while (true) {
+            TrainStatus[] trains;
+            boolean record;
+            synchronized (this) {
+                trains = queue.peekFirst();
+                if (trains == null) {
+                    drainScheduled = false;
+                    return;
+                }
+                backingOff = false;
+                record = trains != recorded;
+                recorded = trains;
+                if (trains != attempted) {
+                    attempted = trains;
+                    attempts = 0;
+                }
+            }
+
+            if (record) {
+                try {
+                    recorder.onTrainSnapshot(trains);
+                } catch (RuntimeException e) {
+                    LOGGER.warning("Error recording train snapshot: " + e);
+                }
+            }
+
+            RuntimeException failure = null;
+            try {
+                handler.onTrainSnapshot(trains);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+
+            synchronized (this) {
+                if (failure == null) {
+                    failures = 0;
+                    // The snapshot may already have been dropped to make room.
+                    if (queue.peekFirst() == trains) {
+                        queue.pollFirst();
+                    }
+                    continue;
+                }
+
+                failures++;
+                attempts++;
+                if (attempts >= maxAttempts) {
+                    LOGGER.warning("Giving up on train snapshot after " + attempts + " attempts: " + failure);
+                    if (queue.peekFirst() == trains) {
+                        queue.pollFirst();
+                        droppedSnapshots++;
+                    }
+                    continue;
+                }
+                backingOff = true;
+                long delay = backoff.delayMillis(failures);
+                LOGGER.warning("Error handling train snapshot, retrying in " + delay + " ms: " + failure);
+                try {
+                    scheduler.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    drainScheduled = false;
+                }
+                return;
+            }
+        }
+    }
+}
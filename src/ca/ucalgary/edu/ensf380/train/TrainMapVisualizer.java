@@ -1,5 +1,8 @@
 package ca.ucalgary.edu.ensf380.train;
 
+import ca.ucalgary.edu.ensf380.helper.ImageScaler;
+import ca.ucalgary.edu.ensf380.models.TrainMapCallback;
+
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -8,12 +11,21 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 /**
  * The TrainMapVisualizer class provides functionality to generate visual representations
  * of train positions on a map. It loads a base map image, overlays train positions,
- * and saves the resulting image.
+ * and publishes the resulting image to registered {@link TrainMapCallback}s.
+ * <p>
+ * The base map and the train markers are decoded and scaled once, on the first render,
+ * so each tick only composites the markers over the cached map. Frames are rendered into
+ * two alternating buffers, so the frame being displayed is never the one being drawn.
+ * Each buffer remembers the marker positions it was drawn with, and only the regions of
+ * markers that moved since then are restored from the base map and redrawn. The region that
+ * changed since the previously published frame is reported to the callbacks, so displays can
+ * repaint just that area. Saving each frame to disk is optional and disabled by default.
  */
 public class TrainMapVisualizer {
 
@@ -28,73 +40,304 @@ public class TrainMapVisualizer {
 	private final String trainImagePath;
 	private final String trainRedImagePath;
 
+	private BufferedImage baseMap;
+	private BufferedImage trainMarker;
+	private BufferedImage focusedTrainMarker;
+	private boolean baseMapFailed = false;
+	private boolean markersFailed = false;
+
+	private final BufferedImage[] frameBuffers = new BufferedImage[2];
+	private final MarkerLayout[] drawnLayouts = { new MarkerLayout(), new MarkerLayout() };
+	private final Rectangle[] damageRegions = { new Rectangle(), new Rectangle() };
+	private final MarkerLayout nextLayout = new MarkerLayout();
+	private final MarkerLayout publishedLayout = new MarkerLayout();
+	private Rectangle[] dirtyRegions = new Rectangle[0];
+	private int dirtyCount = 0;
+	private int backBufferIndex = 0;
+	private volatile BufferedImage latestFrame;
+	private volatile boolean exportEnabled = false;
+	private final List<TrainMapCallback> callbacks = new CopyOnWriteArrayList<>();
+
 	/**
 	 * Constructs a TrainMapVisualizer with default file paths.
 	 * The base map is expected to be in the 'data' directory with the name 'Trains.png'.
-	 * The output map will be saved in the 'data' directory as 'trainmap.png'.
+	 * When export is enabled, the output map will be saved in the 'data' directory as 'trainmap.png'.
 	 */
 	public TrainMapVisualizer() {
-		String basePath = System.getProperty("user.dir");
-		this.baseMapPath = Paths.get(basePath, "data", "Trains.png").toString();
-		this.outputMapPath = Paths.get("data", "trainmap.png").toString();
-		this.trainImagePath = Paths.get(basePath, "data", "train.jpg").toString();
-		this.trainRedImagePath = Paths.get(basePath, "data", "trainRed.jpg").toString();
+		this(Paths.get(System.getProperty("user.dir"), "data", "Trains.png").toString(),
+				Paths.get(System.getProperty("user.dir"), "data", "train.jpg").toString(),
+				Paths.get(System.getProperty("user.dir"), "data", "trainRed.jpg").toString(),
+				Paths.get("data", "trainmap.png").toString());
+	}
+
+	/**
+	 * Constructs a TrainMapVisualizer that reads its images from the given files.
+	 *
+	 * @param baseMapPath       Path of the base map image
+	 * @param trainImagePath    Path of the marker image of a train
+	 * @param trainRedImagePath Path of the marker image of the highlighted train
+	 * @param outputMapPath     Path the frames are saved to when export is enabled
+	 */
+	public TrainMapVisualizer(String baseMapPath, String trainImagePath, String trainRedImagePath,
+			String outputMapPath) {
+		this.baseMapPath = baseMapPath;
+		this.outputMapPath = outputMapPath;
+		this.trainImagePath = trainImagePath;
+		this.trainRedImagePath = trainRedImagePath;
 	}
 
 	/**
 	 * Renders an image depicting train positions based on provided coordinates.
 	 * This method orchestrates the entire process of loading the base map,
-	 * drawing train positions, and saving the final image.
+	 * drawing train positions, and publishing the final image.
 	 *
 	 * @param xPositions    List of x-coordinates for train positions
 	 * @param yPositions    List of y-coordinates for train positions
 	 * @param focusedTrain  Index of the train to highlight (will be drawn in orange)
 	 */
 	public void renderTrainMap(List<Integer> xPositions, List<Integer> yPositions, int focusedTrain) {
+		nextLayout.set(xPositions, yPositions, focusedTrain);
+		renderNextLayout();
+	}
+
+	/**
+	 * Renders an image depicting train positions based on provided coordinates, without boxing them.
+	 * This is the variant used for animation, where it is called once per frame.
+	 *
+	 * @param xPositions    Array of x-coordinates for train positions
+	 * @param yPositions    Array of y-coordinates for train positions
+	 * @param count         Number of trains to draw from the arrays
+	 * @param focusedTrain  Index of the train to highlight (will be drawn in orange)
+	 */
+	public void renderTrainMap(int[] xPositions, int[] yPositions, int count, int focusedTrain) {
+		nextLayout.set(xPositions, yPositions, count, focusedTrain);
+		renderNextLayout();
+	}
+
+	/**
+	 * Draws and publishes the frame for the layout prepared in {@code nextLayout}.
+	 */
+	private void renderNextLayout() {
+		if (!loadImages()) {
+			return;
+		}
 		try {
-			BufferedImage baseMap = loadBaseMap();
-			BufferedImage trainMap = createTrainMap(baseMap, xPositions, yPositions, focusedTrain);
-			saveTrainMap(trainMap);
+			BufferedImage trainMap = createTrainMap(baseMap, nextLayout);
+			publishFrame(trainMap, computeDamage(trainMap));
+			if (exportEnabled) {
+				saveTrainMap(trainMap);
+			}
 		} catch (IOException e) {
 			LOGGER.severe("Failed to process train map: " + e.getMessage());
 		}
 	}
 
 	/**
-	 * Loads the base map image from the file system.
+	 * Registers a callback to be notified every time a new frame is published.
 	 *
-	 * @return BufferedImage representing the base map
-	 * @throws IOException if there's an error reading the image file
+	 * @param callback the callback to add
 	 */
-	private BufferedImage loadBaseMap() throws IOException {
-		return ImageIO.read(new File(baseMapPath));
+	public void addTrainMapCallback(TrainMapCallback callback) {
+		callbacks.add(callback);
 	}
 
 	/**
-	 * Creates a new image with train positions overlaid on the base map.
+	 * Removes a previously registered callback.
 	 *
-	 * @param baseMap       The original map image
-	 * @param xPositions    List of x-coordinates for train positions
-	 * @param yPositions    List of y-coordinates for train positions
-	 * @param focusedTrain  Index of the train to highlight
+	 * @param callback the callback to remove
+	 */
+	public void removeTrainMapCallback(TrainMapCallback callback) {
+		callbacks.remove(callback);
+	}
+
+	/**
+	 * Gets the most recently published frame.
+	 *
+	 * @return the latest train map, or null if nothing has been rendered yet
+	 */
+	public BufferedImage getLatestFrame() {
+		return latestFrame;
+	}
+
+	/**
+	 * Enables or disables saving every rendered frame to 'data/trainmap.png'.
+	 *
+	 * @param exportEnabled true to write each frame to disk
+	 */
+	public void setExportEnabled(boolean exportEnabled) {
+		this.exportEnabled = exportEnabled;
+	}
+
+	/**
+	 * Draws the highlighted marker of one train at the position it has in the latest frame.
+	 * This lets several displays share a frame rendered without a highlight, each drawing
+	 * its own train on top. Must be called on the thread that renders the map.
+	 *
+	 * @param g2d   Graphics2D object to draw on, in map pixel coordinates
+	 * @param train Index of the train to highlight
+	 */
+	public void drawFocusedTrain(Graphics2D g2d, int train) {
+		if (focusedTrainMarker != null && train >= 0 && train < publishedLayout.count) {
+			g2d.drawImage(focusedTrainMarker, publishedLayout.xs[train], publishedLayout.ys[train], null);
+		}
+	}
+
+	/**
+	 * Computes the region that differs between the previously published frame and the new one.
+	 * The rectangle belongs to the back buffer, so it is reused without allocating and stays
+	 * valid for as long as the frame it describes.
+	 *
+	 * @param frame the frame about to be published
+	 * @return the changed region in map pixels, empty if nothing moved
+	 */
+	private Rectangle computeDamage(BufferedImage frame) {
+		Rectangle damage = damageRegions[backBufferIndex];
+		if (publishedLayout.isDrawn()) {
+			collectChanges(publishedLayout, nextLayout);
+			damage.setBounds(0, 0, 0, 0);
+			for (int i = 0; i < dirtyCount; i++) {
+				if (damage.isEmpty()) {
+					damage.setBounds(dirtyRegions[i]);
+				} else {
+					damage.add(dirtyRegions[i]);
+				}
+			}
+		} else {
+			damage.setBounds(0, 0, frame.getWidth(), frame.getHeight());
+		}
+		publishedLayout.copyFrom(nextLayout);
+		return damage;
+	}
+
+	/**
+	 * Makes a freshly drawn frame the latest one, swaps the buffers and notifies the callbacks.
+	 *
+	 * @param frame  the frame that was just drawn into the back buffer
+	 * @param damage the region that changed since the previously published frame
+	 */
+	private void publishFrame(BufferedImage frame, Rectangle damage) {
+		latestFrame = frame;
+		backBufferIndex ^= 1;
+		for (TrainMapCallback callback : callbacks) {
+			callback.onTrainMapRendered(frame, damage);
+		}
+	}
+
+	/**
+	 * Decodes the base map and the train markers the first time they are needed.
+	 * The base map is flattened onto a white background and the markers are scaled
+	 * to their final size, both into images compatible with the screen. A failure is
+	 * logged once and remembered, so frames rendered many times a second do not try
+	 * to decode the files again. Without markers the map is still drawn, without trains.
+	 *
+	 * @return true if the base map is loaded and frames can be rendered
+	 */
+	private boolean loadImages() {
+		if (baseMap == null && !baseMapFailed) {
+			try {
+				BufferedImage decoded = readImage(baseMapPath);
+				BufferedImage flattened = createCompatibleImage(decoded.getWidth(), decoded.getHeight());
+				Graphics2D g2d = flattened.createGraphics();
+				try {
+					g2d.setBackground(Color.WHITE);
+					g2d.clearRect(0, 0, flattened.getWidth(), flattened.getHeight());
+					g2d.drawImage(decoded, 0, 0, null);
+				} finally {
+					g2d.dispose();
+				}
+				baseMap = flattened;
+			} catch (IOException e) {
+				baseMapFailed = true;
+				LOGGER.severe("Failed to load the base map, no longer rendering the train map: " + e.getMessage());
+			}
+		}
+		if ((trainMarker == null || focusedTrainMarker == null) && !markersFailed) {
+			try {
+				if (trainMarker == null) {
+					trainMarker = resizeImage(readImage(trainImagePath), TRAIN_MARKER_SIZE, TRAIN_MARKER_SIZE);
+				}
+				if (focusedTrainMarker == null) {
+					focusedTrainMarker = resizeImage(readImage(trainRedImagePath), TRAIN_MARKER_SIZE, TRAIN_MARKER_SIZE);
+				}
+			} catch (IOException e) {
+				markersFailed = true;
+				LOGGER.severe("Failed to load the train markers, drawing the map without them: " + e.getMessage());
+			}
+		}
+		return baseMap != null;
+	}
+
+	/**
+	 * Decodes an image file.
+	 *
+	 * @param path the path of the image file
+	 * @return the decoded image
+	 * @throws IOException if the file cannot be read or is not in a supported format
+	 */
+	private static BufferedImage readImage(String path) throws IOException {
+		BufferedImage image = ImageIO.read(new File(path));
+		if (image == null) {
+			throw new IOException("Unsupported image format: " + path);
+		}
+		return image;
+	}
+
+	/**
+	 * Creates a translucent image in the pixel layout of the default screen, so drawing it
+	 * does not need a format conversion. Falls back to ARGB when running headless.
+	 *
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 * @return a new, empty image
+	 */
+	private static BufferedImage createCompatibleImage(int width, int height) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+	/**
+	 * Draws the train positions over the base map into the back buffer.
+	 * A buffer that was drawn before only has the regions of changed markers redrawn.
+	 *
+	 * @param baseMap The original map image
+	 * @param layout  The marker positions to draw
 	 * @return BufferedImage with train positions drawn on it
 	 */
-	private BufferedImage createTrainMap(BufferedImage baseMap, List<Integer> xPositions, List<Integer> yPositions, int focusedTrain) {
-		int width = baseMap.getWidth();
-		int height = baseMap.getHeight();
-		BufferedImage trainMap = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	private BufferedImage createTrainMap(BufferedImage baseMap, MarkerLayout layout) {
+		BufferedImage trainMap = frameBuffers[backBufferIndex];
+		MarkerLayout drawnLayout = drawnLayouts[backBufferIndex];
+		if (trainMap == null) {
+			trainMap = createCompatibleImage(baseMap.getWidth(), baseMap.getHeight());
+			frameBuffers[backBufferIndex] = trainMap;
+			drawnLayout.clear();
+		}
 
 		Graphics2D g2d = trainMap.createGraphics();
 		try {
-			g2d.setBackground(Color.WHITE);
-			g2d.clearRect(0, 0, width, height);
-			g2d.drawImage(baseMap, 0, 0, null);
-
-			drawTrainPositions(g2d, xPositions, yPositions, focusedTrain);
+			if (drawnLayout.isDrawn()) {
+				collectChanges(drawnLayout, layout);
+				for (int i = 0; i < dirtyCount; i++) {
+					// Restore the base map under an old or new marker position, then redraw the
+					// markers touching it, clipped to that region so overlaps keep their order.
+					Rectangle dirty = dirtyRegions[i];
+					int right = dirty.x + dirty.width;
+					int bottom = dirty.y + dirty.height;
+					g2d.setClip(dirty.x, dirty.y, dirty.width, dirty.height);
+					g2d.drawImage(baseMap, dirty.x, dirty.y, right, bottom, dirty.x, dirty.y, right, bottom, null);
+					drawTrainPositions(g2d, layout, dirty);
+				}
+			} else {
+				g2d.drawImage(baseMap, 0, 0, null);
+				drawTrainPositions(g2d, layout, null);
+			}
 		} finally {
 			g2d.dispose();
 		}
 
+		drawnLayout.copyFrom(layout);
 		return trainMap;
 	}
 
@@ -102,42 +345,74 @@ public class TrainMapVisualizer {
 	 * Draws train positions on the given Graphics2D object.
 	 * The focused train is drawn in orange, while others are drawn in black.
 	 *
-	 * @param g2d           Graphics2D object to draw on
-	 * @param xPositions    List of x-coordinates for train positions
-	 * @param yPositions    List of y-coordinates for train positions
-	 * @param focusedTrain  Index of the train to highlight
+	 * @param g2d    Graphics2D object to draw on
+	 * @param layout The marker positions to draw
+	 * @param region The region being redrawn, or null to draw every marker
 	 */
-	private void drawTrainPositions(Graphics2D g2d, List<Integer> xPositions, List<Integer> yPositions, int focusedTrain) {
-		try {
-			BufferedImage trainImage = ImageIO.read(new File(trainImagePath));
-			BufferedImage trainRedImage = ImageIO.read(new File(trainRedImagePath));
-			BufferedImage resizedTrainImage = resizeImage(trainImage, TRAIN_MARKER_SIZE, TRAIN_MARKER_SIZE);
-			BufferedImage resizedTrainRedImage = resizeImage(trainRedImage, TRAIN_MARKER_SIZE, TRAIN_MARKER_SIZE);
-
-			for (int i = 0; i < xPositions.size(); i++) {
-				int x = (int) (xPositions.get(i) / X_SCALE_FACTOR);
-				int y = (int) (yPositions.get(i) / Y_SCALE_FACTOR);
+	private void drawTrainPositions(Graphics2D g2d, MarkerLayout layout, Rectangle region) {
+		for (int i = 0; i < layout.count; i++) {
+			if (region != null && !layout.intersects(i, region)) {
+				continue;
+			}
+			BufferedImage marker = i == layout.focused ? focusedTrainMarker : trainMarker;
+			if (marker != null) {
+				g2d.drawImage(marker, layout.xs[i], layout.ys[i], null);
+			}
+		}
+	}
 
-				if (i == focusedTrain) {
-					g2d.drawImage(resizedTrainRedImage, x, y, null);
-				} else {
-					g2d.drawImage(resizedTrainImage, x, y, null);
-				}
+	/**
+	 * Collects the old and new bounds of every marker that differs between two layouts
+	 * into the reusable dirty region list.
+	 *
+	 * @param before the layout previously drawn
+	 * @param after  the layout about to be drawn
+	 */
+	private void collectChanges(MarkerLayout before, MarkerLayout after) {
+		dirtyCount = 0;
+		int count = Math.max(before.count, after.count);
+		for (int i = 0; i < count; i++) {
+			if (i < before.count && i < after.count && before.sameMarker(after, i)) {
+				continue;
+			}
+			if (i < before.count) {
+				addDirtyRegion(before.xs[i], before.ys[i]);
+			}
+			if (i < after.count) {
+				addDirtyRegion(after.xs[i], after.ys[i]);
 			}
-		} catch (IOException e) {
-			LOGGER.severe("Failed to load train images: " + e.getMessage());
 		}
 	}
-	
-	private BufferedImage resizeImage(BufferedImage originalImage, int width, int height) {
-		Image tmp = originalImage.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-		BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
-		Graphics2D g2d = resized.createGraphics();
-		g2d.drawImage(tmp, 0, 0, null);
-		g2d.dispose();
+	/**
+	 * Adds the bounds of a marker at the given position to the dirty region list,
+	 * reusing the rectangles from previous frames.
+	 *
+	 * @param x the x-coordinate of the marker in map pixels
+	 * @param y the y-coordinate of the marker in map pixels
+	 */
+	private void addDirtyRegion(int x, int y) {
+		if (dirtyCount == dirtyRegions.length) {
+			Rectangle[] grown = new Rectangle[Math.max(8, dirtyRegions.length * 2)];
+			System.arraycopy(dirtyRegions, 0, grown, 0, dirtyRegions.length);
+			for (int i = dirtyRegions.length; i < grown.length; i++) {
+				grown[i] = new Rectangle();
+			}
+			dirtyRegions = grown;
+		}
+		dirtyRegions[dirtyCount++].setBounds(x, y, TRAIN_MARKER_SIZE, TRAIN_MARKER_SIZE);
+	}
 
-		return resized;
+	/**
+	 * Scales an image to the given size.
+	 *
+	 * @param originalImage the image to scale
+	 * @param width         the target width
+	 * @param height        the target height
+	 * @return a new image of the given size
+	 */
+	private BufferedImage resizeImage(BufferedImage originalImage, int width, int height) {
+		return ImageScaler.scale(originalImage, createCompatibleImage(width, height));
 	}
 
 	/**
@@ -150,4 +425,115 @@ public class TrainMapVisualizer {
 		File outputFile = new File(outputMapPath);
 		ImageIO.write(trainMap, IMAGE_FORMAT, outputFile);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * The marker positions, in map pixels, that a frame was drawn with.
+	 */
+	private static final class MarkerLayout {
+		private int[] xs = new int[0];
+		private int[] ys = new int[0];
+		private int count = -1;
+		private int focused = -1;
+
+		/**
+		 * Sets the layout from train coordinates, converting them to map pixels.
+		 *
+		 * @param xPositions   List of x-coordinates for train positions
+		 * @param yPositions   List of y-coordinates for train positions
+		 * @param focusedTrain Index of the train to highlight
+		 */
+		void set(List<Integer> xPositions, List<Integer> yPositions, int focusedTrain) {
+			ensureCapacity(xPositions.size());
+			for (int i = 0; i < xPositions.size(); i++) {
+				xs[i] = (int) (xPositions.get(i) / X_SCALE_FACTOR);
+				ys[i] = (int) (yPositions.get(i) / Y_SCALE_FACTOR);
+			}
+			count = xPositions.size();
+			focused = focusedTrain;
+		}
+
+		/**
+		 * Sets the layout from arrays of train coordinates, converting them to map pixels.
+		 *
+		 * @param xPositions   Array of x-coordinates for train positions
+		 * @param yPositions   Array of y-coordinates for train positions
+		 * @param trainCount   Number of trains to read from the arrays
+		 * @param focusedTrain Index of the train to highlight
+		 */
+		void set(int[] xPositions, int[] yPositions, int trainCount, int focusedTrain) {
+			ensureCapacity(trainCount);
+			for (int i = 0; i < trainCount; i++) {
+				xs[i] = (int) (xPositions[i] / X_SCALE_FACTOR);
+				ys[i] = (int) (yPositions[i] / Y_SCALE_FACTOR);
+			}
+			count = trainCount;
+			focused = focusedTrain;
+		}
+
+		/**
+		 * Copies another layout into this one.
+		 *
+		 * @param other the layout to copy
+		 */
+		void copyFrom(MarkerLayout other) {
+			ensureCapacity(Math.max(other.count, 0));
+			System.arraycopy(other.xs, 0, xs, 0, Math.max(other.count, 0));
+			System.arraycopy(other.ys, 0, ys, 0, Math.max(other.count, 0));
+			count = other.count;
+			focused = other.focused;
+		}
+
+		/**
+		 * Marks the layout as never drawn.
+		 */
+		void clear() {
+			count = -1;
+			focused = -1;
+		}
+
+		/**
+		 * Checks whether a frame has been drawn with this layout.
+		 *
+		 * @return true if the layout holds drawn positions
+		 */
+		boolean isDrawn() {
+			return count >= 0;
+		}
+
+		/**
+		 * Checks whether a marker is drawn identically in both layouts.
+		 *
+		 * @param other the layout to compare with
+		 * @param i     the index of the marker
+		 * @return true if the marker has the same position and highlight
+		 */
+		boolean sameMarker(MarkerLayout other, int i) {
+			return xs[i] == other.xs[i] && ys[i] == other.ys[i]
+					&& (i == focused) == (i == other.focused);
+		}
+
+		/**
+		 * Checks whether a marker overlaps a region.
+		 *
+		 * @param i      the index of the marker
+		 * @param region the region in map pixels
+		 * @return true if the marker and the region share at least one pixel
+		 */
+		boolean intersects(int i, Rectangle region) {
+			return xs[i] < region.x + region.width && region.x < xs[i] + TRAIN_MARKER_SIZE
+					&& ys[i] < region.y + region.height && region.y < ys[i] + TRAIN_MARKER_SIZE;
+		}
+
+		/**
+		 * Grows the position arrays to hold at least the given number of markers.
+		 *
+		 * @param size the number of markers
+		 */
+		private void ensureCapacity(int size) {
+			if (xs.length < size) {
+				xs = new int[size];
+				ys = new int[size];
+			}
+		}
+	}
+}
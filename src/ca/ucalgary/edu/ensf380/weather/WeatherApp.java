@@ -1,22 +1,38 @@
 package ca.ucalgary.edu.ensf380.weather;
 
+import ca.ucalgary.edu.ensf380.helper.HttpFetcher;
+import ca.ucalgary.edu.ensf380.models.WeatherReport;
+
 import java.io.*;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.regex.*;
 
 /**
  * A weather application that fetches and stores weather data for a given city.
+ * It runs as a standalone program, and its fetcher can also be called in process
+ * to get a {@link WeatherReport} directly.
  */
 public class WeatherApp {
     private static final Pattern CITY_PATTERN = Pattern.compile("^[a-zA-Z\\s]+$");
 
+    /**
+     * Checks whether a city name is accepted by the application.
+     * @param city The name of the city.
+     * @return true if the name only holds letters and spaces.
+     */
+    public static boolean isValidCity(String city) {
+        return city != null && CITY_PATTERN.matcher(city).matches();
+    }
+
     /**
      * The main entry point of the application.
      * @param args Command line arguments. Expects a single argument: the name of the city.
      */
     public static void main(String[] args) {
-        if (args.length != 1 || !CITY_PATTERN.matcher(args[0]).matches()) {
+        if (args.length != 1 || !isValidCity(args[0])) {
             System.out.println("Please provide a valid city name as a command-line argument.");
             return;
         }
@@ -46,7 +62,7 @@ public class WeatherApp {
     /**
      * Utility class for storing weather data.
      */
-    static class WeatherStorage {
+    public static class WeatherStorage {
         private static final Pattern LINE_PATTERN = Pattern.compile("^(.*)$", Pattern.MULTILINE);
         private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+$");
 
@@ -60,21 +76,33 @@ public class WeatherApp {
             Path path = Paths.get(filePath);
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
                 for (WeatherLine line : weatherData.getLines()) {
-                    Matcher matcher = LINE_PATTERN.matcher(line.getContent());
-                    if (matcher.find()) {
-                        String trimmedLine = WHITESPACE_PATTERN.matcher(matcher.group(1)).replaceAll("");
-                        writer.write(trimmedLine);
+                    String formattedLine = formatLine(line);
+                    if (formattedLine != null) {
+                        writer.write(formattedLine);
                         writer.newLine();
                     }
                 }
             }
         }
+
+        /**
+         * Formats a line of weather data the way it is stored.
+         * @param line The line to format.
+         * @return The first line of its content without trailing whitespace, or null if there is none.
+         */
+        static String formatLine(WeatherLine line) {
+            Matcher matcher = LINE_PATTERN.matcher(line.getContent());
+            if (!matcher.find()) {
+                return null;
+            }
+            return WHITESPACE_PATTERN.matcher(matcher.group(1)).replaceAll("");
+        }
     }
 
     /**
      * Represents weather data for a specific city.
      */
-    static class WeatherData {
+    public static class WeatherData {
         private final String city;
         private final List<WeatherLine> lines;
 
@@ -110,12 +138,27 @@ public class WeatherApp {
         public List<WeatherLine> getLines() {
             return lines;
         }
+
+        /**
+         * Converts the weather data to a report holding the lines as they would be stored.
+         * @return The weather report.
+         */
+        public WeatherReport toWeatherReport() {
+            WeatherReport weatherReport = new WeatherReport();
+            for (WeatherLine line : lines) {
+                String formattedLine = WeatherStorage.formatLine(line);
+                if (formattedLine != null) {
+                    weatherReport.addWeatherData(formattedLine);
+                }
+            }
+            return weatherReport;
+        }
     }
 
     /**
      * Represents a single line of weather data.
      */
-    static class WeatherLine {
+    public static class WeatherLine {
         private final String content;
         private static final Pattern ANSI_ESCAPE = Pattern.compile("\\e\\[[0-9;]*[mGKH]");
 
@@ -137,9 +180,9 @@ public class WeatherApp {
     }
 
     /**
-     * Utility class for fetching weather data.
+     * Utility class for fetching weather data. All fetches go through the shared {@link HttpFetcher}.
      */
-    static class WeatherFetcher {
+    public static class WeatherFetcher {
         private static final String BASE_URL = "https://wttr.in/";
         private static final Pattern PRE_PATTERN = Pattern.compile("<pre>(.*?)</pre>", Pattern.DOTALL);
         private static final Pattern LINE_PATTERN = Pattern.compile("^(.*)$", Pattern.MULTILINE);
@@ -152,8 +195,92 @@ public class WeatherApp {
          * @throws IOException If an I/O error occurs during fetching.
          */
         public static WeatherData fetchWeatherData(String city) throws IOException {
-            String url = BASE_URL + city + "?0QT";
-            String html = fetchHtml(url);
+            return fetchWeatherData(city, HttpFetcher.getInstance(), BASE_URL);
+        }
+
+        /**
+         * Fetches weather data for a given city from a given server.
+         * @param city The name of the city.
+         * @param httpFetcher The fetcher to send the request with.
+         * @param baseUrl The URL the encoded city name is appended to.
+         * @return A WeatherData object containing the fetched data.
+         * @throws IOException If an I/O error occurs during fetching.
+         */
+        public static WeatherData fetchWeatherData(String city, HttpFetcher httpFetcher, String baseUrl) throws IOException {
+            return parseWeatherData(city, fetchHtml(httpFetcher, cityUrl(city, baseUrl)));
+        }
+
+        /**
+         * Fetches the weather report for a given city without storing it.
+         * @param city The name of the city.
+         * @return The weather report, empty if the page held no report.
+         * @throws IOException If an I/O error occurs during fetching.
+         */
+        public static WeatherReport fetchWeatherReport(String city) throws IOException {
+            return fetchWeatherData(city).toWeatherReport();
+        }
+
+        /**
+         * Fetches the weather report for a given city, unless the page has not changed since the last report read.
+         * @param city The name of the city.
+         * @param lastReport The lines of the last good report of the city, or null if there is none.
+         * @return The weather report, a copy of the last report if the page has not changed, or an empty report
+         *         if the page held no report.
+         * @throws IOException If an I/O error occurs during fetching.
+         */
+        public static WeatherReport fetchWeatherReport(String city, List<String> lastReport) throws IOException {
+            return fetchWeatherReport(city, lastReport, HttpFetcher.getInstance(), BASE_URL);
+        }
+
+        /**
+         * Fetches the weather report for a given city from a given server, unless the page has not changed since
+         * the last report read. The validators of a page are only kept once it held a report.
+         * @param city The name of the city.
+         * @param lastReport The lines of the last good report of the city, or null if there is none.
+         * @param httpFetcher The fetcher to send the request with.
+         * @param baseUrl The URL the encoded city name is appended to.
+         * @return The weather report, a copy of the last report if the page has not changed, or an empty report
+         *         if the page held no report.
+         * @throws IOException If an I/O error occurs during fetching.
+         */
+        public static WeatherReport fetchWeatherReport(String city, List<String> lastReport, HttpFetcher httpFetcher,
+                                                       String baseUrl) throws IOException {
+            String url = cityUrl(city, baseUrl);
+            try (HttpFetcher.Response response = httpFetcher.getIfModified(url, url)) {
+                if (!response.notModified()) {
+                    WeatherReport weatherReport = parseWeatherData(city, readHtml(response, url)).toWeatherReport();
+                    if (!weatherReport.getWeatherData().isEmpty()) {
+                        response.confirm();
+                    }
+                    return weatherReport;
+                }
+            }
+            if (lastReport == null) {
+                // The page was confirmed by another caller; without a copy of it, fetch it in full.
+                return fetchWeatherData(city, httpFetcher, baseUrl).toWeatherReport();
+            }
+            WeatherReport weatherReport = new WeatherReport();
+            lastReport.forEach(weatherReport::addWeatherData);
+            return weatherReport;
+        }
+
+        /**
+         * Gets the URL of the weather page of a city.
+         * @param city The name of the city.
+         * @param baseUrl The URL the encoded city name is appended to.
+         * @return The URL of the page.
+         */
+        private static String cityUrl(String city, String baseUrl) {
+            return baseUrl + URLEncoder.encode(city, StandardCharsets.UTF_8).replace("+", "%20") + "?0QT";
+        }
+
+        /**
+         * Extracts the weather data for a city from a fetched page.
+         * @param city The name of the city.
+         * @param html The HTML content of the page.
+         * @return A WeatherData object containing the extracted data.
+         */
+        public static WeatherData parseWeatherData(String city, String html) {
             WeatherData weatherData = new WeatherData(city);
 
             Matcher preMatcher = PRE_PATTERN.matcher(html);
@@ -178,19 +305,29 @@ public class WeatherApp {
 
         /**
          * Fetches HTML content from a given URL.
+         * @param httpFetcher The fetcher to send the request with.
          * @param url The URL to fetch from.
          * @return The fetched HTML content as a string.
          * @throws IOException If an I/O error occurs during fetching.
          */
-        private static String fetchHtml(String url) throws IOException {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new java.net.URL(url).openStream()))) {
-                StringBuilder content = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line).append("\n");
-                }
-                return content.toString();
+        private static String fetchHtml(HttpFetcher httpFetcher, String url) throws IOException {
+            try (HttpFetcher.Response response = httpFetcher.get(url)) {
+                return readHtml(response, url);
+            }
+        }
+
+        /**
+         * Reads the HTML content of a response.
+         * @param response The response.
+         * @param url The URL the response is for.
+         * @return The HTML content as a string.
+         * @throws IOException If the server did not answer with the page, or it cannot be read.
+         */
+        private static String readHtml(HttpFetcher.Response response, String url) throws IOException {
+            if (response.statusCode() != 200) {
+                throw new IOException("Server returned HTTP response code: " + response.statusCode() + " for URL: " + url);
             }
+            return response.bodyAsString().replace("\r\n", "\n");
         }
     }
 }
\ No newline at end of file
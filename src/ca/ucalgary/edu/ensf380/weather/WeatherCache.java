@@ -0,0 +1,289 @@
+package ca.ucalgary.edu.ensf380.weather;
+
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
+import ca.ucalgary.edu.ensf380.models.WeatherReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
+
+/**
+ * The WeatherCache class keeps the latest weather report of every city, shared by all screens in the process.
+ * <p>
+ * A report is fresh for a fixed time to live after it was fetched. While it is fresh, every screen of the
+ * city is served from memory. Once it is stale it is still served right away, and one refresh is started in
+ * the background. Refreshes of a city never overlap: callers that need the report while a refresh is
+ * running wait for that refresh instead of starting another, so a city costs at most one upstream request
+ * per time to live. A failed refresh keeps the last good report and is retried after a short delay.
+ * <p>
+ * Every good report is also written to the cache directory, and a city that is not in memory yet is loaded
+ * from there first, so a restarted screen shows the last good report without waiting for the network.
+ */
+public class WeatherCache {
+
+    /**
+     * Default time in milliseconds a report stays fresh.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Default time in milliseconds to wait before retrying a failed refresh.
+     */
+    public static final long DEFAULT_RETRY_MILLIS = 30 * 1000;
+
+    /**
+     * Default directory the last good reports are kept in.
+     */
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "weather-cache");
+
+    private static final Logger LOGGER = Logger.getLogger(WeatherCache.class.getName());
+
+    private static WeatherCache instance;
+
+    /**
+     * The WeatherCache.Loader interface defines how a report is fetched when the cache needs it.
+     */
+    public interface Loader {
+        /**
+         * Fetches the weather report of a city. The last good report is handed over, so a loader that finds the
+         * report has not changed can return it again without transferring it.
+         *
+         * @param cityName   The city name.
+         * @param lastReport The lines of the last good report, or null if there is none.
+         * @return The weather report. An empty report counts as a failed fetch.
+         * @throws IOException If the report cannot be fetched.
+         */
+        WeatherReport load(String cityName, List<String> lastReport) throws IOException;
+    }
+
+    private final Loader loader;
+    private final long ttlMillis;
+    private final long retryMillis;
+    private final Path directory;
+    private final Executor refreshExecutor;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a WeatherCache.
+     *
+     * @param loader          Fetches a report when the cache needs one.
+     * @param ttlMillis       The time in milliseconds a report stays fresh.
+     * @param retryMillis     The time in milliseconds to wait before retrying a failed refresh.
+     * @param directory       The directory the last good reports are kept in, or null to keep them in memory only.
+     * @param refreshExecutor The executor refreshes run on.
+     */
+    public WeatherCache(Loader loader, long ttlMillis, long retryMillis, Path directory, Executor refreshExecutor) {
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.retryMillis = retryMillis;
+        this.directory = directory;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Gets the cache shared by the whole application. It fetches reports in process with
+     * {@link WeatherApp.WeatherFetcher} on the {@link BackgroundRuntime}, revalidating the weather page
+     * against the last good report.
+     *
+     * @return The shared cache.
+     */
+    public static synchronized WeatherCache getInstance() {
+        if (instance == null) {
+            BackgroundRuntime backgroundRuntime = BackgroundRuntime.getInstance();
+            instance = new WeatherCache(WeatherApp.WeatherFetcher::fetchWeatherReport, DEFAULT_TTL_MILLIS,
+                    DEFAULT_RETRY_MILLIS, DEFAULT_DIRECTORY, backgroundRuntime::submit);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the weather report of a city. A cached report is returned right away, and refreshed in the
+     * background if it is stale. Without a cached report, this waits for the refresh, which is shared
+     * with every other caller waiting for the same city.
+     *
+     * @param cityName The city name.
+     * @return The lines of the latest good report, or null if the city has never been fetched successfully.
+     */
+    public List<String> get(String cityName) {
+        Entry entry = entries.computeIfAbsent(key(cityName), key -> loadPersisted(key));
+        List<String> report = entry.report;
+        if (report != null) {
+            if (isDue(entry)) {
+                refresh(cityName, entry);
+            }
+            return report;
+        }
+        // Without a report, wait for a refresh; during the retry delay, only for one that is already running.
+        CompletableFuture<List<String>> refresh = isDue(entry) ? refresh(cityName, entry) : entry.inFlight;
+        return refresh == null ? null : refresh.join();
+    }
+
+    /**
+     * Checks whether a city's report needs to be refreshed.
+     *
+     * @param entry The cache entry of the city.
+     * @return true if the report is stale and the last failure is long enough ago.
+     */
+    private boolean isDue(Entry entry) {
+        long now = System.currentTimeMillis();
+        return now - entry.fetchedAt >= ttlMillis && now >= entry.retryAt;
+    }
+
+    /**
+     * Starts a refresh of a city, unless one is already running.
+     *
+     * @param cityName The city name.
+     * @param entry    The cache entry of the city.
+     * @return The refresh, completing with the latest good report or null.
+     */
+    private CompletableFuture<List<String>> refresh(String cityName, Entry entry) {
+        CompletableFuture<List<String>> refresh;
+        synchronized (entry) {
+            if (entry.inFlight != null) {
+                return entry.inFlight;
+            }
+            refresh = new CompletableFuture<>();
+            entry.inFlight = refresh;
+        }
+        try {
+            refreshExecutor.execute(() -> load(cityName, entry, refresh));
+        } catch (RejectedExecutionException e) {
+            finish(entry, refresh);
+        }
+        return refresh;
+    }
+
+    /**
+     * Fetches a city's report and stores it if it is good.
+     *
+     * @param cityName The city name.
+     * @param entry    The cache entry of the city.
+     * @param refresh  The refresh to complete.
+     */
+    private void load(String cityName, Entry entry, CompletableFuture<List<String>> refresh) {
+        try {
+            WeatherReport weatherReport = loader.load(cityName, entry.report);
+            List<String> lines = weatherReport == null ? List.of() : List.copyOf(weatherReport.getWeatherData());
+            if (lines.isEmpty()) {
+                throw new IOException("Empty weather report");
+            }
+            entry.report = lines;
+            entry.fetchedAt = System.currentTimeMillis();
+            persist(entry.key, lines);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("Error refreshing weather for " + cityName + ": " + e);
+            entry.retryAt = System.currentTimeMillis() + retryMillis;
+        } finally {
+            finish(entry, refresh);
+        }
+    }
+
+    /**
+     * Ends a refresh, handing the latest good report to everyone waiting for it.
+     *
+     * @param entry   The cache entry of the city.
+     * @param refresh The refresh to complete.
+     */
+    private void finish(Entry entry, CompletableFuture<List<String>> refresh) {
+        synchronized (entry) {
+            entry.inFlight = null;
+        }
+        refresh.complete(entry.report);
+    }
+
+    /**
+     * Creates the cache entry of a city from its last good report on disk, if there is one.
+     * The report counts as fetched when the file was last written.
+     *
+     * @param key The cache key of the city.
+     * @return The cache entry.
+     */
+    private Entry loadPersisted(String key) {
+        Entry entry = new Entry(key);
+        if (directory == null) {
+            return entry;
+        }
+        Path file = directory.resolve(key + ".txt");
+        try {
+            if (Files.isRegularFile(file)) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                if (!lines.isEmpty()) {
+                    entry.report = List.copyOf(lines);
+                    entry.fetchedAt = Files.getLastModifiedTime(file).toMillis();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Error reading cached weather report " + file + ": " + e.getMessage());
+        }
+        return entry;
+    }
+
+    /**
+     * Writes a good report to the cache directory, replacing the previous one atomically.
+     *
+     * @param key   The cache key of the city.
+     * @param lines The lines of the report.
+     */
+    private void persist(String key, List<String> lines) {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key + ".txt");
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(temporary, FileTime.fromMillis(System.currentTimeMillis()));
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Error writing cached weather report " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the cache key of a city, which is also the name of its file.
+     *
+     * @param cityName The city name.
+     * @return The key.
+     */
+    private static String key(String cityName) {
+        return cityName.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+    }
+
+    /**
+     * The cached state of one city.
+     */
+    private static final class Entry {
+        private final String key;
+        private volatile List<String> report;
+        private volatile long fetchedAt;
+        private volatile long retryAt;
+        private volatile CompletableFuture<List<String>> inFlight;
+
+        /**
+         * Constructs an empty entry.
+         *
+         * @param key The cache key of the city.
+         */
+        private Entry(String key) {
+            this.key = key;
+            this.fetchedAt = Long.MIN_VALUE / 2;
+        }
+    }
+}
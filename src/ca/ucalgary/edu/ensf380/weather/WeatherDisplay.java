@@ -1,18 +1,17 @@
 package ca.ucalgary.edu.ensf380.weather;
 
+import ca.ucalgary.edu.ensf380.helper.BackgroundRuntime;
 import ca.ucalgary.edu.ensf380.models.Article;
 import ca.ucalgary.edu.ensf380.models.WeatherReport;
 import ca.ucalgary.edu.ensf380.news.ArticleDisplay;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -32,11 +31,6 @@ public class WeatherDisplay extends JPanel {
      */
     private final JTextArea weatherReportArea;
 
-    /**
-     * Path to the weather report file.
-     */
-    private final String FILE_PATH = "./data/weather.txt";
-
     /**
      * City name for the weather report.
      */
@@ -45,13 +39,7 @@ public class WeatherDisplay extends JPanel {
     /**
      * Logger for logging errors and information.
      */
-    private Logger logger = Logger.getLogger(WeatherDisplay.class.getName());
-
-
-    /**
-     * The ExecutorService to run tasks asynchronously.
-     */
-    private final ExecutorService executorService;
+    private static Logger logger = Logger.getLogger(WeatherDisplay.class.getName());
 
     /**
      * Constructs a WeatherDisplay panel with a list of articles and an
@@ -61,7 +49,18 @@ public class WeatherDisplay extends JPanel {
      * @param cityName       The city name for the weather report.
      */
     public WeatherDisplay(ArticleDisplay articleDisplay, String cityName) {
-        this.executorService = Executors.newSingleThreadExecutor();
+        this(articleDisplay, cityName, true);
+    }
+
+    /**
+     * Constructs a WeatherDisplay panel that optionally leaves fetching the weather report to its owner.
+     * Screens that share one report turn fetching off and receive it through {@link #showWeatherReport(List)}.
+     *
+     * @param articleDisplay The ArticleDisplay component.
+     * @param cityName       The city name for the weather report.
+     * @param fetchWeather   True to fetch the weather report every minute, false to wait for it to be shown.
+     */
+    public WeatherDisplay(ArticleDisplay articleDisplay, String cityName, boolean fetchWeather) {
         this.CITY_NAME = cityName;
 
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
@@ -95,13 +94,23 @@ public class WeatherDisplay extends JPanel {
         add(Box.createRigidArea(new Dimension(0, 10)));
         add(articleDisplay);
 
-        // Set up timers
+        // Set up timers; the weather is fetched right away and then every minute
         new Timer(1000, e -> updateTime()).start();
-        new Timer(60000, e -> fetchWeatherReport()).start();
+        if (fetchWeather) {
+            BackgroundRuntime.getInstance().scheduleAtFixedRate(this::fetchWeatherReport, 0, 60, TimeUnit.SECONDS);
+        }
 
         // Initial display
         updateTime();
-        fetchWeatherReport();
+    }
+
+    /**
+     * Shows a weather report fetched elsewhere. Must be called on the event dispatch thread.
+     *
+     * @param weatherReport The lines of the weather report.
+     */
+    public void showWeatherReport(List<String> weatherReport) {
+        weatherReportArea.setText(String.join("\n", weatherReport));
     }
 
     /**
@@ -114,7 +123,7 @@ public class WeatherDisplay extends JPanel {
     }
 
     /**
-     * Displays the weather report by reading it from a file.
+     * Displays the weather report by fetching it.
      */
     private void displayWeatherReport() {
         try {
@@ -126,41 +135,44 @@ public class WeatherDisplay extends JPanel {
     }
 
     /**
-     * Fetches the weather report asynchronously.
+     * Fetches the weather report on a background thread and shows it on the event dispatch thread.
      */
     private void fetchWeatherReport() {
-        executorService.submit(() -> {
-            List<String> weatherReport = getWeatherReport();
-            SwingUtilities.invokeLater(() -> weatherReportArea.setText(String.join("\n", weatherReport)));
-        });
+        List<String> weatherReport = getWeatherReport();
+        SwingUtilities.invokeLater(() -> showWeatherReport(weatherReport));
     }
 
     /**
-     * Gets the weather report by executing a JAR file and reading the output file.
+     * Gets the weather report for the city of this display.
      *
      * @return A list of strings representing the weather report.
      */
     public List<String> getWeatherReport() {
-        WeatherReport weatherReport = new WeatherReport();
+        return getWeatherReport(CITY_NAME);
+    }
 
-        WeatherFetcher weatherFetcher = new WeatherFetcher();
-        if (weatherFetcher.executeJar(CITY_NAME) == 0) { // success
-            // Read the file
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE_PATH))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    weatherReport.addWeatherData(line);
-                }
-            } catch (IOException e) {
-                logger.severe("Error reading weather report file: " + e.getMessage());
+    /**
+     * Gets the weather report for a city from the shared {@link WeatherCache}, which fetches it in process
+     * with {@link WeatherApp.WeatherFetcher} at most once per time to live, however many screens show the city.
+     * Placeholder data is returned if the city name is invalid or no report has ever been fetched for it.
+     *
+     * @param cityName The city name for the weather report.
+     * @return A list of strings representing the weather report.
+     */
+    public static List<String> getWeatherReport(String cityName) {
+        if (WeatherApp.isValidCity(cityName)) {
+            List<String> weatherReport = WeatherCache.getInstance().get(cityName);
+            if (weatherReport != null) {
+                return weatherReport;
             }
-        } else {
-            // Return dummy data if fetching fails
-            weatherReport.addWeatherData("Weather report for city " + CITY_NAME);
-            weatherReport.addWeatherData("Temperature: 25C");
-            weatherReport.addWeatherData("Humidity: 50%");
+            logger.warning("No weather report available for " + cityName);
         }
 
+        // Return dummy data if fetching fails
+        WeatherReport weatherReport = new WeatherReport();
+        weatherReport.addWeatherData("Weather report for city " + cityName);
+        weatherReport.addWeatherData("Temperature: 25C");
+        weatherReport.addWeatherData("Humidity: 50%");
         return weatherReport.getWeatherData();
     }
 }
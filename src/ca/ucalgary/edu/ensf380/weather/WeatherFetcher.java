@@ -7,7 +7,8 @@ import java.util.logging.Logger;
 
 /**
  * The WeatherFetcher class is responsible for executing an external JAR file
- * to fetch weather data.
+ * to fetch weather data into a file. The screens fetch the weather in process
+ * through {@link WeatherApp.WeatherFetcher} instead.
  */
 public class WeatherFetcher {
     private Logger logger = Logger.getLogger(WeatherFetcher.class.getName());